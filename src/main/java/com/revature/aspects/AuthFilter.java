@@ -0,0 +1,132 @@
+package com.revature.aspects;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.UrlPathHelper;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.revature.dto.AuthenticatedUser;
+import com.revature.errorhandling.ApiError;
+import com.revature.exceptions.AuthenticationException;
+import com.revature.util.JwtTokenManager;
+import com.revature.util.VerifiedToken;
+
+
+/**
+ * The purpose of this class is to check the <code>auth-token</code> header of
+ * every request to a protected route.
+ *
+ * The token is verified once here and the caller is stored on the request as an
+ * {@link AuthenticatedUser} under {@link #PRINCIPAL}, which controllers read with
+ * <code>@RequestAttribute(AuthFilter.PRINCIPAL)</code>. Requests without a valid
+ * token get a 401 response. Public routes are matched against patterns parsed
+ * once at startup and skip the check entirely.
+ */
+@Component
+@Order(AuthFilter.ORDER)
+public class AuthFilter extends OncePerRequestFilter {
+
+    public static final String PRINCIPAL = "authenticatedUser";
+    public static final String TOKEN_HEADER = "auth-token";
+
+    // after CorsFilter, so rejections still carry the CORS headers
+    static final int ORDER = Ordered.HIGHEST_PRECEDENCE + 20;
+
+    private static final List<PublicRoute> PUBLIC_ROUTES = Arrays.asList(
+        new PublicRoute(null, "/login"),
+        new PublicRoute(HttpMethod.POST, "/users/add"),
+        new PublicRoute(HttpMethod.GET, "/users/available"),
+        new PublicRoute(null, "/actuator/**"),
+        new PublicRoute(null, "/h2/**"),
+        new PublicRoute(null, "/error"));
+
+    private final UrlPathHelper pathHelper = new UrlPathHelper();
+    private final JwtTokenManager tokenManager;
+    private final ObjectMapper mapper;
+
+    public AuthFilter(JwtTokenManager tokenManager, ObjectMapper mapper) {
+        this.tokenManager = tokenManager;
+        this.mapper = mapper;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest req) {
+
+        // CORS preflight requests never carry the token
+        if (HttpMethod.OPTIONS.matches(req.getMethod())) {
+            return true;
+        }
+
+        PathContainer path = PathContainer.parsePath(this.pathHelper.getPathWithinApplication(req));
+        for (PublicRoute route : PUBLIC_ROUTES) {
+            if (route.matches(req.getMethod(), path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest req, HttpServletResponse resp, FilterChain chain)
+        throws ServletException, IOException {
+
+        VerifiedToken token;
+        try {
+            token = this.tokenManager.verify(req.getHeader(TOKEN_HEADER));
+        } catch (AuthenticationException e) {
+            resp.setStatus(HttpStatus.UNAUTHORIZED.value());
+            resp.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            this.mapper.writeValue(resp.getOutputStream(), new ApiError(HttpStatus.UNAUTHORIZED, e, e.getMessage()));
+            return;
+        }
+
+        req.setAttribute(PRINCIPAL, new AuthenticatedUser(token.getUserId(), token.getUsername()));
+        chain.doFilter(req, resp);
+    }
+
+    /**
+     * @return a key for the client making <code>req</code>: its user id once this
+     *         filter has authenticated it, its IP address otherwise
+     */
+    public static String clientKey(HttpServletRequest req) {
+        Object caller = req.getAttribute(PRINCIPAL);
+        if (caller instanceof AuthenticatedUser) {
+            return "user:" + ((AuthenticatedUser) caller).getId();
+        }
+        return "ip:" + req.getRemoteAddr();
+    }
+
+    private static class PublicRoute {
+
+        private final HttpMethod method; // null matches any method
+        private final PathPattern pattern;
+
+        PublicRoute(HttpMethod method, String pattern) {
+            this.method = method;
+            this.pattern = PathPatternParser.defaultInstance.parse(pattern);
+        }
+
+        boolean matches(String method, PathContainer path) {
+            return (this.method == null || this.method.matches(method)) && this.pattern.matches(path);
+        }
+
+    }
+
+}
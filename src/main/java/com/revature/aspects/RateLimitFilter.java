@@ -0,0 +1,163 @@
+package com.revature.aspects;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.UrlPathHelper;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.revature.errorhandling.ApiError;
+import com.revature.exceptions.TooManyRequestsException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+
+/**
+ * The purpose of this class is to limit how often a single client can call the
+ * API.
+ *
+ * Clients are identified by the user id that {@link AuthFilter} put on the
+ * request, or by IP for anonymous routes. Each client gets a {@link TokenBucket}
+ * per route group (see {@link RateLimitProperties}); buckets live in a bounded
+ * cache and are dropped once idle. Every response carries
+ * <code>RateLimit-Limit</code>, <code>RateLimit-Remaining</code> and
+ * <code>RateLimit-Reset</code>; rejected requests get a 429 with
+ * <code>Retry-After</code> and are counted in
+ * <code>ratelimit.rejected{route=...}</code>.
+ */
+@Component
+@Order(AuthFilter.ORDER + 10)
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final UrlPathHelper pathHelper = new UrlPathHelper();
+    private final boolean enabled;
+    private final List<RouteGroup> groups = new ArrayList<>();
+    private final RouteGroup defaultGroup;
+    private final Cache<String, TokenBucket> buckets;
+    private final ObjectMapper mapper;
+    private final LongSupplier nanoClock;
+
+    @Autowired
+    public RateLimitFilter(RateLimitProperties properties, ObjectMapper mapper, MeterRegistry registry) {
+        this(properties, mapper, registry, System::nanoTime);
+    }
+
+    RateLimitFilter(RateLimitProperties properties, ObjectMapper mapper, MeterRegistry registry,
+        LongSupplier nanoClock) {
+
+        this.enabled = properties.isEnabled();
+        this.mapper = mapper;
+        this.nanoClock = nanoClock;
+        for (RateLimitProperties.Limit limit : properties.getRoutes()) {
+            this.groups.add(new RouteGroup(limit, registry));
+        }
+        this.defaultGroup = new RouteGroup(properties.getDefaultLimit(), registry);
+
+        this.buckets = Caffeine.newBuilder()
+            .maximumSize(properties.getMaxClients())
+            .expireAfterAccess(properties.getIdleTimeout())
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(registry, this.buckets, "ratelimit.buckets");
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest req) {
+        return !this.enabled || HttpMethod.OPTIONS.matches(req.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest req, HttpServletResponse resp, FilterChain chain)
+        throws ServletException, IOException {
+
+        PathContainer path = PathContainer.parsePath(this.pathHelper.getPathWithinApplication(req));
+        RouteGroup group = this.defaultGroup;
+        for (RouteGroup candidate : this.groups) {
+            if (candidate.matches(req.getMethod(), path)) {
+                group = candidate;
+                break;
+            }
+        }
+
+        long now = this.nanoClock.getAsLong();
+        TokenBucket bucket = this.buckets.get(group.name + '|' + AuthFilter.clientKey(req), k -> new TokenBucket(now));
+        TokenBucket.Result result = bucket.tryConsume(now, group.intervalNanos, group.capacity);
+
+        resp.setHeader("RateLimit-Limit", Long.toString(group.capacity));
+        resp.setHeader("RateLimit-Remaining", Long.toString(result.remaining));
+        resp.setHeader("RateLimit-Reset", Long.toString(toSeconds(result.resetNanos)));
+
+        if (!result.allowed) {
+            group.rejected.increment();
+            long retryAfter = toSeconds(result.retryAfterNanos);
+            TooManyRequestsException e = new TooManyRequestsException(retryAfter);
+
+            resp.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfter));
+            resp.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            resp.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            this.mapper.writeValue(resp.getOutputStream(),
+                new ApiError(HttpStatus.TOO_MANY_REQUESTS, e, e.getMessage()));
+            return;
+        }
+        chain.doFilter(req, resp);
+    }
+
+    // rounded up, so clients never retry too early
+    private static long toSeconds(long nanos) {
+        return (nanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1);
+    }
+
+    private static class RouteGroup {
+
+        private final String name;
+        private final HttpMethod method; // null matches any method
+        private final PathPattern pattern;
+        private final long capacity;
+        private final long intervalNanos;
+        private final Counter rejected;
+
+        RouteGroup(RateLimitProperties.Limit limit, MeterRegistry registry) {
+            if (limit.getCapacity() <= 0 || limit.getPeriod() == null || limit.getPeriod().isZero()) {
+                throw new IllegalArgumentException("Rate limit '" + limit.getName() + "' needs a capacity and period");
+            }
+            this.name = limit.getName();
+            this.method = limit.getMethod() == null ? null : HttpMethod.resolve(limit.getMethod().toUpperCase());
+            this.pattern = PathPatternParser.defaultInstance.parse(limit.getPattern());
+            this.capacity = limit.getCapacity();
+            this.intervalNanos = Math.max(1, limit.getPeriod().toNanos() / limit.getCapacity());
+            this.rejected = Counter.builder("ratelimit.rejected")
+                .description("Requests rejected by the rate limiter")
+                .tag("route", this.name)
+                .register(registry);
+        }
+
+        boolean matches(String method, PathContainer path) {
+            return (this.method == null || this.method.matches(method)) && this.pattern.matches(path);
+        }
+
+    }
+
+}
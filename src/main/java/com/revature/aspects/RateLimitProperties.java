@@ -0,0 +1,59 @@
+package com.revature.aspects;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Data;
+
+
+/**
+ * Limits applied by {@link RateLimitFilter}, bound from the
+ * <code>ratelimit.*</code> properties.
+ *
+ * Each route group gives a client <code>capacity</code> requests per
+ * <code>period</code>, refilled evenly, so a client can burst up to the capacity
+ * and then continue at the average rate. Requests that match no group fall into
+ * {@link #getDefaultLimit() the default group}.
+ */
+@Data
+@Component
+@ConfigurationProperties("ratelimit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    // buckets are held for at most this many clients, and dropped once idle
+    private long maxClients = 100_000;
+    private Duration idleTimeout = Duration.ofMinutes(10);
+
+    private Limit defaultLimit = new Limit("default", null, "/**", 100, Duration.ofSeconds(10));
+    private List<Limit> routes = new ArrayList<>();
+
+    @Data
+    public static class Limit {
+
+        private String name;
+        private String method; // null matches any method
+        private String pattern;
+        private long capacity;
+        private Duration period;
+
+        public Limit() {
+            super();
+        }
+
+        public Limit(String name, String method, String pattern, long capacity, Duration period) {
+            this.name = name;
+            this.method = method;
+            this.pattern = pattern;
+            this.capacity = capacity;
+            this.period = period;
+        }
+
+    }
+
+}
@@ -0,0 +1,63 @@
+package com.revature.aspects;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+
+/**
+ * A token bucket kept as a single <code>long</code>: the time at which the
+ * bucket will be full again (the "theoretical arrival time" of the generic cell
+ * rate algorithm). Taking a token moves that time forward by one emission
+ * interval with a CAS, so there is no lock and no separate refill step.
+ */
+final class TokenBucket {
+
+    private final AtomicLong fullAt;
+
+    TokenBucket(long nowNanos) {
+        this.fullAt = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Tries to take one token.
+     *
+     * @param intervalNanos
+     *        time to refill one token (period / capacity)
+     * @param capacity
+     *        maximum burst
+     * @return the outcome, including the values for the response headers
+     */
+    Result tryConsume(long nowNanos, long intervalNanos, long capacity) {
+
+        long burstNanos = intervalNanos * capacity;
+        while (true) {
+            long current = this.fullAt.get();
+            long next = Math.max(current, nowNanos) + intervalNanos;
+            long ahead = next - nowNanos;
+
+            if (ahead > burstNanos) {
+                long base = Math.max(current, nowNanos) - nowNanos;
+                return new Result(false, 0, base, ahead - burstNanos);
+            }
+            if (this.fullAt.compareAndSet(current, next)) {
+                return new Result(true, (burstNanos - ahead) / intervalNanos, ahead, 0);
+            }
+        }
+    }
+
+    static final class Result {
+
+        final boolean allowed;
+        final long remaining;
+        final long resetNanos; // until the bucket is full again
+        final long retryAfterNanos; // until the next token, when rejected
+
+        Result(boolean allowed, long remaining, long resetNanos, long retryAfterNanos) {
+            this.allowed = allowed;
+            this.remaining = remaining;
+            this.resetNanos = resetNanos;
+            this.retryAfterNanos = retryAfterNanos;
+        }
+
+    }
+
+}
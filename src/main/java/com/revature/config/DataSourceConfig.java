@@ -0,0 +1,73 @@
+package com.revature.config;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.TaskScheduler;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+
+/**
+ * The primary database (<code>spring.datasource.*</code>) plus optional read
+ * replicas (<code>datasource.replicas.*</code>), each with its own Hikari pool.
+ * Everything that uses the <code>DataSource</code> (JPA, Flyway) gets the
+ * {@link ReplicaRoutingDataSource}, which sends read-only transactions to the
+ * replicas.
+ */
+@Configuration
+public class DataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        primary.setPoolName("primary");
+        return primary;
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(HikariDataSource primaryDataSource,
+        ReplicaProperties properties, TaskScheduler scheduler) {
+
+        List<DataSource> replicas = new ArrayList<>();
+        for (ReplicaProperties.Source source : properties.getSources()) {
+            // not started until first used, so a replica that is down does not stop the application
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName("replica-" + replicas.size());
+            replica.setJdbcUrl(source.getUrl());
+            replica.setUsername(source.getUsername());
+            replica.setPassword(source.getPassword());
+            replica.setReadOnly(true);
+            replica.setMaximumPoolSize(properties.getMaximumPoolSize());
+            // fail over to another replica rather than keep the request waiting
+            replica.setConnectionTimeout(1000);
+            replicas.add(replica);
+        }
+
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primaryDataSource, replicas,
+            properties.getReadYourWritesWindow(), properties.getMaxTrackedClients());
+        if (!replicas.isEmpty()) {
+            Duration interval = properties.getHealthCheckInterval();
+            scheduler.scheduleWithFixedDelay(routing::checkHealth, Instant.now().plus(interval), interval);
+        }
+        return routing;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+}
@@ -0,0 +1,92 @@
+package com.revature.config;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import org.flywaydb.core.api.MigrationVersion;
+import org.flywaydb.core.api.migration.Context;
+import org.flywaydb.core.api.migration.JavaMigration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+
+/**
+ * Migration 2.1: moves the id sequences created by V2 past the ids already in
+ * use.
+ *
+ * <code>characters</code>, <code>stats</code> and <code>users</code> used to be
+ * IDENTITY (serial) columns, so on an existing PostgreSQL database the new
+ * sequences start at 1 while the tables already hold rows. This needs a value
+ * computed from the data, which plain SQL cannot give H2, so it is a Java
+ * migration; Spring Boot hands <code>JavaMigration</code> beans to Flyway. Other
+ * databases are left alone; they are only used with a fresh schema.
+ */
+@Component
+public class IdSequenceMigration implements JavaMigration {
+
+    private static final String[][] SEQUENCES = {
+        { "characters_seq", "characters", "id" },
+        { "stats_seq", "stats", "id" },
+        { "users_seq", "users", "user_id" } };
+
+    // the allocationSize of the sequence generators on the entities
+    private static final int ALLOCATION_SIZE = 50;
+
+    private Logger log = LoggerFactory.getLogger(this.getClass());
+
+    @Override
+    public MigrationVersion getVersion() {
+        return MigrationVersion.fromVersion("2.1");
+    }
+
+    @Override
+    public String getDescription() {
+        return "move id sequences past existing ids";
+    }
+
+    @Override
+    public Integer getChecksum() {
+        return null;
+    }
+
+    @Override
+    public boolean isUndo() {
+        return false;
+    }
+
+    @Override
+    public boolean isBaselineMigration() {
+        return false;
+    }
+
+    @Override
+    public boolean canExecuteInTransaction() {
+        return true;
+    }
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+
+        Connection con = context.getConnection();
+        if (!"PostgreSQL".equals(con.getMetaData().getDatabaseProductName())) {
+            return;
+        }
+        try (Statement st = con.createStatement()) {
+            for (String[] seq : SEQUENCES) {
+                // pooled ids come from (value - allocationSize, value], so the next value
+                // must be at least max(id) + allocationSize
+                try (ResultSet rs = st.executeQuery("select setval('" + seq[0] + "', m.max_id + " + ALLOCATION_SIZE
+                    + ") from (select coalesce(max(" + seq[2] + "), 0) as max_id from " + seq[1] + ") m, " + seq[0]
+                    + " s where s.last_value < m.max_id + " + ALLOCATION_SIZE)) {
+                    if (rs.next()) {
+                        this.log.info("Moved sequence {} to {}", seq[0], rs.getLong(1));
+                    }
+                }
+            }
+        }
+    }
+
+}
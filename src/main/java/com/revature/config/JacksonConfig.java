@@ -0,0 +1,29 @@
+package com.revature.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.fasterxml.jackson.datatype.hibernate5.Hibernate5Module;
+
+
+/**
+ * Jackson settings shared by every controller. Spring Boot registers any
+ * <code>Module</code> bean with its <code>ObjectMapper</code>.
+ */
+@Configuration
+public class JacksonConfig {
+
+    /**
+     * Associations are lazy and the session is closed before serialization, so an
+     * association a service did not fetch is written as <code>{"id": ...}</code>
+     * instead of failing with a <code>LazyInitializationException</code>.
+     */
+    @Bean
+    public Hibernate5Module hibernate5Module() {
+        Hibernate5Module module = new Hibernate5Module();
+        module.enable(Hibernate5Module.Feature.SERIALIZE_IDENTIFIER_FOR_LAZY_NOT_LOADED_OBJECTS);
+        module.disable(Hibernate5Module.Feature.USE_TRANSIENT_ANNOTATION);
+        return module;
+    }
+
+}
@@ -0,0 +1,44 @@
+package com.revature.config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Data;
+
+
+/**
+ * Read replicas used by {@link ReplicaRoutingDataSource}, bound from the
+ * <code>datasource.replicas.*</code> properties. With no sources configured
+ * every transaction goes to the primary (<code>spring.datasource.*</code>).
+ */
+@Data
+@Component
+@ConfigurationProperties("datasource.replicas")
+public class ReplicaProperties {
+
+    private List<Source> sources = new ArrayList<>();
+
+    // connections per replica pool
+    private int maximumPoolSize = 10;
+
+    private Duration healthCheckInterval = Duration.ofSeconds(5);
+
+    // after a client's write commits, its reads go to the primary for this long,
+    // so it does not read data the replicas have not caught up with yet
+    private Duration readYourWritesWindow = Duration.ofSeconds(5);
+    private long maxTrackedClients = 100_000;
+
+    @Data
+    public static class Source {
+
+        private String url;
+        private String username;
+        private String password;
+
+    }
+
+}
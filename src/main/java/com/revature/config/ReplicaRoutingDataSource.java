@@ -0,0 +1,239 @@
+package com.revature.config;
+
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.revature.aspects.AuthFilter;
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+
+/**
+ * Sends read-only transactions to the read replicas and everything else to the
+ * primary.
+ *
+ * Replicas are used round-robin, skipping any that failed their last health
+ * check (see {@link #checkHealth()}); with none available, reads go to the
+ * primary. After a client's write commits, its reads also go to the primary for
+ * a short window (read-your-writes), since the replicas may lag behind. Clients
+ * are keyed like the rate limiter keys them, by user id or IP.
+ *
+ * The routing decision needs the transaction's read-only flag, which Spring only
+ * sets after the transaction has begun, so this must sit behind a
+ * <code>LazyConnectionDataSourceProxy</code> that fetches the connection on the
+ * first statement.
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource implements MeterBinder, Closeable {
+
+    private Logger log = LoggerFactory.getLogger(this.getClass());
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final AtomicInteger next = new AtomicInteger();
+    private final Cache<String, Boolean> recentWriters;
+    private final LongAdder replicaReads = new LongAdder();
+    private final LongAdder primaryReads = new LongAdder();
+
+    public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas, Duration readYourWritesWindow,
+        long maxTrackedClients) {
+        this(primary, replicas, readYourWritesWindow, maxTrackedClients, System::nanoTime);
+    }
+
+    ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas, Duration readYourWritesWindow,
+        long maxTrackedClients, LongSupplier nanoClock) {
+
+        this.primary = primary;
+        List<Replica> list = new ArrayList<>(replicas.size());
+        for (DataSource replica : replicas) {
+            list.add(new Replica(replica));
+        }
+        this.replicas = Collections.unmodifiableList(list);
+        this.recentWriters = Caffeine.newBuilder()
+            .maximumSize(maxTrackedClients)
+            .expireAfterWrite(readYourWritesWindow)
+            .ticker(nanoClock::getAsLong)
+            .build();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (!wroteRecently()) {
+                Connection replica = replicaConnection();
+                if (replica != null) {
+                    this.replicaReads.increment();
+                    return replica;
+                }
+            }
+            this.primaryReads.increment();
+        } else {
+            trackWrite();
+        }
+        return this.primary.getConnection();
+    }
+
+    /**
+     * Always connects to the primary, the one database the credentials are meant
+     * for; a write still starts the client's read-your-writes window.
+     */
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            this.primaryReads.increment();
+        } else {
+            trackWrite();
+        }
+        return this.primary.getConnection(username, password);
+    }
+
+    /**
+     * Checks every replica and routes reads only to those that answered.
+     */
+    public void checkHealth() {
+        for (int i = 0; i < this.replicas.size(); i++) {
+            Replica replica = this.replicas.get(i);
+            boolean healthy;
+            try (Connection c = replica.dataSource.getConnection()) {
+                healthy = c.isValid(1);
+            } catch (SQLException e) {
+                healthy = false;
+            }
+            if (healthy != replica.healthy) {
+                this.log.warn("Replica {} is {}", i, healthy ? "back up" : "down, reading from the others");
+                replica.healthy = healthy;
+            }
+        }
+    }
+
+    private Connection replicaConnection() {
+        int count = this.replicas.size();
+        if (count == 0) {
+            return null;
+        }
+        int start = Math.floorMod(this.next.getAndIncrement(), count);
+        for (int i = 0; i < count; i++) {
+            Replica replica = this.replicas.get((start + i) % count);
+            if (!replica.healthy) {
+                continue;
+            }
+            try {
+                return replica.dataSource.getConnection();
+            } catch (SQLException e) {
+                // the next health check brings it back
+                this.log.warn("Replica {} is down, reading from the others", (start + i) % count, e);
+                replica.healthy = false;
+            }
+        }
+        return null;
+    }
+
+    private boolean wroteRecently() {
+        String client = currentClient();
+        return client != null && this.recentWriters.getIfPresent(client) != null;
+    }
+
+    // the window starts when the write commits, that is when replicas start to lag
+    private void trackWrite() {
+        String client = currentClient();
+        if (client == null || this.replicas.isEmpty() || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+            @Override
+            public void afterCommit() {
+                ReplicaRoutingDataSource.this.recentWriters.put(client, Boolean.TRUE);
+            }
+        });
+    }
+
+    private static String currentClient() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes)) {
+            return null;
+        }
+        HttpServletRequest req = ((ServletRequestAttributes) attributes).getRequest();
+        return AuthFilter.clientKey(req);
+    }
+
+    /**
+     * Publishes <code>datasource.routing.reads{target=replica|primary}</code> (read-only
+     * transactions by where they went), <code>datasource.replicas.healthy</code>
+     * and the <code>hikaricp.*</code> metrics of the replica pools.
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("datasource.routing.reads", this.replicaReads, LongAdder::sum)
+            .tag("target", "replica")
+            .register(registry);
+        FunctionCounter.builder("datasource.routing.reads", this.primaryReads, LongAdder::sum)
+            .tag("target", "primary")
+            .register(registry);
+        Gauge.builder("datasource.replicas.healthy", this, ReplicaRoutingDataSource::healthyReplicas)
+            .register(registry);
+        for (Replica replica : this.replicas) {
+            if (replica.dataSource instanceof HikariDataSource) {
+                // the pools start on their first connection, after the registry is bound
+                ((HikariDataSource) replica.dataSource).setMetricRegistry(registry);
+            }
+        }
+    }
+
+    private double healthyReplicas() {
+        int healthy = 0;
+        for (Replica replica : this.replicas) {
+            if (replica.healthy) {
+                healthy++;
+            }
+        }
+        return healthy;
+    }
+
+    @Override
+    public void close() {
+        for (Replica replica : this.replicas) {
+            if (replica.dataSource instanceof HikariDataSource) {
+                ((HikariDataSource) replica.dataSource).close();
+            }
+        }
+    }
+
+    private static final class Replica {
+
+        private final DataSource dataSource;
+        private volatile boolean healthy = true;
+
+        Replica(DataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+
+    }
+
+}
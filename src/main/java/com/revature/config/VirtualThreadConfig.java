@@ -0,0 +1,69 @@
+package com.revature.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.annotation.AsyncAnnotationBeanPostProcessor;
+
+import com.revature.util.PinnedThreadMonitor;
+import com.revature.util.VirtualThreads;
+
+
+/**
+ * Opt-in (<code>threads.virtual.enabled=true</code>, Java 21 or later): Tomcat
+ * handles every request on a virtual thread of its own instead of its worker
+ * pool, and so does the application task executor (<code>@Async</code> methods
+ * and async MVC requests). A request blocked on JDBC then parks its virtual
+ * thread rather than holding one of <code>server.tomcat.threads.max</code>
+ * platform threads; concurrency is bounded by
+ * <code>server.tomcat.max-connections</code> and, for database work, by the
+ * Hikari pool. Scheduled jobs and password hashing keep their own platform
+ * threads.
+ *
+ * A virtual thread lives for one request, so a per-thread cache on it is
+ * rebuilt by every request. The JWT <code>Mac</code>, digest and buffers are
+ * therefore kept in a {@link com.revature.util.Recycler}, which pools them on
+ * virtual threads.
+ *
+ * Without virtual threads in the JVM, enabling this fails the startup rather
+ * than quietly running on the pool.
+ */
+@Configuration
+@ConditionalOnProperty("threads.virtual.enabled")
+public class VirtualThreadConfig {
+
+    public VirtualThreadConfig() {
+        if (!VirtualThreads.isSupported()) {
+            throw new IllegalStateException("threads.virtual.enabled needs Java 21 or later, this is Java "
+                + System.getProperty("java.version"));
+        }
+    }
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer() {
+        // not a bean itself, or it would replace the application task executor below
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(VirtualThreads.factory("http-vt-"));
+        return protocolHandler -> protocolHandler.setExecutor(executor);
+    }
+
+    @Bean(name = { TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME,
+        AsyncAnnotationBeanPostProcessor.DEFAULT_TASK_EXECUTOR_BEAN_NAME })
+    public SimpleAsyncTaskExecutor applicationTaskExecutor() {
+        return new SimpleAsyncTaskExecutor(VirtualThreads.factory("task-vt-"));
+    }
+
+    @Bean
+    public PinnedThreadMonitor pinnedThreadMonitor(
+        @Value("${threads.virtual.pinned-threshold-ms:20}") long thresholdMillis) {
+        PinnedThreadMonitor monitor = new PinnedThreadMonitor(Duration.ofMillis(thresholdMillis));
+        monitor.start();
+        return monitor;
+    }
+
+}
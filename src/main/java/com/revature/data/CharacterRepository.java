@@ -1,11 +1,28 @@
 package com.revature.data;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
+import javax.persistence.QueryHint;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import com.revature.dto.CharacterScore;
+import com.revature.dto.CharacterState;
+import com.revature.dto.CharacterSummary;
+import com.revature.dto.SearchHit;
+import com.revature.dto.SpeciesTotals;
+import com.revature.dto.StatsDelta;
 import com.revature.models.Character;
+import com.revature.models.Stats;
 
 
 /**
@@ -16,10 +33,111 @@ import com.revature.models.Character;
 @Repository
 public interface CharacterRepository extends JpaRepository<Character, Integer> {
 
+    // rows per round trip when streaming the export
+    int EXPORT_FETCH_SIZE = 500;
+
+    // listings select only the columns they show, no entities are loaded
+    String SUMMARY = "select new com.revature.dto.CharacterSummary(c.id, c.name, s.speciesName, c.imageUrl, "
+        + "c.stats.level, c.owner.id) from Character c join c.species s";
+
+    // every read that returns characters loads species and owner in the same
+    // statement (stats are columns of the character row), so a listing is one query however many rows it has
+    @Override
+    @EntityGraph(Character.FULL)
+    List<Character> findAll();
+
+    @Override
+    @EntityGraph(Character.FULL)
+    Optional<Character> findById(Integer id);
+
+    @EntityGraph(Character.FULL)
     List<Character> findByOwnerId(int id);
 
-    List<Character> findByName(String name);
+    // the first of the characters with this name, without loading the others
+    @EntityGraph(Character.FULL)
+    Optional<Character> findFirstByNameOrderByIdAsc(String name);
 
+    @EntityGraph(Character.FULL)
     List<Character> findBySpeciesId(int id);
 
+    // owner and versions only, for ownership checks and ETags
+    @Query("select new com.revature.dto.CharacterState(o.id, c.version, sp.version, o.username, o.email, sp.id, "
+        + "c.stats.level, c.stats.strength) from Character c join c.owner o join c.species sp where c.id = :id")
+    Optional<CharacterState> findStateById(int id);
+
+    // the owner, locking the character row until the transaction ends, so changes to the
+    // character's join rows that check first and write after are serialized
+    @Query(value = "select coalesce(owner_user_id, 0) from characters where id = :id for update", nativeQuery = true)
+    Optional<Integer> lockOwnerIdById(int id);
+
+    @Query(SUMMARY + " order by c.id")
+    List<CharacterSummary> findAllSummaries();
+
+    // ids and names only, for building the search index
+    @QueryHints({
+        @QueryHint(name = "org.hibernate.fetchSize", value = "" + EXPORT_FETCH_SIZE),
+        @QueryHint(name = "org.hibernate.readOnly", value = "true") })
+    @Query("select new com.revature.dto.SearchHit(c.id, c.name) from Character c")
+    Stream<SearchHit> streamNames();
+
+    // what the leaderboards are rebuilt from; characters without stats are not ranked
+    @QueryHints({
+        @QueryHint(name = "org.hibernate.fetchSize", value = "" + EXPORT_FETCH_SIZE),
+        @QueryHint(name = "org.hibernate.readOnly", value = "true") })
+    @Query("select new com.revature.dto.CharacterScore(c.id, c.name, coalesce(c.species.id, 0), c.stats.level, c.stats.experience)"
+        + " from Character c where c.stats.level is not null and c.stats.experience is not null")
+    Stream<CharacterScore> streamScores();
+
+    // adds to the stats in place, so concurrent changes add up rather than overwrite each
+    // other; stats a character does not have yet count from 0 (and level 1)
+    @Modifying
+    @Query("update Character c set "
+        + "c.stats.level = case when 1 + (coalesce(c.stats.experience, 0) + :#{#delta.experience}) / "
+        + Stats.EXPERIENCE_PER_LEVEL + " > coalesce(c.stats.level, 1) "
+        + "then (1 + (coalesce(c.stats.experience, 0) + :#{#delta.experience}) / " + Stats.EXPERIENCE_PER_LEVEL
+        + ") else coalesce(c.stats.level, 1) end, "
+        + "c.stats.experience = coalesce(c.stats.experience, 0) + :#{#delta.experience}, "
+        + "c.stats.health = coalesce(c.stats.health, 0) + :#{#delta.health}, "
+        + "c.stats.strength = coalesce(c.stats.strength, 0) + :#{#delta.strength}, "
+        + "c.stats.defense = coalesce(c.stats.defense, 0) + :#{#delta.defense}, "
+        + "c.stats.dexterity = coalesce(c.stats.dexterity, 0) + :#{#delta.dexterity}, "
+        + "c.stats.forcePower = coalesce(c.stats.forcePower, 0) + :#{#delta.forcePower}, "
+        + "c.version = c.version + 1 where c.id = :id")
+    int addToStats(int id, StatsDelta delta);
+
+    // who may change the character; it never changes owner, so this can be cached
+    @Query("select c.owner.id from Character c where c.id = :id")
+    Optional<Integer> findOwnerIdById(int id);
+
+    // one row per species, computed by the database rather than by loading the characters
+    @Query("select new com.revature.dto.SpeciesTotals(coalesce(c.species.id, 0), count(c), count(c.stats.level), "
+        + "coalesce(sum(c.stats.level), 0), coalesce(sum(c.stats.strength), 0)) from Character c "
+        + "group by c.species.id")
+    List<SpeciesTotals> findSpeciesTotals();
+
+    @Query(value = SUMMARY + " order by c.id", countQuery = "select count(c) from Character c")
+    Page<CharacterSummary> findSummaries(Pageable pageable);
+
+    // keyset pagination: the page after the given id, in id order
+    @Query(SUMMARY + " where c.id > :after order by c.id")
+    List<CharacterSummary> findSummariesAfter(int after, Pageable pageable);
+
+    // keyset pagination over the ids alone, for reads that fetch the rest themselves
+    @Query("select c.id from Character c where c.id > :after order by c.id")
+    List<Integer> findIdsAfter(int after, Pageable pageable);
+
+    @Query(SUMMARY + " where c.owner.id = :ownerId order by c.id")
+    List<CharacterSummary> findSummariesByOwnerId(int ownerId);
+
+    /**
+     * Every character with its species, owner and stats fetched in the same row,
+     * read from a server-side cursor <code>EXPORT_FETCH_SIZE</code> rows at a time
+     * and never dirty-checked. Must be consumed and closed inside a transaction.
+     */
+    @QueryHints({
+        @QueryHint(name = "org.hibernate.fetchSize", value = "" + EXPORT_FETCH_SIZE),
+        @QueryHint(name = "org.hibernate.readOnly", value = "true") })
+    @Query("select c from Character c join fetch c.species join fetch c.owner order by c.id")
+    Stream<Character> streamAllForExport();
+
 }
@@ -0,0 +1,33 @@
+package com.revature.data;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import com.revature.models.Skills;
+
+
+@Repository
+public interface SkillsRepository extends JpaRepository<Skills, Integer> {
+
+    // the join table only, the skills themselves come from the catalog
+    @Query(value = "select skill_id from character_and_skill where character_id = :characterId", nativeQuery = true)
+    List<Integer> findSkillIdsByCharacterId(int characterId);
+
+    // the same for a whole page of characters in one statement, as (character_id, skill_id) rows
+    @Query(value = "select character_id, skill_id from character_and_skill where character_id in (:characterIds)",
+        nativeQuery = true)
+    List<Object[]> findSkillIdsByCharacterIds(Collection<Integer> characterIds);
+
+    // a single insert, rather than loading every character that has the skill
+    // into Skills.charactersWithSkill to add one
+    @Modifying
+    @Query(value = "insert into character_and_skill (skill_id, character_id) values (:skillId, :characterId)",
+        nativeQuery = true)
+    void grant(int characterId, int skillId);
+
+}
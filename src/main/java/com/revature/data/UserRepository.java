@@ -1,17 +1,58 @@
 package com.revature.data;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import javax.persistence.QueryHint;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import com.revature.dto.UserSummary;
 import com.revature.models.User;
 
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Integer> {
 
-    Optional<User> findUserByUsernameAndPassword(String username, String password);
     Optional<User> findByUsername(String username);
 
+    // availability checks, answered from the unique indexes
+    boolean existsByUsername(String username);
+
+    boolean existsByEmail(String email);
+
+    // which of these are taken already, for bulk imports
+    @Query("select u.username from User u where u.username in :usernames")
+    List<String> findExistingUsernames(Collection<String> usernames);
+
+    @Query("select u.email from User u where u.email in :emails")
+    List<String> findExistingEmails(Collection<String> emails);
+
+    // listings select only the public columns, no entities are loaded
+    String SUMMARY = "select new com.revature.dto.UserSummary(u.id, u.username, u.email) from User u";
+
+    @Query(SUMMARY + " order by u.id")
+    List<UserSummary> findAllSummaries();
+
+    @Query(value = SUMMARY + " order by u.id", countQuery = "select count(u) from User u")
+    Page<UserSummary> findSummaries(Pageable pageable);
+
+    // keyset pagination: the page after the given id, in id order
+    @Query(SUMMARY + " where u.id > :after order by u.id")
+    List<UserSummary> findSummariesAfter(int after, Pageable pageable);
+
+    // what the availability filters are built from
+    @QueryHints({
+        @QueryHint(name = "org.hibernate.fetchSize", value = "1000"),
+        @QueryHint(name = "org.hibernate.readOnly", value = "true") })
+    @Query(SUMMARY)
+    Stream<UserSummary> streamSummaries();
+
 }
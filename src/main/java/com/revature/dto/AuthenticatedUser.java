@@ -0,0 +1,19 @@
+package com.revature.dto;
+
+import lombok.Value;
+
+
+/**
+ * The caller of the current request, resolved once from its
+ * <code>auth-token</code> by <code>AuthFilter</code> and made available to
+ * controllers as a request attribute, so checking ownership does not need
+ * another database round trip.
+ */
+@Value
+public class AuthenticatedUser {
+
+    int id;
+
+    String username;
+
+}
@@ -0,0 +1,17 @@
+package com.revature.dto;
+
+import lombok.Value;
+
+
+/**
+ * Whether a username and an email are still free to register with;
+ * <code>null</code> for the one that was not asked about.
+ */
+@Value
+public class Availability {
+
+    Boolean username;
+
+    Boolean email;
+
+}
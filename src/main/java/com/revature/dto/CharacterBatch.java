@@ -0,0 +1,32 @@
+package com.revature.dto;
+
+import java.util.List;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.Size;
+
+import com.revature.models.Character;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+
+/**
+ * Body of <code>POST /characters/batch</code>: the characters to create in one
+ * transaction.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CharacterBatch {
+
+    public static final int MAX_SIZE = 1000;
+
+    @Valid
+    @NotEmpty
+    @Size(max = MAX_SIZE)
+    private List<Character> characters;
+
+}
@@ -0,0 +1,60 @@
+package com.revature.dto;
+
+import com.revature.models.Character;
+import com.revature.models.Species;
+import com.revature.models.Stats;
+
+import lombok.Value;
+
+
+/**
+ * One line of the character export: the character with its species, the id of
+ * its owner (not the owner itself) and its stats flattened in. Stats are
+ * <code>null</code> for characters that have none.
+ */
+@Value
+public class CharacterExportRow {
+
+    int id;
+
+    String name;
+
+    String imageUrl;
+
+    int speciesId;
+
+    String speciesName;
+
+    int ownerId;
+
+    Integer level;
+
+    Integer experience;
+
+    Integer health;
+
+    Integer strength;
+
+    Integer defense;
+
+    Integer dexterity;
+
+    Integer forcePower;
+
+    public static CharacterExportRow of(Character c) {
+
+        Species species = c.getSpecies();
+        Stats stats = c.getStats();
+        return new CharacterExportRow(c.getId(), c.getName(), c.getImageUrl(),
+            species == null ? 0 : species.getId(), species == null ? null : species.getSpeciesName(),
+            c.getOwner() == null ? 0 : c.getOwner().getId(),
+            stats == null ? null : stats.getLevel(),
+            stats == null ? null : stats.getExperience(),
+            stats == null ? null : stats.getHealth(),
+            stats == null ? null : stats.getStrength(),
+            stats == null ? null : stats.getDefense(),
+            stats == null ? null : stats.getDexterity(),
+            stats == null ? null : stats.getForcePower());
+    }
+
+}
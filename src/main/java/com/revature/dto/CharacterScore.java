@@ -0,0 +1,23 @@
+package com.revature.dto;
+
+import lombok.Value;
+
+
+/**
+ * What the leaderboards rank a character by, and what they show of it.
+ */
+@Value
+public class CharacterScore {
+
+    int id;
+
+    String name;
+
+    // 0 for a character without a species
+    int speciesId;
+
+    int level;
+
+    int experience;
+
+}
@@ -0,0 +1,19 @@
+package com.revature.dto;
+
+import com.revature.util.SkillSet;
+
+import lombok.Value;
+
+
+/**
+ * The ids of the skills a character has. The skills themselves are served by
+ * <code>GET /skills</code>, which clients can cache.
+ */
+@Value
+public class CharacterSkills {
+
+    int characterId;
+
+    SkillSet skills;
+
+}
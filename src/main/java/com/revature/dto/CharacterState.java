@@ -0,0 +1,52 @@
+package com.revature.dto;
+
+import com.revature.events.CharacterTally;
+import com.revature.models.Character;
+import com.revature.util.ETags;
+
+import lombok.Value;
+
+
+/**
+ * What a character's representation depends on: its own version (which covers
+ * its stats), the version of its species, and the owner fields it embeds. Selected by
+ * <code>CharacterRepository.findStateById</code> to check ownership and compute
+ * the ETag without loading the character, along with what an update takes away
+ * from the per-species aggregates.
+ */
+@Value
+public class CharacterState {
+
+    int ownerId;
+
+    int version;
+
+    int speciesVersion;
+
+    String ownerUsername;
+
+    String ownerEmail;
+
+    int speciesId;
+
+    Integer level;
+
+    Integer strength;
+
+    public static CharacterState of(Character c) {
+        return new CharacterState(c.getOwner().getId(), c.getVersion(), c.getSpecies().getVersion(),
+            c.getOwner().getUsername(), c.getOwner().getEmail(), c.getSpecies().getId(),
+            c.getStats() == null ? null : c.getStats().getLevel(),
+            c.getStats() == null ? null : c.getStats().getStrength());
+    }
+
+    public CharacterTally tally() {
+        return new CharacterTally(this.speciesId, this.level, this.strength);
+    }
+
+    public String etag() {
+        return ETags.strong(this.version, this.speciesVersion, this.ownerId, this.ownerUsername,
+            this.ownerEmail);
+    }
+
+}
@@ -0,0 +1,27 @@
+package com.revature.dto;
+
+import lombok.Value;
+
+
+/**
+ * The fields of a character shown in listings, selected straight from the
+ * database by <code>CharacterRepository</code> without loading the entity or its
+ * associations. <code>level</code> is <code>null</code> for characters without
+ * stats.
+ */
+@Value
+public class CharacterSummary {
+
+    int id;
+
+    String name;
+
+    String speciesName;
+
+    String imageUrl;
+
+    Integer level;
+
+    int ownerId;
+
+}
@@ -0,0 +1,53 @@
+package com.revature.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.Data;
+import lombok.Value;
+
+
+/**
+ * Outcome of a bulk import: how many rows were imported and why the others were
+ * not. Only the first {@value #MAX_ERRORS} errors are listed, so a bad file
+ * cannot make the report itself huge; <code>failed</code> counts them all.
+ */
+@Data
+public class ImportReport {
+
+    public static final int MAX_ERRORS = 1000;
+
+    private int imported;
+
+    private int failed;
+
+    private List<RowError> errors = new ArrayList<>();
+
+    public void addImported(int count) {
+        this.imported += count;
+    }
+
+    public void fail(long line, String key, List<String> messages) {
+        this.failed++;
+        if (this.errors.size() < MAX_ERRORS) {
+            this.errors.add(new RowError(line, key, messages));
+        }
+    }
+
+    /**
+     * Why one row was not imported. <code>line</code> is where the row starts in
+     * the file (the header is line 1) and <code>key</code> identifies the row,
+     * e.g. its username, when it could be read.
+     */
+    @Value
+    public static class RowError {
+
+        long line;
+
+        String key;
+
+        List<String> messages;
+
+    }
+
+}
@@ -0,0 +1,60 @@
+package com.revature.dto;
+
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+import org.springframework.data.domain.Page;
+
+import lombok.Value;
+
+
+/**
+ * One page of a listing, ordered by id.
+ *
+ * <code>nextCursor</code> is what the client passes back to get the following
+ * page: the next page number for <code>?page=&amp;size=</code> listings, or the
+ * last id seen for keyset (<code>?after=&amp;limit=</code>) listings. It is
+ * <code>null</code> on the last page. <code>totalElements</code> is only known
+ * for page/size listings, since keyset listings never count the table.
+ */
+@Value
+public class PageResponse<T> {
+
+    public static final int DEFAULT_SIZE = 20;
+    public static final int MAX_SIZE = 100;
+
+    List<T> items;
+
+    int size;
+
+    String nextCursor;
+
+    Long totalElements;
+
+    public static <T> PageResponse<T> of(Page<T> page) {
+        String next = page.hasNext() ? Integer.toString(page.getNumber() + 1) : null;
+        return new PageResponse<>(page.getContent(), page.getSize(), next, page.getTotalElements());
+    }
+
+    /**
+     * @param rows
+     *        up to <code>limit + 1</code> rows; the extra row only signals that
+     *        there is another page and is not returned
+     */
+    public static <T> PageResponse<T> ofKeyset(List<T> rows, int limit, ToIntFunction<T> id) {
+        if (rows.size() <= limit) {
+            return new PageResponse<>(rows, limit, null, null);
+        }
+        List<T> items = rows.subList(0, limit);
+        String next = Integer.toString(id.applyAsInt(items.get(limit - 1)));
+        return new PageResponse<>(items, limit, next, null);
+    }
+
+    /**
+     * @return <code>size</code> limited to <code>1..MAX_SIZE</code>
+     */
+    public static int clampSize(int size) {
+        return Math.max(1, Math.min(size, MAX_SIZE));
+    }
+
+}
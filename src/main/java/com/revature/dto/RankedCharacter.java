@@ -0,0 +1,29 @@
+package com.revature.dto;
+
+import lombok.Value;
+
+
+/**
+ * A character's place on a leaderboard, from 1.
+ */
+@Value
+public class RankedCharacter {
+
+    long rank;
+
+    int id;
+
+    String name;
+
+    int speciesId;
+
+    int level;
+
+    int experience;
+
+    public static RankedCharacter of(long rank, CharacterScore score) {
+        return new RankedCharacter(rank, score.getId(), score.getName(), score.getSpeciesId(), score.getLevel(),
+            score.getExperience());
+    }
+
+}
@@ -0,0 +1,16 @@
+package com.revature.dto;
+
+import lombok.Value;
+
+
+/**
+ * A name matching a search, and the id of what it names.
+ */
+@Value
+public class SearchHit {
+
+    int id;
+
+    String name;
+
+}
@@ -0,0 +1,28 @@
+package com.revature.dto;
+
+import lombok.Value;
+
+
+/**
+ * How many characters a species has, and their average level and strength. The
+ * averages are over the characters that have stats, and <code>null</code> when
+ * none has.
+ */
+@Value
+public class SpeciesAggregate {
+
+    int speciesId;
+
+    long characters;
+
+    Double averageLevel;
+
+    Double averageStrength;
+
+    public static SpeciesAggregate of(SpeciesTotals totals) {
+        long n = totals.getWithStats();
+        return new SpeciesAggregate(totals.getSpeciesId(), totals.getCharacters(),
+            n == 0 ? null : (double) totals.getLevelSum() / n, n == 0 ? null : (double) totals.getStrengthSum() / n);
+    }
+
+}
@@ -0,0 +1,25 @@
+package com.revature.dto;
+
+import lombok.Value;
+
+
+/**
+ * The characters of one species, summed up by
+ * <code>CharacterRepository.findSpeciesTotals</code>.
+ */
+@Value
+public class SpeciesTotals {
+
+    // 0 for characters without a species
+    int speciesId;
+
+    long characters;
+
+    // the characters that have stats, which the sums are over
+    long withStats;
+
+    long levelSum;
+
+    long strengthSum;
+
+}
@@ -0,0 +1,54 @@
+package com.revature.dto;
+
+import javax.validation.constraints.PositiveOrZero;
+
+import com.revature.models.Stats;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+
+/**
+ * Body of <code>PATCH /characters/{id}/stats</code>: how much to add to each
+ * stat (negative to take away). Stats left out are not changed. The level is
+ * not set directly; it follows the experience, see
+ * {@link Stats#EXPERIENCE_PER_LEVEL}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StatsDelta {
+
+    @PositiveOrZero
+    private int experience;
+
+    private int health;
+
+    private int strength;
+
+    private int defense;
+
+    private int dexterity;
+
+    private int forcePower;
+
+    public StatsDelta plus(StatsDelta other) {
+        return new StatsDelta(this.experience + other.experience, this.health + other.health,
+            this.strength + other.strength, this.defense + other.defense, this.dexterity + other.dexterity,
+            this.forcePower + other.forcePower);
+    }
+
+    /**
+     * @return what <code>stats</code> become once this is added to them, the way
+     *         <code>CharacterRepository.addToStats</code> adds it
+     */
+    public Stats applyTo(Stats stats) {
+        Stats base = stats == null ? new Stats(1, 0, 0, 0, 0, 0, 0) : stats;
+        int exp = base.getExperience() + this.experience;
+        return new Stats(Stats.levelAfter(base.getLevel(), exp), exp, base.getHealth() + this.health,
+            base.getStrength() + this.strength, base.getDefense() + this.defense,
+            base.getDexterity() + this.dexterity, base.getForcePower() + this.forcePower);
+    }
+
+}
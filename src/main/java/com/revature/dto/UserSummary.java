@@ -0,0 +1,19 @@
+package com.revature.dto;
+
+import lombok.Value;
+
+
+/**
+ * The public fields of a user, selected straight from the database by
+ * <code>UserRepository</code> for listings. Never carries the password.
+ */
+@Value
+public class UserSummary {
+
+    int id;
+
+    String username;
+
+    String email;
+
+}
@@ -0,0 +1,16 @@
+package com.revature.events;
+
+import lombok.Value;
+
+
+/**
+ * Published by <code>CharacterService</code> when a character is removed.
+ */
+@Value
+public class CharacterRemovedEvent {
+
+    int id;
+
+    CharacterTally previous;
+
+}
@@ -0,0 +1,48 @@
+package com.revature.events;
+
+import com.revature.models.Character;
+import com.revature.models.Stats;
+
+import lombok.Value;
+
+
+/**
+ * Published by <code>CharacterService</code> when a character is added or
+ * updated, for the in-memory views of characters to pick up. Carries a copy of
+ * what they need, since listeners run after the commit, outside the
+ * persistence context.
+ */
+@Value
+public class CharacterSavedEvent {
+
+    int id;
+
+    String name;
+
+    int speciesId;
+
+    Integer level;
+
+    Integer experience;
+
+    Integer strength;
+
+    // what the character counted for before this update; null when it was just added
+    CharacterTally previous;
+
+    public static CharacterSavedEvent of(Character c) {
+        return of(c, null);
+    }
+
+    public static CharacterSavedEvent of(Character c, CharacterTally previous) {
+        Stats stats = c.getStats();
+        return new CharacterSavedEvent(c.getId(), c.getName(), c.getSpecies() == null ? 0 : c.getSpecies().getId(),
+            stats == null ? null : stats.getLevel(), stats == null ? null : stats.getExperience(),
+            stats == null ? null : stats.getStrength(), previous);
+    }
+
+    public CharacterTally tally() {
+        return new CharacterTally(this.speciesId, this.level, this.strength);
+    }
+
+}
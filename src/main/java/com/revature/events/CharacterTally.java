@@ -0,0 +1,29 @@
+package com.revature.events;
+
+import com.revature.models.Character;
+import com.revature.models.Stats;
+
+import lombok.Value;
+
+
+/**
+ * What the per-species aggregates count of one character: its species and, if
+ * it has stats, its level and strength.
+ */
+@Value
+public class CharacterTally {
+
+    // 0 for a character without a species
+    int speciesId;
+
+    Integer level;
+
+    Integer strength;
+
+    public static CharacterTally of(Character c) {
+        Stats stats = c.getStats();
+        return new CharacterTally(c.getSpecies() == null ? 0 : c.getSpecies().getId(),
+            stats == null ? null : stats.getLevel(), stats == null ? null : stats.getStrength());
+    }
+
+}
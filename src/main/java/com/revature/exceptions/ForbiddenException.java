@@ -0,0 +1,17 @@
+package com.revature.exceptions;
+
+/**
+ * Exception class that is thrown when the authenticated caller tries to act on
+ * a resource they do not own.
+ */
+public class ForbiddenException extends RuntimeException {
+
+    public ForbiddenException() {
+        super("You are not allowed to modify this resource");
+    }
+
+    public ForbiddenException(String message) {
+        super(message);
+    }
+
+}
@@ -0,0 +1,18 @@
+package com.revature.exceptions;
+
+/**
+ * Exception class that is thrown when a conditional request's
+ * <code>If-Match</code> no longer matches the resource, i.e. it changed since
+ * the client read it. Maps to HTTP 412.
+ */
+public class PreconditionFailedException extends RuntimeException {
+
+    public PreconditionFailedException() {
+        super("The resource has been modified since it was read");
+    }
+
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+
+}
@@ -0,0 +1,13 @@
+package com.revature.exceptions;
+
+public class SkillNotFoundException extends RuntimeException {
+
+    public SkillNotFoundException() {
+        super("Skill not found");
+    }
+
+    public SkillNotFoundException(String message) {
+        super(message);
+    }
+
+}
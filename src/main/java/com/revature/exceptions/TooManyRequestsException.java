@@ -0,0 +1,24 @@
+package com.revature.exceptions;
+
+/**
+ * Exception class that is thrown when a request has to be turned away because
+ * the caller, or the server as a whole, is over a limit. Maps to HTTP 429.
+ */
+public class TooManyRequestsException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public TooManyRequestsException(long retryAfterSeconds) {
+        this("Too many requests, please try again later", retryAfterSeconds);
+    }
+
+    public TooManyRequestsException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return this.retryAfterSeconds;
+    }
+
+}
@@ -1,12 +1,17 @@
 package com.revature.models;
 
+import java.util.HashSet;
+import java.util.Set;
+
 import javax.persistence.*;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
 
+import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.validator.constraints.Length;
 
 import com.fasterxml.jackson.annotation.JsonIdentityInfo;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.ObjectIdGenerators;
 
 import lombok.*;
@@ -15,22 +20,34 @@ import lombok.*;
 /**
  * The model class representing a character in the game.
  *
+ * All associations are lazy; read paths that return characters fetch what they
+ * need through the entity graphs on <code>CharacterRepository</code>. Updates
+ * only write the columns that changed (<code>@DynamicUpdate</code>), and stat
+ * deltas skip the entity altogether (<code>CharacterRepository.addToStats</code>).
+ *
  * @author Teejae Bautista
  */
 @Entity
 @Table(name = "characters")
+@DynamicUpdate
+@NamedEntityGraph(name = Character.FULL, attributeNodes = {
+    @NamedAttributeNode("species"), @NamedAttributeNode("owner") })
 @Data
 @NoArgsConstructor
-@AllArgsConstructor
 @Getter
 @Setter
 @JsonIdentityInfo(generator = ObjectIdGenerators.PropertyGenerator.class, property = "id")
-@EqualsAndHashCode(exclude = { "owner" })
-@ToString(exclude = { "owner" })
+@EqualsAndHashCode(exclude = { "owner", "skills" })
+@ToString(exclude = { "owner", "skills" })
 public class Character {
 
+    public static final String FULL = "Character.full";
+
+    // pooled sequences rather than IDENTITY, so Hibernate can batch inserts: ids are
+    // handed out 50 at a time without a round trip per row
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "characters_seq")
+    @SequenceGenerator(name = "characters_seq", sequenceName = "characters_seq", allocationSize = 50)
     private int id;
 
     @NotBlank
@@ -39,24 +56,48 @@ public class Character {
     private String name;
 
     @NotNull
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private Species species;
 
     private String imageUrl;
 
-    @OneToOne(cascade = CascadeType.ALL)
-    @JoinColumn(name = "stats_id", referencedColumnName = "id")
+    @Embedded
     private Stats stats;
 
-    // private List<Skill> skills;
+    // read-only side of Skills.charactersWithSkill, so saving a character never
+    // touches its skills
+    @JsonIgnore
+    @ManyToMany(mappedBy = "charactersWithSkill", fetch = FetchType.LAZY)
+    private Set<Skills> skills = new HashSet<>();
 
-    @NotNull
-    @ManyToOne()
+    // set by the server from the caller, so only checked when the character is written
+    @NotNull(groups = ServerAssigned.class)
+    @ManyToOne(fetch = FetchType.LAZY)
     private User owner;
 
+    // optimistic locking; the default fills in rows that predate the column
+    @Version
+    @Column(nullable = false, columnDefinition = "integer default 0")
+    private int version;
+
+    public Character(int id, String name, Species species, String imageUrl, Stats stats, User owner) {
+        this(name, imageUrl);
+        this.id = id;
+        this.species = species;
+        this.stats = stats;
+        this.owner = owner;
+    }
+
     public Character(String name, String imageUrl) {
         this.name = name;
         this.imageUrl = imageUrl;
     }
 
+    /**
+     * Validation group of the fields the server assigns rather than the client:
+     * left out of request bodies and validated on persist and update.
+     */
+    public interface ServerAssigned {
+    }
+
 }
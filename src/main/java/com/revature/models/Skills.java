@@ -3,10 +3,15 @@ package com.revature.models;
 import java.util.Set;
 
 import javax.persistence.*;
+import javax.validation.constraints.NotBlank;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
 
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 
 @Entity
@@ -14,6 +19,8 @@ import lombok.NoArgsConstructor;
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
+@EqualsAndHashCode(exclude = { "charactersWithSkill" })
+@ToString(exclude = { "charactersWithSkill" })
 public class Skills {
 
     @Id
@@ -21,6 +28,7 @@ public class Skills {
     @Column(name = "id")
     private int id;
 
+    @NotBlank
     private String name;
 
     private String description;
@@ -30,10 +38,20 @@ public class Skills {
 
     private int power;
 
+    // never loaded through here: a skill can have any number of characters, and
+    // grants are inserted into the join table directly (see SkillsRepository)
+    @JsonIgnore
     @ManyToMany
     @JoinTable(name = "character_and_skill",
         joinColumns = @JoinColumn(name = "skill_id"),
         inverseJoinColumns = @JoinColumn(name = "character_id", referencedColumnName = "id"))
     private Set<Character> charactersWithSkill;
 
+    public Skills(String name, String description, String statDependency, int power) {
+        this.name = name;
+        this.description = description;
+        this.statDependency = statDependency;
+        this.power = power;
+    }
+
 }
@@ -2,7 +2,6 @@ package com.revature.models;
 
 import javax.persistence.*;
 
-import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
@@ -10,7 +9,6 @@ import lombok.NoArgsConstructor;
 @Entity
 @Table(name = "species")
 @Data
-@AllArgsConstructor
 @NoArgsConstructor
 public class Species {
 
@@ -25,6 +23,15 @@ public class Species {
     @Column(nullable = false)
     private String description;
 
+    @Version
+    @Column(nullable = false, columnDefinition = "integer default 0")
+    private int version;
+
+    public Species(int id, String speciesName, String description) {
+        this(speciesName, description);
+        this.id = id;
+    }
+
     public Species(String speciesName, String description) {
         super();
         this.speciesName = speciesName;
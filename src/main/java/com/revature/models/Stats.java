@@ -2,22 +2,26 @@ package com.revature.models;
 
 import javax.persistence.*;
 
-import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 
-@Entity
-@Table(name = "stats")
+/**
+ * A character's stats, stored in columns of its <code>characters</code> row:
+ * they are always one per character and always read with it, so they need no
+ * table, join or cascade of their own. A character without stats has all of
+ * these columns null (Hibernate reads that back as no stats).
+ */
+@Embeddable
 @Data
-@AllArgsConstructor
 @NoArgsConstructor
 public class Stats {
 
-    @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
-    @Column(name = "id")
-    private int statId;
+    /**
+     * A character is at least level <code>1 + experience / EXPERIENCE_PER_LEVEL</code>:
+     * gaining experience raises the level to that, and nothing lowers it.
+     */
+    public static final int EXPERIENCE_PER_LEVEL = 100;
 
     @Column(name = "lvl")
     private int level;
@@ -40,8 +44,22 @@ public class Stats {
     @Column(name = "fp")
     private int forcePower;
 
-    @OneToOne(cascade = CascadeType.ALL)
-    @JoinColumn(name = "character_id", referencedColumnName = "id")
-    Character character;
+    public Stats(int level, int experience, int health, int strength, int defense, int dexterity, int forcePower) {
+        this.level = level;
+        this.experience = experience;
+        this.health = health;
+        this.strength = strength;
+        this.defense = defense;
+        this.dexterity = dexterity;
+        this.forcePower = forcePower;
+    }
+
+    /**
+     * @return the level of a character at <code>level</code> once its experience
+     *         is <code>experience</code>
+     */
+    public static int levelAfter(int level, int experience) {
+        return Math.max(level, 1 + experience / EXPERIENCE_PER_LEVEL);
+    }
 
 }
@@ -5,8 +5,10 @@ import javax.validation.constraints.Email;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.Pattern;
 
+import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.validator.constraints.Length;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import com.revature.util.RegexUtil;
 
 import lombok.AllArgsConstructor;
@@ -14,8 +16,10 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 
+// updates such as the password upgrade on login only write the columns that changed
 @Entity
 @Table(name = "users")
+@DynamicUpdate
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
@@ -23,7 +27,8 @@ public class User {
 
     @Id
     @Column(name = "user_id")
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     private int id;
 
     @NotBlank
@@ -31,9 +36,11 @@ public class User {
     @Column(nullable = false, unique = true)
     private String username;
 
+    // accepted in request bodies, never written to responses; stored as a hash
     @NotBlank
-    @Pattern(regexp = RegexUtil.PASSWORD_REGEX)
+    @Pattern(regexp = RegexUtil.PASSWORD_REGEX, groups = RawPassword.class)
     @Column(nullable = false)
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
     private String password;
 
     @NotBlank
@@ -50,4 +57,11 @@ public class User {
         this.email = email;
     }
 
+    /**
+     * Validation group of the checks a password only passes as the user typed
+     * it, not once it is hashed; validated on request bodies but not on persist.
+     */
+    public interface RawPassword {
+    }
+
 }
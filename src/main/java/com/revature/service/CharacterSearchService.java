@@ -0,0 +1,116 @@
+package com.revature.service;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.revature.data.CharacterRepository;
+import com.revature.dto.SearchHit;
+import com.revature.events.CharacterRemovedEvent;
+import com.revature.events.CharacterSavedEvent;
+import com.revature.util.NameIndex;
+
+
+/**
+ * Searches character names as the user types, from a {@link NameIndex} held in
+ * memory: no query reaches the database. The index is loaded once at startup
+ * and then follows the changes <code>CharacterService</code> publishes, after
+ * they commit.
+ */
+@Service
+public class CharacterSearchService {
+
+    private Logger log = LoggerFactory.getLogger(this.getClass());
+    private CharacterRepository charRepo;
+    private final NameIndex index = new NameIndex();
+    private final ReentrantLock lock = new ReentrantLock();
+    // characters changed while load() streams the table, whose rows there may be older (guarded by lock)
+    private Set<Integer> changedDuringLoad;
+
+    public CharacterSearchService(CharacterRepository charRepo) {
+        super();
+        this.charRepo = charRepo;
+    }
+
+    /**
+     * @return up to <code>limit</code> characters whose name (or a word in it)
+     *         starts with <code>query</code>, or is a few typos away from doing
+     *         so; see {@link NameIndex#search(String, int)}
+     */
+    public List<SearchHit> search(String query, int limit) {
+        return this.index.search(query, limit);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void load() {
+        this.lock.lock();
+        try {
+            this.changedDuringLoad = new HashSet<>();
+        } finally {
+            this.lock.unlock();
+        }
+        try (Stream<SearchHit> names = this.charRepo.streamNames()) {
+            names.forEach(this::putLoaded);
+        } finally {
+            this.lock.lock();
+            try {
+                this.changedDuringLoad = null;
+            } finally {
+                this.lock.unlock();
+            }
+        }
+        this.log.info("Character search index loaded with {} names", this.index.size());
+    }
+
+    // a row loaded after the character changed would undo the change
+    private void putLoaded(SearchHit hit) {
+        this.lock.lock();
+        try {
+            if (!this.changedDuringLoad.contains(hit.getId())) {
+                this.index.put(hit.getId(), hit.getName());
+            }
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSaved(CharacterSavedEvent event) {
+        this.lock.lock();
+        try {
+            this.index.put(event.getId(), event.getName());
+            changed(event.getId());
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRemoved(CharacterRemovedEvent event) {
+        this.lock.lock();
+        try {
+            this.index.remove(event.getId());
+            changed(event.getId());
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    private void changed(int id) {
+        if (this.changedDuringLoad != null) {
+            this.changedDuringLoad.add(id);
+        }
+    }
+
+}
@@ -1,53 +1,165 @@
 package com.revature.service;
 
+import java.util.Iterator;
 import java.util.List;
-import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import javax.persistence.EntityManager;
+import javax.persistence.LockModeType;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.revature.data.CharacterRepository;
+import com.revature.dto.CharacterExportRow;
+import com.revature.dto.CharacterState;
+import com.revature.dto.CharacterSummary;
+import com.revature.dto.PageResponse;
+import com.revature.dto.StatsDelta;
+import com.revature.events.CharacterRemovedEvent;
+import com.revature.events.CharacterSavedEvent;
+import com.revature.events.CharacterTally;
 import com.revature.exceptions.CharacterNotFoundException;
+import com.revature.exceptions.ForbiddenException;
+import com.revature.exceptions.PreconditionFailedException;
 import com.revature.models.Character;
+import com.revature.models.Stats;
+import com.revature.models.User;
+import com.revature.util.ETags;
 
 
+/**
+ * Every add, update and removal of a character is published as a
+ * {@link CharacterSavedEvent} or {@link CharacterRemovedEvent}, which the
+ * in-memory views of characters (such as the search index) apply once the
+ * transaction commits.
+ */
 @Service
 public class CharacterService {
 
     private Logger log = LoggerFactory.getLogger(this.getClass());
     private CharacterRepository charRepo;
+    private EntityManager em;
+    private ApplicationEventPublisher events;
+    private StatsWriteBuffer statsBuffer;
+    // characters never change owner, so an entry only goes stale when the character is removed
+    private final Cache<Integer, Integer> owners = Caffeine.newBuilder().maximumSize(100_000).build();
 
-    public CharacterService(CharacterRepository charRepo) {
+    public CharacterService(CharacterRepository charRepo, EntityManager em, ApplicationEventPublisher events,
+        StatsWriteBuffer statsBuffer) {
         super();
         this.charRepo = charRepo;
+        this.em = em;
+        this.events = events;
+        this.statsBuffer = statsBuffer;
     }
 
+    /**
+     * Creates a character owned by <code>callerId</code>, whatever id, version or
+     * owner the character names: it is always inserted, never merged into an
+     * existing one.
+     */
     @Transactional(propagation = Propagation.REQUIRES_NEW)
-    public Character addCharacter(Character c) {
+    public Character addCharacter(Character c, int callerId) {
+
+        asNew(c, userRef(callerId));
+        Character saved = this.charRepo.save(c);
+        this.events.publishEvent(CharacterSavedEvent.of(saved));
+        return saved;
+    }
+
+    /**
+     * Creates several characters in one transaction, all owned by
+     * <code>callerId</code> and inserted like {@link #addCharacter(Character, int)}
+     * does. Their ids come from pooled
+     * sequences, so the inserts go out as JDBC batches rather than one statement
+     * per row.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public List<Character> addCharacters(List<Character> characters, int callerId) {
+
+        User owner = userRef(callerId);
+        for (Character c : characters) {
+            asNew(c, owner);
+        }
+        List<Character> saved = this.charRepo.saveAll(characters);
+        for (Character c : saved) {
+            this.events.publishEvent(CharacterSavedEvent.of(c));
+        }
+        return saved;
+    }
+
+    @Transactional(readOnly = true)
+    public List<CharacterSummary> findAll() {
 
-        return this.charRepo.save(c);
+        return this.charRepo.findAllSummaries();
     }
 
+    /**
+     * @return page <code>page</code> (from 0) of <code>size</code> characters,
+     *         ordered by id
+     */
     @Transactional(readOnly = true)
-    public Set<Character> findAll() {
+    public PageResponse<CharacterSummary> findPage(int page, int size) {
 
-        return this.charRepo.findAll().stream().collect(Collectors.toSet());
+        PageRequest request = PageRequest.of(Math.max(0, page), PageResponse.clampSize(size));
+        return PageResponse.of(this.charRepo.findSummaries(request));
     }
 
+    /**
+     * @return up to <code>limit</code> characters with an id greater than
+     *         <code>afterId</code>, ordered by id
+     */
     @Transactional(readOnly = true)
-    public Set<Character> findByOwnerId(int id) {
+    public PageResponse<CharacterSummary> findAfter(int afterId, int limit) {
 
-        return this.charRepo.findByOwnerId(id).stream().collect(Collectors.toSet());
+        int size = PageResponse.clampSize(limit);
+        // one extra row tells whether there is a next page without counting
+        List<CharacterSummary> rows = this.charRepo.findSummariesAfter(afterId, PageRequest.of(0, size + 1));
+        return PageResponse.ofKeyset(rows, size, CharacterSummary::getId);
+    }
+
+    /**
+     * Hands every character to <code>sink</code> as an export row, in id order.
+     * Rows are read from a cursor and the persistence context is cleared after
+     * each fetch, so memory use does not grow with the table.
+     *
+     * @return the number of rows exported
+     */
+    @Transactional(readOnly = true)
+    public long export(Consumer<CharacterExportRow> sink) {
+
+        long count = 0;
+        try (Stream<Character> characters = this.charRepo.streamAllForExport()) {
+            Iterator<Character> it = characters.iterator();
+            while (it.hasNext()) {
+                sink.accept(CharacterExportRow.of(it.next()));
+                if (++count % CharacterRepository.EXPORT_FETCH_SIZE == 0) {
+                    this.em.clear();
+                }
+            }
+        }
+        return count;
+    }
+
+    @Transactional(readOnly = true)
+    public List<CharacterSummary> findByOwnerId(int id) {
+
+        return this.charRepo.findSummariesByOwnerId(id);
     }
 
     @Transactional(readOnly = true)
     public Character findByName(String name) {
 
-        return this.charRepo.findByName(name).stream().findFirst().orElseThrow(CharacterNotFoundException::new);
+        return this.charRepo.findFirstByNameOrderByIdAsc(name).orElseThrow(CharacterNotFoundException::new);
     }
 
     @Transactional(readOnly = true)
@@ -65,14 +177,163 @@ public class CharacterService {
         return this.charRepo.findById(id).orElseThrow(CharacterNotFoundException::new);
     }
 
+    /**
+     * @throws CharacterNotFoundException
+     *         if no character has this id
+     */
     @Transactional(propagation = Propagation.REQUIRED)
     public void remove(int id) {
-        this.charRepo.deleteById(id);
+        Character c = this.charRepo.findById(id).orElseThrow(CharacterNotFoundException::new);
+        this.charRepo.delete(c);
+        this.owners.invalidate(id);
+        this.events.publishEvent(new CharacterRemovedEvent(id, CharacterTally.of(c)));
     }
 
     @Transactional(propagation = Propagation.REQUIRED)
     public Character update(Character c) {
-        return this.charRepo.save(c);
+        return update(c, this.charRepo.findStateById(c.getId()).orElse(null));
+    }
+
+    private Character update(Character c, CharacterState before) {
+        Character saved = this.charRepo.save(c);
+        this.events.publishEvent(CharacterSavedEvent.of(saved, before == null ? null : before.tally()));
+        return saved;
+    }
+
+    /**
+     * @return the current ETag of the character, read without loading it
+     * @throws CharacterNotFoundException
+     *         if no character has this id
+     */
+    @Transactional(readOnly = true)
+    public String getETag(int id) {
+        return this.charRepo.findStateById(id).map(CharacterState::etag).orElseThrow(CharacterNotFoundException::new);
+    }
+
+    /**
+     * Adds <code>delta</code> to a character's stats with one
+     * <code>UPDATE</code>, on behalf of its owner, and levels it up if its
+     * experience is enough. Unlike {@link #update(Character, int, String)} this
+     * never conflicts: concurrent deltas all apply.
+     *
+     * The row is locked first, so the change published to the in-memory views
+     * starts from the stats this update replaced.
+     *
+     * @return the stats after the update
+     * @throws CharacterNotFoundException
+     *         if no character has this id
+     * @throws ForbiddenException
+     *         if the character belongs to another user
+     */
+    @Transactional(propagation = Propagation.REQUIRED)
+    public Stats addToStats(int id, StatsDelta delta, int callerId) {
+
+        Character c = this.em.find(Character.class, id, LockModeType.PESSIMISTIC_WRITE);
+        if (c == null) {
+            throw new CharacterNotFoundException();
+        }
+        if (c.getOwner().getId() != callerId) {
+            this.log.warn("User {} tried to update the stats of character {} owned by user {}", callerId, id,
+                c.getOwner().getId());
+            throw new ForbiddenException();
+        }
+        CharacterTally before = CharacterTally.of(c);
+        this.charRepo.addToStats(id, delta);
+        this.em.refresh(c);
+        this.events.publishEvent(CharacterSavedEvent.of(c, before));
+        StatsDelta buffered = this.statsBuffer.pending(id);
+        return buffered == null ? c.getStats() : buffered.applyTo(c.getStats());
+    }
+
+    /**
+     * Like {@link #addToStats(int, StatsDelta, int)}, but only buffers the delta:
+     * {@link StatsWriteBuffer} writes it shortly after, together with the others.
+     * The owner check reads the owner once per character and then caches it.
+     *
+     * @throws CharacterNotFoundException
+     *         if no character has this id
+     * @throws ForbiddenException
+     *         if the character belongs to another user
+     */
+    public void addToStatsLater(int id, StatsDelta delta, int callerId) {
+
+        Integer ownerId = this.owners.get(id, k -> this.charRepo.findOwnerIdById(k).orElse(null));
+        if (ownerId == null) {
+            throw new CharacterNotFoundException();
+        }
+        if (ownerId != callerId) {
+            this.log.warn("User {} tried to update the stats of character {} owned by user {}", callerId, id,
+                ownerId);
+            throw new ForbiddenException();
+        }
+        this.statsBuffer.add(id, delta);
+    }
+
+    /**
+     * @return the stat deltas of the character that are buffered but not written
+     *         yet, or <code>null</code> if there are none
+     */
+    public StatsDelta getPendingStats(int id) {
+        return this.statsBuffer.pending(id);
+    }
+
+    @Transactional(propagation = Propagation.REQUIRED)
+    public Character update(Character c, int callerId) {
+        return update(c, callerId, null);
+    }
+
+    /**
+     * Updates a character on behalf of a user, who must own it. Only the owner id
+     * and versions are read to check this, and the owner cannot be changed.
+     *
+     * Without <code>ifMatch</code> the version in <code>c</code> is the one
+     * checked, so an update based on a stale read fails with an
+     * <code>OptimisticLockingFailureException</code>. With it, the ETag is checked
+     * instead and the update is applied on top of the version it stands for; a
+     * concurrent update still fails the same way.
+     *
+     * @param ifMatch
+     *        the ETag the client last read, or <code>null</code> to check the
+     *        version of <code>c</code>
+     * @throws CharacterNotFoundException
+     *         if no character has the id of <code>c</code>
+     * @throws ForbiddenException
+     *         if the character belongs to another user
+     * @throws PreconditionFailedException
+     *         if the character changed since the client read <code>ifMatch</code>
+     */
+    @Transactional(propagation = Propagation.REQUIRED)
+    public Character update(Character c, int callerId, String ifMatch) {
+
+        CharacterState state = this.charRepo.findStateById(c.getId()).orElseThrow(CharacterNotFoundException::new);
+        if (state.getOwnerId() != callerId) {
+            this.log.warn("User {} tried to update character {} owned by user {}", callerId, c.getId(),
+                state.getOwnerId());
+            throw new ForbiddenException();
+        }
+        if (ifMatch != null && !ETags.matches(ifMatch, state.etag())) {
+            throw new PreconditionFailedException();
+        }
+
+        if (ifMatch != null) {
+            c.setVersion(state.getVersion());
+        }
+        c.setOwner(userRef(state.getOwnerId()));
+        return update(c, state);
+    }
+
+    // with no id, save() persists the character rather than merging it over the one with that id
+    private static void asNew(Character c, User owner) {
+        c.setId(0);
+        c.setVersion(0);
+        c.setOwner(owner);
+    }
+
+    // only the id is needed to point a character at its owner
+    private static User userRef(int id) {
+        User u = new User();
+        u.setId(id);
+        return u;
     }
 
 }
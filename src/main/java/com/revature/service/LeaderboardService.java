@@ -0,0 +1,161 @@
+package com.revature.service;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.revature.data.CharacterRepository;
+import com.revature.dto.CharacterScore;
+import com.revature.dto.PageResponse;
+import com.revature.dto.RankedCharacter;
+import com.revature.events.CharacterRemovedEvent;
+import com.revature.events.CharacterSavedEvent;
+import com.revature.exceptions.CharacterNotFoundException;
+import com.revature.util.Leaderboard;
+
+
+/**
+ * Ranks characters by level and experience, overall and within each species,
+ * from {@link Leaderboard}s held in memory. They are rebuilt from the database
+ * in one pass at startup and then follow the changes
+ * <code>CharacterService</code> publishes, after they commit. Characters
+ * without stats are not ranked.
+ */
+@Service
+public class LeaderboardService {
+
+    private Logger log = LoggerFactory.getLogger(this.getClass());
+    private CharacterRepository charRepo;
+    private final Leaderboard global = new Leaderboard();
+    private final Map<Integer, Leaderboard> bySpecies = new ConcurrentHashMap<>();
+    // characters changed while load() streams the table, whose rows there may be older (guarded by this)
+    private Set<Integer> changedDuringLoad;
+
+    public LeaderboardService(CharacterRepository charRepo) {
+        super();
+        this.charRepo = charRepo;
+    }
+
+    /**
+     * @param speciesId
+     *        the species to rank within, or <code>null</code> for everyone
+     * @return the top <code>limit</code> characters
+     */
+    public List<RankedCharacter> top(Integer speciesId, int limit) {
+        return range(speciesId, 1, limit);
+    }
+
+    /**
+     * @return the character at <code>rank</code> and up to <code>radius</code>
+     *         characters on either side of it
+     */
+    public List<RankedCharacter> around(Integer speciesId, long rank, int radius) {
+        int r = Math.max(0, Math.min(radius, PageResponse.MAX_SIZE / 2));
+        long from = Math.max(1, rank - r);
+        return range(speciesId, from, (int) (rank + r - from + 1));
+    }
+
+    /**
+     * @throws CharacterNotFoundException
+     *         if the character is not ranked there: it does not exist, has no
+     *         stats or is of another species
+     */
+    public RankedCharacter rankOf(int characterId, Integer speciesId) {
+        Leaderboard board = speciesId == null ? this.global : this.bySpecies.get(speciesId);
+        RankedCharacter ranked = board == null ? null : board.rankOf(characterId);
+        if (ranked == null) {
+            throw new CharacterNotFoundException();
+        }
+        return ranked;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void load() {
+        synchronized (this) {
+            this.changedDuringLoad = new HashSet<>();
+        }
+        try (Stream<CharacterScore> scores = this.charRepo.streamScores()) {
+            scores.forEach(this::putLoaded);
+        } finally {
+            synchronized (this) {
+                this.changedDuringLoad = null;
+            }
+        }
+        this.log.info("Leaderboards loaded with {} characters over {} species", this.global.size(),
+            this.bySpecies.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onSaved(CharacterSavedEvent event) {
+        if (event.getLevel() == null || event.getExperience() == null) {
+            remove(event.getId());
+        } else {
+            put(new CharacterScore(event.getId(), event.getName(), event.getSpeciesId(), event.getLevel(),
+                event.getExperience()));
+        }
+        changed(event.getId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onRemoved(CharacterRemovedEvent event) {
+        remove(event.getId());
+        changed(event.getId());
+    }
+
+    private List<RankedCharacter> range(Integer speciesId, long fromRank, int count) {
+        Leaderboard board = speciesId == null ? this.global : this.bySpecies.get(speciesId);
+        if (board == null) {
+            return Collections.emptyList();
+        }
+        return board.range(fromRank, PageResponse.clampSize(count));
+    }
+
+    // a row loaded after the character changed would put its old score back
+    private synchronized void putLoaded(CharacterScore score) {
+        if (!this.changedDuringLoad.contains(score.getId())) {
+            put(score);
+        }
+    }
+
+    private void changed(int characterId) {
+        if (this.changedDuringLoad != null) {
+            this.changedDuringLoad.add(characterId);
+        }
+    }
+
+    // serialized so a character moving species cannot end up on two species boards
+    private synchronized void put(CharacterScore score) {
+        CharacterScore old = this.global.get(score.getId());
+        if (old != null && old.getSpeciesId() != score.getSpeciesId()) {
+            speciesBoard(old.getSpeciesId()).remove(old.getId());
+        }
+        this.global.put(score);
+        speciesBoard(score.getSpeciesId()).put(score);
+    }
+
+    private synchronized void remove(int characterId) {
+        CharacterScore old = this.global.get(characterId);
+        if (old != null) {
+            this.global.remove(characterId);
+            speciesBoard(old.getSpeciesId()).remove(characterId);
+        }
+    }
+
+    private Leaderboard speciesBoard(int speciesId) {
+        return this.bySpecies.computeIfAbsent(speciesId, id -> new Leaderboard());
+    }
+
+}
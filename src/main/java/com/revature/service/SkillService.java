@@ -0,0 +1,290 @@
+package com.revature.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.revature.data.CharacterRepository;
+import com.revature.data.SkillsRepository;
+import com.revature.dto.CharacterSkills;
+import com.revature.dto.PageResponse;
+import com.revature.exceptions.CharacterNotFoundException;
+import com.revature.exceptions.ForbiddenException;
+import com.revature.exceptions.SkillNotFoundException;
+import com.revature.models.Skills;
+import com.revature.util.SkillSet;
+
+
+/**
+ * The skill catalog and which characters have which skills.
+ *
+ * Like species, skills are small, rarely written reference data, so they are
+ * served from an immutable in-memory snapshot that is replaced on every add
+ * (copy-on-write) and reloaded periodically. As with species, the snapshot
+ * holds its own copies and the skills it returns are shared, so they must not be
+ * modified. A character's skills are handled as a {@link SkillSet} of ids, read
+ * from the join table alone.
+ */
+@Service
+public class SkillService {
+
+    private Logger log = LoggerFactory.getLogger(this.getClass());
+    private SkillsRepository skillRepo;
+    private CharacterRepository charRepo;
+
+    private volatile Catalog catalog;
+    // guards loading and replacing the catalog; see SpeciesService for why it is not a monitor
+    private final ReentrantLock lock = new ReentrantLock();
+    // skills put while a reload queries the table (guarded by lock)
+    private List<Skills> putDuringReload;
+
+    public SkillService(SkillsRepository skillRepo, CharacterRepository charRepo) {
+        super();
+        this.skillRepo = skillRepo;
+        this.charRepo = charRepo;
+    }
+
+    /**
+     * Adds a skill to the catalog. Any id in <code>s</code> is ignored and the
+     * skill is always inserted, so an existing skill, or who was granted it, is
+     * never overwritten.
+     *
+     * Any signed-in user may add skills, like species: the catalog is content the
+     * players build together and users have no roles to tell them apart. Only
+     * adding is exposed; no one can change a skill once it is in the catalog.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public Skills add(Skills s) {
+
+        // with no id, save() persists the skill rather than merging it over the one with that id
+        s.setId(0);
+        s.setCharactersWithSkill(null);
+        Skills saved = this.skillRepo.save(s);
+        afterCommit(() -> put(saved));
+        return saved;
+    }
+
+    /**
+     * @return every skill, ordered by id
+     */
+    public List<Skills> findAll() {
+        return catalog().all;
+    }
+
+    /**
+     * @throws SkillNotFoundException
+     *         if no skill has this id
+     */
+    public Skills findById(int id) {
+
+        Skills cached = catalog().byId.get(id);
+        if (cached != null) {
+            return cached;
+        }
+        // not known here, but another instance may have added it since the last reload
+        Skills found = this.skillRepo.findById(id).orElseThrow(SkillNotFoundException::new);
+        put(found);
+        return found;
+    }
+
+    /**
+     * @return the skills of the character, ordered by id
+     * @throws CharacterNotFoundException
+     *         if no character has this id
+     */
+    @Transactional(readOnly = true)
+    public List<Skills> findByCharacterId(int characterId) {
+
+        SkillSet skills = skillsOf(characterId);
+        List<Skills> result = new ArrayList<>(skills.size());
+        for (int id : skills.toArray()) {
+            result.add(findById(id));
+        }
+        return result;
+    }
+
+    /**
+     * @return the skills of up to <code>limit</code> characters with an id greater
+     *         than <code>afterId</code>, ordered by character id. The skills of
+     *         the whole page are loaded in a single query.
+     */
+    @Transactional(readOnly = true)
+    public PageResponse<CharacterSkills> findAfter(int afterId, int limit) {
+
+        int size = PageResponse.clampSize(limit);
+        List<Integer> characterIds = this.charRepo.findIdsAfter(afterId, PageRequest.of(0, size + 1));
+        Map<Integer, List<Integer>> skillIds = new HashMap<>();
+        if (!characterIds.isEmpty()) {
+            for (Object[] row : this.skillRepo.findSkillIdsByCharacterIds(characterIds)) {
+                skillIds.computeIfAbsent(((Number) row[0]).intValue(), id -> new ArrayList<>())
+                    .add(((Number) row[1]).intValue());
+            }
+        }
+        List<CharacterSkills> rows = new ArrayList<>(characterIds.size());
+        for (Integer id : characterIds) {
+            rows.add(new CharacterSkills(id, SkillSet.of(skillIds.getOrDefault(id, Collections.emptyList()))));
+        }
+        return PageResponse.ofKeyset(rows, size, CharacterSkills::getCharacterId);
+    }
+
+    /**
+     * Grants a skill to a character on behalf of a user, who must own it.
+     * Granting a skill the character already has changes nothing.
+     *
+     * @return the skills of the character, with the granted one
+     * @throws CharacterNotFoundException
+     *         if no character has this id
+     * @throws SkillNotFoundException
+     *         if no skill has this id
+     * @throws ForbiddenException
+     *         if the character belongs to another user
+     */
+    @Transactional(propagation = Propagation.REQUIRED)
+    public CharacterSkills grant(int characterId, int skillId, int callerId) {
+
+        // concurrent grants to the character wait here, so the second sees the first's row
+        int ownerId = this.charRepo.lockOwnerIdById(characterId).orElseThrow(CharacterNotFoundException::new);
+        if (ownerId != callerId) {
+            this.log.warn("User {} tried to grant a skill to character {} owned by user {}", callerId, characterId,
+                ownerId);
+            throw new ForbiddenException();
+        }
+        findById(skillId);
+
+        SkillSet skills = SkillSet.of(this.skillRepo.findSkillIdsByCharacterId(characterId));
+        if (!skills.contains(skillId)) {
+            this.skillRepo.grant(characterId, skillId);
+            skills = skills.with(skillId);
+        }
+        return new CharacterSkills(characterId, skills);
+    }
+
+    /**
+     * Replaces the catalog with a fresh copy of the table, so skills added or
+     * changed through other instances show up here too.
+     */
+    @Scheduled(fixedDelayString = "${skills.catalog.refresh-interval-ms:300000}",
+        initialDelayString = "${skills.catalog.refresh-interval-ms:300000}")
+    public void reload() {
+        this.lock.lock();
+        try {
+            this.putDuringReload = new ArrayList<>();
+        } finally {
+            this.lock.unlock();
+        }
+        Catalog fresh = new Catalog(this.skillRepo.findAll());
+        this.lock.lock();
+        try {
+            for (Skills s : this.putDuringReload) {
+                fresh = fresh.with(s);
+            }
+            this.catalog = fresh;
+            this.putDuringReload = null;
+        } finally {
+            this.lock.unlock();
+        }
+        this.log.debug("Skill catalog reloaded with {} skills", fresh.all.size());
+    }
+
+    private SkillSet skillsOf(int characterId) {
+        List<Integer> ids = this.skillRepo.findSkillIdsByCharacterId(characterId);
+        if (ids.isEmpty() && !this.charRepo.existsById(characterId)) {
+            throw new CharacterNotFoundException();
+        }
+        return SkillSet.of(ids);
+    }
+
+    private Catalog catalog() {
+        Catalog current = this.catalog;
+        if (current == null) {
+            this.lock.lock();
+            try {
+                current = this.catalog;
+                if (current == null) {
+                    current = new Catalog(this.skillRepo.findAll());
+                    this.catalog = current;
+                }
+            } finally {
+                this.lock.unlock();
+            }
+        }
+        return current;
+    }
+
+    // writers are serialized so concurrent adds cannot drop each other's skills
+    private void put(Skills s) {
+        this.lock.lock();
+        try {
+            this.catalog = catalog().with(s);
+            if (this.putDuringReload != null) {
+                this.putDuringReload.add(s);
+            }
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static final class Catalog {
+
+        private final List<Skills> all;
+        private final Map<Integer, Skills> byId;
+
+        Catalog(List<Skills> skills) {
+            List<Skills> sorted = new ArrayList<>(skills.size());
+            for (Skills s : skills) {
+                // without the characters, which are never loaded through the catalog
+                sorted.add(new Skills(s.getId(), s.getName(), s.getDescription(), s.getStatDependency(), s.getPower(),
+                    null));
+            }
+            sorted.sort(Comparator.comparingInt(Skills::getId));
+            Map<Integer, Skills> index = new HashMap<>(sorted.size() * 2);
+            for (Skills s : sorted) {
+                index.put(s.getId(), s);
+            }
+            this.all = Collections.unmodifiableList(sorted);
+            this.byId = Collections.unmodifiableMap(index);
+        }
+
+        // copy-on-write: a new snapshot with s added, or replacing the entry with its id
+        Catalog with(Skills s) {
+            List<Skills> next = new ArrayList<>(this.all.size() + 1);
+            for (Skills existing : this.all) {
+                if (existing.getId() != s.getId()) {
+                    next.add(existing);
+                }
+            }
+            next.add(s);
+            return new Catalog(next);
+        }
+
+    }
+
+}
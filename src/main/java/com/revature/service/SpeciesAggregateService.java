@@ -0,0 +1,196 @@
+package com.revature.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.revature.data.CharacterRepository;
+import com.revature.dto.SpeciesAggregate;
+import com.revature.dto.SpeciesTotals;
+import com.revature.events.CharacterRemovedEvent;
+import com.revature.events.CharacterSavedEvent;
+import com.revature.events.CharacterTally;
+
+
+/**
+ * Characters per species and their average level and strength, answered from
+ * counters held in memory, so reading them never scans the characters.
+ *
+ * The counters start from a <code>GROUP BY</code> over the table and then
+ * follow the changes <code>CharacterService</code> publishes after they
+ * commit: each event carries what the character counted for before, so an
+ * update moves it between species or changes the sums by the difference. The
+ * counters are recomputed from the table periodically, which picks up changes
+ * made through other instances.
+ *
+ * A reload must count each change exactly once, in its result or as an event
+ * applied on top of it. So a transaction that changes characters holds off
+ * reloads from just before it commits until its events are applied, and a
+ * reload holds off those commits while its query runs.
+ */
+@Service
+public class SpeciesAggregateService {
+
+    private Logger log = LoggerFactory.getLogger(this.getClass());
+    private CharacterRepository charRepo;
+    private JdbcTemplate jdbc;
+    // not read-only, so the totals come from the primary that the changes commit to
+    private final TransactionTemplate tx;
+    // shared by the commits of character changes, exclusive to the reload query
+    private final ReentrantReadWriteLock commits = new ReentrantReadWriteLock();
+    private volatile Map<Integer, Counters> counters = new ConcurrentHashMap<>();
+
+    public SpeciesAggregateService(CharacterRepository charRepo, JdbcTemplate jdbc,
+        PlatformTransactionManager transactionManager) {
+        super();
+        this.charRepo = charRepo;
+        this.jdbc = jdbc;
+        this.tx = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * @return the species that have characters, ordered by id; characters
+     *         without a species are under species 0
+     */
+    public List<SpeciesAggregate> findAll() {
+        List<SpeciesAggregate> result = new ArrayList<>();
+        for (Map.Entry<Integer, Counters> e : new ConcurrentSkipListMap<>(this.counters).entrySet()) {
+            SpeciesTotals totals = e.getValue().totals(e.getKey());
+            if (totals.getCharacters() > 0) {
+                result.add(SpeciesAggregate.of(totals));
+            }
+        }
+        return result;
+    }
+
+    public SpeciesAggregate findBySpeciesId(int speciesId) {
+        Counters c = this.counters.get(speciesId);
+        return SpeciesAggregate.of(c == null ? new SpeciesTotals(speciesId, 0, 0, 0, 0) : c.totals(speciesId));
+    }
+
+    /**
+     * Replaces the counters with totals computed by the database.
+     *
+     * The query runs once every change that committed before it has been
+     * applied, and no change commits until the new counters are in place, so the
+     * events that follow are exactly the changes the totals do not include.
+     * Changing characters therefore waits for the query to finish if it would
+     * commit meanwhile.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${species.aggregates.refresh-interval-ms:600000}",
+        initialDelayString = "${species.aggregates.refresh-interval-ms:600000}")
+    public void reload() {
+        Map<Integer, Counters> fresh = new ConcurrentHashMap<>();
+        this.tx.executeWithoutResult(status -> {
+            // take a connection first: the commits held off below keep theirs, and may have the last ones
+            this.jdbc.queryForObject("select 1", Integer.class);
+            this.commits.writeLock().lock();
+            try {
+                for (SpeciesTotals totals : this.charRepo.findSpeciesTotals()) {
+                    fresh.put(totals.getSpeciesId(), new Counters(totals));
+                }
+                this.counters = fresh;
+            } finally {
+                this.commits.writeLock().unlock();
+            }
+        });
+        this.log.debug("Species aggregates reloaded for {} species", fresh.size());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void beforeCommit(CharacterSavedEvent event) {
+        holdReloads();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void beforeCommit(CharacterRemovedEvent event) {
+        holdReloads();
+    }
+
+    // once per transaction, released after its events are applied (afterCommit listeners run first)
+    private void holdReloads() {
+        if (TransactionSynchronizationManager.hasResource(this.commits)) {
+            return;
+        }
+        this.commits.readLock().lock();
+        TransactionSynchronizationManager.bindResource(this.commits, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResource(SpeciesAggregateService.this.commits);
+                SpeciesAggregateService.this.commits.readLock().unlock();
+            }
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSaved(CharacterSavedEvent event) {
+        if (event.getPrevious() != null) {
+            apply(event.getPrevious(), -1);
+        }
+        apply(event.tally(), 1);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRemoved(CharacterRemovedEvent event) {
+        if (event.getPrevious() != null) {
+            apply(event.getPrevious(), -1);
+        }
+    }
+
+    private void apply(CharacterTally tally, int sign) {
+        Counters c = this.counters.computeIfAbsent(tally.getSpeciesId(), id -> new Counters());
+        c.characters.add(sign);
+        if (tally.getLevel() != null) {
+            c.withStats.add(sign);
+            c.levelSum.add((long) sign * tally.getLevel());
+            c.strengthSum.add((long) sign * (tally.getStrength() == null ? 0 : tally.getStrength()));
+        }
+    }
+
+    private static final class Counters {
+
+        private final LongAdder characters = new LongAdder();
+        private final LongAdder withStats = new LongAdder();
+        private final LongAdder levelSum = new LongAdder();
+        private final LongAdder strengthSum = new LongAdder();
+
+        Counters() {
+        }
+
+        Counters(SpeciesTotals totals) {
+            this.characters.add(totals.getCharacters());
+            this.withStats.add(totals.getWithStats());
+            this.levelSum.add(totals.getLevelSum());
+            this.strengthSum.add(totals.getStrengthSum());
+        }
+
+        // each sum is read on its own, so a concurrent update may be half counted
+        SpeciesTotals totals(int speciesId) {
+            return new SpeciesTotals(speciesId, this.characters.sum(), this.withStats.sum(), this.levelSum.sum(),
+                this.strengthSum.sum());
+        }
+
+    }
+
+}
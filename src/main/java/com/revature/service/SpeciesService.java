@@ -1,25 +1,72 @@
 package com.revature.service;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import com.revature.data.SpeciesRepository;
+import com.revature.dto.PageResponse;
+import com.revature.dto.SearchHit;
 import com.revature.exceptions.SpeciesNotFoundException;
 import com.revature.models.Species;
+import com.revature.util.ETags;
+import com.revature.util.NameIndex;
 
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
 
+
+/**
+ * Serves species from an in-memory catalog.
+ *
+ * Species are small, rarely written reference data, so the whole table is
+ * held as an immutable {@link Catalog} snapshot behind a volatile reference:
+ * reads never lock and never touch the database. Adding a species publishes a
+ * new snapshot with it once the transaction commits (copy-on-write), a lookup
+ * for an unknown name reads through to the database in case another instance
+ * added it, and the catalog is reloaded periodically to pick up anything else.
+ * Each snapshot carries an ETag over its ids and versions, so listings can be
+ * answered with a 304 without serializing anything, and a {@link NameIndex}
+ * over the species names for searching.
+ *
+ * The catalog keeps its own copies of the entities, never the ones saved or
+ * loaded through the repository. The species it returns are shared by every
+ * caller and must not be modified; change a copy and save that instead.
+ */
 @Service
-public class SpeciesService {
+public class SpeciesService implements MeterBinder {
 
     private Logger log = LoggerFactory.getLogger(this.getClass());
     private SpeciesRepository speciesRepo;
 
+    private volatile Catalog catalog;
+    // a lock rather than a monitor: loading the catalog queries the database, which would pin a
+    // virtual thread to its carrier for the whole query
+    private final ReentrantLock lock = new ReentrantLock();
+    // species put while a reload queries the table, which its result may not have (guarded by lock)
+    private List<Species> putDuringReload;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
     public SpeciesService(SpeciesRepository speciesRepo) {
         super();
         this.speciesRepo = speciesRepo;
@@ -28,23 +75,252 @@ public class SpeciesService {
     @Transactional(propagation = Propagation.REQUIRES_NEW)
     public Species add(Species s) {
 
-        return this.speciesRepo.save(s);
+        Species saved = this.speciesRepo.save(s);
+        afterCommit(() -> put(saved));
+        return saved;
     }
 
-    @Transactional(readOnly = true)
     public Set<Species> findAll() {
 
-        return this.speciesRepo.findAll().stream().collect(Collectors.toSet());
+        this.hits.increment();
+        return catalog().all;
+    }
+
+    /**
+     * @return page <code>page</code> (from 0) of <code>size</code> species,
+     *         ordered by id
+     */
+    public PageResponse<Species> findPage(int page, int size) {
+
+        this.hits.increment();
+        List<Species> byId = catalog().byId;
+        int pageSize = PageResponse.clampSize(size);
+        int from = (int) Math.min((long) Math.max(0, page) * pageSize, byId.size());
+        int to = Math.min(from + pageSize, byId.size());
+        String next = to < byId.size() ? Integer.toString(Math.max(0, page) + 1) : null;
+        return new PageResponse<>(byId.subList(from, to), pageSize, next, (long) byId.size());
+    }
+
+    /**
+     * @return up to <code>limit</code> species with an id greater than
+     *         <code>afterId</code>, ordered by id
+     */
+    public PageResponse<Species> findAfter(int afterId, int limit) {
+
+        this.hits.increment();
+        List<Species> byId = catalog().byId;
+        int size = PageResponse.clampSize(limit);
+        int from = firstIdAfter(byId, afterId);
+        return PageResponse.ofKeyset(byId.subList(from, Math.min(from + size + 1, byId.size())), size,
+            Species::getId);
+    }
+
+    /**
+     * @return the ETag of the current catalog; it changes whenever a species is
+     *         added, removed or updated
+     */
+    public String catalogETag() {
+        return catalog().etag;
+    }
+
+    /**
+     * @return up to <code>limit</code> species whose name (or a word in it) starts
+     *         with <code>query</code>, or is a few typos away from doing so; see
+     *         {@link NameIndex#search(String, int)}
+     */
+    public List<SearchHit> search(String query, int limit) {
+
+        this.hits.increment();
+        return catalog().names.search(query, limit);
     }
 
-    @Transactional(readOnly = true)
     public Species findbyName(String name) {
 
         if (name.equals("")) {
             this.log.warn("Name can not be empty. Name passed: {0}", name);
             return null;
         }
-        return this.speciesRepo.findBySpeciesName(name).orElseThrow(SpeciesNotFoundException::new);
+
+        Species cached = catalog().byName.get(key(name));
+        if (cached != null) {
+            this.hits.increment();
+            return cached;
+        }
+
+        // not known here, but another instance may have added it since the last reload
+        this.misses.increment();
+        Species found = this.speciesRepo.findBySpeciesName(name).orElseThrow(SpeciesNotFoundException::new);
+        put(found);
+        return found;
+    }
+
+    /**
+     * Replaces the catalog with a fresh copy of the table, so species added or
+     * changed through other instances show up here too.
+     */
+    @Scheduled(fixedDelayString = "${species.catalog.refresh-interval-ms:300000}",
+        initialDelayString = "${species.catalog.refresh-interval-ms:300000}")
+    public void reload() {
+        this.lock.lock();
+        try {
+            this.putDuringReload = new ArrayList<>();
+        } finally {
+            this.lock.unlock();
+        }
+        Catalog fresh = new Catalog(this.speciesRepo.findAll());
+        this.lock.lock();
+        try {
+            for (Species s : this.putDuringReload) {
+                fresh = fresh.with(s);
+            }
+            this.catalog = fresh;
+            this.putDuringReload = null;
+        } finally {
+            this.lock.unlock();
+        }
+        this.log.debug("Species catalog reloaded with {} species", fresh.byId.size());
+    }
+
+    private Catalog catalog() {
+        Catalog current = this.catalog;
+        if (current == null) {
+            this.lock.lock();
+            try {
+                current = this.catalog;
+                if (current == null) {
+                    current = new Catalog(this.speciesRepo.findAll());
+                    this.catalog = current;
+                }
+            } finally {
+                this.lock.unlock();
+            }
+        }
+        return current;
+    }
+
+    // writers are serialized so concurrent adds cannot drop each other's species
+    private void put(Species s) {
+        this.lock.lock();
+        try {
+            this.catalog = catalog().with(s);
+            if (this.putDuringReload != null) {
+                this.putDuringReload.add(s);
+            }
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static int firstIdAfter(List<Species> byId, int afterId) {
+        int low = 0;
+        int high = byId.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (byId.get(mid).getId() <= afterId) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static String key(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Publishes <code>species.catalog.requests{result=hit|miss}</code>,
+     * <code>species.catalog.hit.ratio</code>, <code>species.catalog.size</code>
+     * and <code>species.catalog.last.rebuild</code> (epoch seconds).
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("species.catalog.requests", this.hits, LongAdder::sum)
+            .tag("result", "hit")
+            .register(registry);
+        FunctionCounter.builder("species.catalog.requests", this.misses, LongAdder::sum)
+            .tag("result", "miss")
+            .register(registry);
+        Gauge.builder("species.catalog.hit.ratio", this, SpeciesService::hitRatio).register(registry);
+        Gauge.builder("species.catalog.size", this, s -> s.catalog == null ? 0 : s.catalog.byId.size())
+            .register(registry);
+        Gauge.builder("species.catalog.last.rebuild", this, s -> s.catalog == null ? 0 : s.catalog.builtAt / 1000.0)
+            .baseUnit("seconds")
+            .register(registry);
+    }
+
+    private double hitRatio() {
+        long h = this.hits.sum();
+        long total = h + this.misses.sum();
+        return total == 0 ? 1.0 : (double) h / total;
+    }
+
+    private static final class Catalog {
+
+        private final long builtAt;
+        private final String etag;
+        private final List<Species> byId;
+        private final Set<Species> all;
+        private final Map<String, Species> byName;
+        private final NameIndex names = new NameIndex();
+
+        Catalog(List<Species> species) {
+            this.builtAt = System.currentTimeMillis();
+
+            List<Species> sorted = new ArrayList<>(species.size());
+            for (Species s : species) {
+                sorted.add(copyOf(s));
+            }
+            sorted.sort(Comparator.comparingInt(Species::getId));
+            Map<String, Species> index = new HashMap<>(sorted.size() * 2);
+            for (Species s : sorted) {
+                index.putIfAbsent(key(s.getSpeciesName()), s);
+                this.names.put(s.getId(), s.getSpeciesName());
+            }
+            this.byId = Collections.unmodifiableList(sorted);
+            this.all = Collections.unmodifiableSet(new LinkedHashSet<>(sorted));
+            this.byName = Collections.unmodifiableMap(index);
+
+            StringBuilder versions = new StringBuilder(sorted.size() * 8);
+            for (Species s : sorted) {
+                versions.append(s.getId()).append(':').append(s.getVersion()).append(',');
+            }
+            this.etag = ETags.strong(versions);
+        }
+
+        // copy-on-write: a new snapshot with s added, or replacing the entry with its id
+        Catalog with(Species s) {
+            List<Species> next = new ArrayList<>(this.byId.size() + 1);
+            for (Species existing : this.byId) {
+                if (existing.getId() != s.getId()) {
+                    next.add(existing);
+                }
+            }
+            next.add(s);
+            return new Catalog(next);
+        }
+
+        private static Species copyOf(Species s) {
+            Species copy = new Species(s.getId(), s.getSpeciesName(), s.getDescription());
+            copy.setVersion(s.getVersion());
+            return copy;
+        }
+
     }
 
 }
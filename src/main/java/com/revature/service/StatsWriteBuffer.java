@@ -0,0 +1,214 @@
+package com.revature.service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.revature.dto.StatsDelta;
+import com.revature.events.CharacterSavedEvent;
+import com.revature.events.CharacterTally;
+import com.revature.models.Stats;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+
+/**
+ * Write-behind for stat deltas: instead of a transaction each, deltas are added
+ * up per character in memory and written together, every
+ * <code>stats.write-behind.flush-interval-ms</code> or as soon as
+ * <code>stats.write-behind.max-pending</code> characters are waiting, and once
+ * more on shutdown.
+ *
+ * A flush locks the characters it writes (one <code>SELECT ... FOR
+ * UPDATE</code>) so the change it publishes to the in-memory views starts from
+ * the stats it replaces, then adds the deltas with one JDBC batch of the same
+ * <code>UPDATE</code> as <code>CharacterRepository.addToStats</code>. A flush
+ * that fails puts its deltas back for the next one. Deltas for characters
+ * removed in the meantime are dropped.
+ *
+ * Until then, {@link #pending(int)} tells readers what is still to be written;
+ * a read that runs during a flush may briefly miss the deltas being written.
+ * Deltas still buffered when the process dies without shutting down are lost.
+ */
+@Service
+public class StatsWriteBuffer implements MeterBinder, DisposableBean {
+
+    private static final String LOCK = "select id, name, species_id, lvl, exp, str from characters "
+        + "where id in (:ids) order by id for update";
+
+    private static final String ADD = "update characters set "
+        + "lvl = case when 1 + (coalesce(exp, 0) + ?) / " + Stats.EXPERIENCE_PER_LEVEL + " > coalesce(lvl, 1) "
+        + "then 1 + (coalesce(exp, 0) + ?) / " + Stats.EXPERIENCE_PER_LEVEL + " else coalesce(lvl, 1) end, "
+        + "exp = coalesce(exp, 0) + ?, health = coalesce(health, 0) + ?, str = coalesce(str, 0) + ?, "
+        + "def = coalesce(def, 0) + ?, dex = coalesce(dex, 0) + ?, fp = coalesce(fp, 0) + ?, "
+        + "version = version + 1 where id = ?";
+
+    private Logger log = LoggerFactory.getLogger(this.getClass());
+    private final JdbcTemplate jdbc;
+    private final NamedParameterJdbcTemplate namedJdbc;
+    private final TransactionTemplate tx;
+    private final ApplicationEventPublisher events;
+    private final TaskScheduler scheduler;
+    private final int maxPending;
+
+    private final Map<Integer, StatsDelta> pending = new ConcurrentHashMap<>();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private final LongAdder deltas = new LongAdder();
+    private final LongAdder flushes = new LongAdder();
+    private final LongAdder flushNanos = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private volatile int lastBatchSize;
+
+    public StatsWriteBuffer(JdbcTemplate jdbc, NamedParameterJdbcTemplate namedJdbc,
+        PlatformTransactionManager transactionManager, ApplicationEventPublisher events, TaskScheduler scheduler,
+        @Value("${stats.write-behind.max-pending:1000}") int maxPending) {
+        this.jdbc = jdbc;
+        this.namedJdbc = namedJdbc;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.events = events;
+        this.scheduler = scheduler;
+        this.maxPending = maxPending;
+    }
+
+    /**
+     * Adds <code>delta</code> to what is waiting to be written for the
+     * character. The caller is expected to have checked the character exists
+     * and may be changed.
+     */
+    public void add(int characterId, StatsDelta delta) {
+        this.pending.merge(characterId, delta, StatsDelta::plus);
+        this.deltas.increment();
+        if (this.pending.size() >= this.maxPending && this.flushRequested.compareAndSet(false, true)) {
+            // flushed on the scheduler rather than on the request that filled the buffer
+            this.scheduler.schedule(this::flush, Instant.now());
+        }
+    }
+
+    /**
+     * @return the deltas not yet written for the character, or
+     *         <code>null</code> if there are none
+     */
+    public StatsDelta pending(int characterId) {
+        return this.pending.get(characterId);
+    }
+
+    /**
+     * Writes everything buffered so far.
+     */
+    @Scheduled(fixedDelayString = "${stats.write-behind.flush-interval-ms:200}")
+    public synchronized void flush() {
+        this.flushRequested.set(false);
+        while (!this.pending.isEmpty()) {
+            Map<Integer, StatsDelta> batch = new HashMap<>();
+            for (Integer id : this.pending.keySet()) {
+                StatsDelta delta = this.pending.remove(id);
+                if (delta != null) {
+                    batch.put(id, delta);
+                }
+                if (batch.size() == this.maxPending) {
+                    break;
+                }
+            }
+            if (!write(batch)) {
+                return;
+            }
+        }
+    }
+
+    private boolean write(Map<Integer, StatsDelta> batch) {
+        long start = System.nanoTime();
+        try {
+            this.tx.executeWithoutResult(status -> {
+                List<CharacterSavedEvent> saved = lockAndApply(batch);
+                List<Object[]> args = new ArrayList<>(saved.size());
+                for (CharacterSavedEvent e : saved) {
+                    StatsDelta d = batch.get(e.getId());
+                    args.add(new Object[] { d.getExperience(), d.getExperience(), d.getExperience(), d.getHealth(),
+                        d.getStrength(), d.getDefense(), d.getDexterity(), d.getForcePower(), e.getId() });
+                }
+                this.jdbc.batchUpdate(ADD, args);
+                saved.forEach(this.events::publishEvent);
+            });
+        } catch (RuntimeException e) {
+            // merged with whatever arrived meanwhile and written with the next flush
+            batch.forEach((id, delta) -> this.pending.merge(id, delta, (queued, back) -> back.plus(queued)));
+            this.failures.increment();
+            this.log.warn("Could not write the stat deltas of {} characters, retrying with the next flush",
+                batch.size(), e);
+            return false;
+        }
+        this.flushes.increment();
+        this.flushNanos.add(System.nanoTime() - start);
+        this.written.add(batch.size());
+        this.lastBatchSize = batch.size();
+        return true;
+    }
+
+    // locks the characters still there and works out what each becomes, the way the UPDATE will
+    private List<CharacterSavedEvent> lockAndApply(Map<Integer, StatsDelta> batch) {
+        return this.namedJdbc.query(LOCK, Collections.singletonMap("ids", batch.keySet()), (rs, n) -> {
+            int id = rs.getInt("id");
+            Integer level = (Integer) rs.getObject("lvl");
+            Integer exp = (Integer) rs.getObject("exp");
+            Integer str = (Integer) rs.getObject("str");
+            Stats before = level == null ? null
+                : new Stats(level, exp == null ? 0 : exp, 0, str == null ? 0 : str, 0, 0, 0);
+            Stats after = batch.get(id).applyTo(before);
+            int speciesId = rs.getInt("species_id");
+            return new CharacterSavedEvent(id, rs.getString("name"), speciesId, after.getLevel(),
+                after.getExperience(), after.getStrength(),
+                new CharacterTally(speciesId, level, before == null ? null : before.getStrength()));
+        });
+    }
+
+    @Override
+    public void destroy() {
+        flush();
+    }
+
+    /**
+     * Publishes <code>stats.writebehind.flush</code> (timer),
+     * <code>stats.writebehind.deltas</code> (deltas received),
+     * <code>stats.writebehind.written</code> (characters written),
+     * <code>stats.writebehind.failures</code>,
+     * <code>stats.writebehind.batch.size</code> (characters in the last flush)
+     * and <code>stats.writebehind.backlog</code> (characters waiting).
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionTimer.builder("stats.writebehind.flush", this, b -> b.flushes.sum(), b -> b.flushNanos.sum(),
+            TimeUnit.NANOSECONDS)
+            .register(registry);
+        FunctionCounter.builder("stats.writebehind.deltas", this.deltas, LongAdder::sum).register(registry);
+        FunctionCounter.builder("stats.writebehind.written", this.written, LongAdder::sum).register(registry);
+        FunctionCounter.builder("stats.writebehind.failures", this.failures, LongAdder::sum).register(registry);
+        Gauge.builder("stats.writebehind.batch.size", this, b -> b.lastBatchSize).register(registry);
+        Gauge.builder("stats.writebehind.backlog", this.pending, Map::size).register(registry);
+    }
+
+}
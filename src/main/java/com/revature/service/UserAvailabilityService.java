@@ -0,0 +1,180 @@
+package com.revature.service;
+
+import java.util.Iterator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.revature.data.UserRepository;
+import com.revature.dto.Availability;
+import com.revature.dto.UserSummary;
+import com.revature.models.User;
+import com.revature.util.BloomFilter;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+
+/**
+ * Tells whether a username or email is still free, for the signup form.
+ *
+ * Every username and email taken is held in a {@link BloomFilter}, streamed
+ * from the database at startup and added to as users register, are imported or
+ * change them. A name the filter has never seen is free without a query; only
+ * the few the filter might have seen are checked against the unique index.
+ * Names given up by users who changed them or were removed stay in the filter
+ * and are checked the same way.
+ *
+ * Users registered through other instances are missed until the filters are
+ * rebuilt, every <code>users.availability.rebuild-interval-ms</code>; signing up
+ * with such a name still fails on the unique constraint. Until the first build
+ * completes every check queries the database.
+ */
+@Service
+public class UserAvailabilityService implements MeterBinder {
+
+    // so a fresh database does not get a filter sized for no one
+    private static final long MIN_CAPACITY = 10_000;
+
+    private Logger log = LoggerFactory.getLogger(this.getClass());
+    private UserRepository userRepo;
+    private final double falsePositiveRate;
+
+    private volatile Filters filters;
+    // the filters being rebuilt, which registrations during the rebuild must reach too
+    private volatile Filters building;
+    private final LongAdder filtered = new LongAdder();
+    private final LongAdder queried = new LongAdder();
+    private final LongAdder falsePositives = new LongAdder();
+
+    public UserAvailabilityService(UserRepository userRepo,
+        @Value("${users.availability.false-positive-rate:0.01}") double falsePositiveRate) {
+        super();
+        this.userRepo = userRepo;
+        this.falsePositiveRate = falsePositiveRate;
+    }
+
+    /**
+     * @param username
+     *        the username to check, or <code>null</code>
+     * @param email
+     *        the email to check, or <code>null</code>
+     */
+    public Availability check(String username, String email) {
+        Filters current = this.filters;
+        Boolean usernameFree = username == null ? null
+            : isFree(username, current == null ? null : current.usernames, this.userRepo::existsByUsername);
+        Boolean emailFree = email == null ? null
+            : isFree(email, current == null ? null : current.emails, this.userRepo::existsByEmail);
+        return new Availability(usernameFree, emailFree);
+    }
+
+    /**
+     * Marks the username and email of <code>u</code> as taken. Called once the
+     * user is saved, which may be before it commits; a user that then fails to
+     * commit only costs a query.
+     */
+    public void put(User u) {
+        Filters current = this.filters;
+        if (current != null) {
+            current.put(u);
+        }
+        Filters next = this.building;
+        if (next != null) {
+            next.put(u);
+        }
+        // a rebuild may have swapped in filters that were not building yet when read above
+        for (Filters latest = this.filters; latest != current; latest = this.filters) {
+            latest.put(u);
+            current = latest;
+        }
+    }
+
+    /**
+     * Rebuilds the filters from the <code>users</code> table, sized for twice the
+     * users there are, so names registered elsewhere are picked up and the false
+     * positive rate stays put as users grow.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${users.availability.rebuild-interval-ms:3600000}",
+        initialDelayString = "${users.availability.rebuild-interval-ms:3600000}")
+    @Transactional(readOnly = true)
+    public synchronized void rebuild() {
+        Filters next = new Filters(Math.max(MIN_CAPACITY, 2 * this.userRepo.count()), this.falsePositiveRate);
+        this.building = next;
+        long count = 0;
+        try (Stream<UserSummary> users = this.userRepo.streamSummaries()) {
+            Iterator<UserSummary> it = users.iterator();
+            while (it.hasNext()) {
+                UserSummary u = it.next();
+                next.usernames.put(u.getUsername());
+                next.emails.put(u.getEmail());
+                count++;
+            }
+            this.filters = next;
+        } finally {
+            this.building = null;
+        }
+        this.log.info("Availability filters built from {} users ({} bits, {} hashes each)", count,
+            next.usernames.bitSize(), next.usernames.hashCount());
+    }
+
+    private boolean isFree(String name, BloomFilter filter, Predicate<String> exists) {
+        if (filter != null && !filter.mightContain(name)) {
+            this.filtered.increment();
+            return true;
+        }
+        this.queried.increment();
+        boolean taken = exists.test(name);
+        if (!taken && filter != null) {
+            this.falsePositives.increment();
+        }
+        return !taken;
+    }
+
+    /**
+     * Publishes <code>users.availability.checks{result=filtered|queried}</code>
+     * (names answered by the filter alone, or with a query) and
+     * <code>users.availability.false.positives</code> (queries that found the
+     * name free).
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("users.availability.checks", this.filtered, LongAdder::sum)
+            .tag("result", "filtered")
+            .register(registry);
+        FunctionCounter.builder("users.availability.checks", this.queried, LongAdder::sum)
+            .tag("result", "queried")
+            .register(registry);
+        FunctionCounter.builder("users.availability.false.positives", this.falsePositives, LongAdder::sum)
+            .register(registry);
+    }
+
+    private static final class Filters {
+
+        private final BloomFilter usernames;
+        private final BloomFilter emails;
+
+        Filters(long capacity, double falsePositiveRate) {
+            this.usernames = new BloomFilter(capacity, falsePositiveRate);
+            this.emails = new BloomFilter(capacity, falsePositiveRate);
+        }
+
+        void put(User u) {
+            this.usernames.put(u.getUsername());
+            this.emails.put(u.getEmail());
+        }
+
+    }
+
+}
@@ -0,0 +1,269 @@
+package com.revature.service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import javax.validation.groups.Default;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.revature.data.UserRepository;
+import com.revature.dto.ImportReport;
+import com.revature.exceptions.TooManyRequestsException;
+import com.revature.models.User;
+import com.revature.util.CsvReader;
+import com.revature.util.PasswordHasher;
+
+
+/**
+ * Registers users in bulk from CSV.
+ *
+ * The file is read one row at a time and rows are inserted in chunks of
+ * <code>users.import.chunk-size</code>, each chunk in its own transaction and
+ * JDBC batches, so memory use does not depend on the size of the file and a bad
+ * row only costs itself. Rows are validated with the <code>User</code>
+ * constraints; usernames and emails already taken, by another user or an
+ * earlier row, are reported rather than failing the chunk.
+ *
+ * Passwords that are already BCrypt hashes (users migrated from another shard)
+ * are stored as they are; plain text passwords are hashed like on
+ * registration.
+ */
+@Service
+public class UserImportService {
+
+    private static final String USERNAME = "username";
+    private static final String PASSWORD = "password";
+    private static final String EMAIL = "email";
+
+    private Logger log = LoggerFactory.getLogger(this.getClass());
+    private final UserRepository userRepo;
+    private final PasswordHasher hasher;
+    private final Validator validator;
+    private final UserAvailabilityService availability;
+    private final TransactionTemplate tx;
+    private final int chunkSize;
+
+    public UserImportService(UserRepository userRepo, PasswordHasher hasher, Validator validator,
+        UserAvailabilityService availability, PlatformTransactionManager txManager,
+        @Value("${users.import.chunk-size:500}") int chunkSize) {
+        super();
+        this.userRepo = userRepo;
+        this.hasher = hasher;
+        this.validator = validator;
+        this.availability = availability;
+        this.tx = new TransactionTemplate(txManager);
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Imports the users in <code>in</code>, a CSV file whose header names the
+     * <code>username</code>, <code>password</code> and <code>email</code> columns
+     * (in any order; other columns are ignored).
+     *
+     * If the file turns out not to be valid CSV, the rows before the error are
+     * still imported and the error is reported for the line it was found on.
+     *
+     * @throws IllegalArgumentException
+     *         if the file is empty or its header lacks a column
+     */
+    public ImportReport importCsv(Reader in) throws IOException {
+
+        ImportReport report = new ImportReport();
+        try (CsvReader csv = new CsvReader(in)) {
+            List<String> header = csv.next();
+            if (header == null) {
+                throw new IllegalArgumentException("The file is empty");
+            }
+            Columns columns = new Columns(header);
+
+            List<Row> chunk = new ArrayList<>(this.chunkSize);
+            try {
+                List<String> fields;
+                while ((fields = csv.next()) != null) {
+                    Row row = parse(csv.getRecordLine(), fields, columns, report);
+                    if (row != null) {
+                        chunk.add(row);
+                    }
+                    if (chunk.size() == this.chunkSize) {
+                        save(chunk, report);
+                        chunk.clear();
+                    }
+                }
+            } catch (CsvReader.CsvFormatException e) {
+                report.fail(e.getLine(), null,
+                    Collections.singletonList(e.getMessage() + "; the rest of the file was not imported"));
+            }
+            save(chunk, report);
+        }
+        // rows rejected on parsing are reported before the conflicts found when saving their chunk
+        report.getErrors().sort(Comparator.comparingLong(ImportReport.RowError::getLine));
+
+        this.log.info("Imported {} users, {} rows failed", report.getImported(), report.getFailed());
+        return report;
+    }
+
+    private Row parse(long line, List<String> fields, Columns columns, ImportReport report) {
+
+        if (fields.size() != columns.count) {
+            report.fail(line, null, Collections.singletonList(
+                "Expected " + columns.count + " fields but found " + fields.size()));
+            return null;
+        }
+
+        User u = new User(fields.get(columns.username).trim(), fields.get(columns.password),
+            fields.get(columns.email).trim());
+        boolean hashed = this.hasher.isHashed(u.getPassword());
+        List<String> errors = new ArrayList<>();
+        // a hash is not expected to look like a password
+        Class<?>[] groups = hashed ? new Class<?>[] { Default.class }
+            : new Class<?>[] { Default.class, User.RawPassword.class };
+        for (ConstraintViolation<User> violation : this.validator.validate(u, groups)) {
+            errors.add(violation.getPropertyPath() + ": " + violation.getMessage());
+        }
+        if (!errors.isEmpty()) {
+            Collections.sort(errors);
+            report.fail(line, u.getUsername(), errors);
+            return null;
+        }
+        return new Row(line, u, hashed);
+    }
+
+    private void save(List<Row> chunk, ImportReport report) {
+
+        List<Row> accepted = withoutConflicts(chunk, report);
+
+        // hashing is slow, so it happens before the transaction takes a connection
+        List<User> users = new ArrayList<>(accepted.size());
+        List<Row> rows = new ArrayList<>(accepted.size());
+        for (Row row : accepted) {
+            if (!row.hashed) {
+                try {
+                    row.user.setPassword(this.hasher.hash(row.user.getPassword()));
+                } catch (TooManyRequestsException e) {
+                    report.fail(row.line, row.user.getUsername(),
+                        Collections.singletonList("The server is busy, please retry this row"));
+                    continue;
+                }
+            }
+            users.add(row.user);
+            rows.add(row);
+        }
+        if (users.isEmpty()) {
+            return;
+        }
+
+        try {
+            this.tx.executeWithoutResult(status -> {
+                this.userRepo.saveAll(users);
+                this.userRepo.flush();
+            });
+            users.forEach(this.availability::put);
+            report.addImported(users.size());
+        } catch (DataIntegrityViolationException e) {
+            // someone registered one of these names since the check; find out which row one by one
+            for (Row row : rows) {
+                row.user.setId(0);
+                try {
+                    this.tx.executeWithoutResult(status -> this.userRepo.saveAndFlush(row.user));
+                    this.availability.put(row.user);
+                    report.addImported(1);
+                } catch (DataIntegrityViolationException rowException) {
+                    report.fail(row.line, row.user.getUsername(),
+                        Collections.singletonList("The username or email is already taken"));
+                }
+            }
+        }
+    }
+
+    // drops (and reports) rows whose username or email is taken, or repeats an earlier row's
+    private List<Row> withoutConflicts(List<Row> chunk, ImportReport report) {
+
+        Set<String> usernames = new HashSet<>();
+        Set<String> emails = new HashSet<>();
+        for (Row row : chunk) {
+            usernames.add(row.user.getUsername());
+            emails.add(row.user.getEmail());
+        }
+        Set<String> takenUsernames = usernames.isEmpty() ? new HashSet<>()
+            : new HashSet<>(this.userRepo.findExistingUsernames(usernames));
+        Set<String> takenEmails = emails.isEmpty() ? new HashSet<>()
+            : new HashSet<>(this.userRepo.findExistingEmails(emails));
+
+        List<Row> accepted = new ArrayList<>(chunk.size());
+        for (Row row : chunk) {
+            List<String> errors = new ArrayList<>(2);
+            // the sets now double as "seen in this chunk"
+            if (!takenUsernames.add(row.user.getUsername())) {
+                errors.add("username: is already taken");
+            }
+            if (!takenEmails.add(row.user.getEmail())) {
+                errors.add("email: is already taken");
+            }
+            if (errors.isEmpty()) {
+                accepted.add(row);
+            } else {
+                report.fail(row.line, row.user.getUsername(), errors);
+            }
+        }
+        return accepted;
+    }
+
+    private static final class Columns {
+
+        private final int count;
+        private final int username;
+        private final int password;
+        private final int email;
+
+        Columns(List<String> header) {
+            List<String> names = new ArrayList<>(header.size());
+            for (String name : header) {
+                names.add(name.trim().toLowerCase(Locale.ROOT));
+            }
+            this.count = header.size();
+            this.username = indexOf(names, USERNAME);
+            this.password = indexOf(names, PASSWORD);
+            this.email = indexOf(names, EMAIL);
+        }
+
+        private static int indexOf(List<String> names, String column) {
+            int index = names.indexOf(column);
+            if (index < 0) {
+                throw new IllegalArgumentException("The header has no " + column + " column");
+            }
+            return index;
+        }
+
+    }
+
+    private static final class Row {
+
+        private final long line;
+        private final User user;
+        private final boolean hashed;
+
+        Row(long line, User user, boolean hashed) {
+            this.line = line;
+            this.user = user;
+            this.hashed = hashed;
+        }
+
+    }
+
+}
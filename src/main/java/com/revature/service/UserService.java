@@ -1,19 +1,25 @@
 package com.revature.service;
 
-import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.List;
+import java.util.Locale;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.revature.data.UserRepository;
 import com.revature.dto.Credentials;
+import com.revature.dto.PageResponse;
+import com.revature.dto.UserSummary;
 import com.revature.exceptions.AuthenticationException;
+import com.revature.exceptions.TooManyRequestsException;
 import com.revature.exceptions.UserNotFoundException;
 import com.revature.models.User;
+import com.revature.util.LoginThrottle;
+import com.revature.util.PasswordHasher;
 
 
 @Service
@@ -21,29 +27,118 @@ public class UserService {
 
     private Logger log = LoggerFactory.getLogger(this.getClass());
     private UserRepository userRepo;
+    private PasswordHasher hasher;
+    private LoginThrottle throttle;
+    private UserAvailabilityService availability;
 
-    public UserService(UserRepository userRepo) {
+    public UserService(UserRepository userRepo, PasswordHasher hasher, LoginThrottle throttle,
+        UserAvailabilityService availability) {
         super();
         this.userRepo = userRepo;
+        this.hasher = hasher;
+        this.throttle = throttle;
+        this.availability = availability;
     }
 
     public User authenticate(Credentials creds) {
+        return authenticate(creds, null);
+    }
+
+    /**
+     * Looks the user up by username and checks the password against the stored
+     * hash. Failures are counted per username and per client IP; once either is
+     * locked out, attempts are refused without touching the database or the
+     * hashing pool.
+     *
+     * Not transactional: the lookup and the save of an upgraded hash run in short
+     * transactions of the repository's own, so no connection is held while the
+     * password is hashed.
+     *
+     * @param clientIp
+     *        the caller's address, or <code>null</code> to throttle by username only
+     * @throws TooManyRequestsException
+     *         if the username or IP is locked out, or the hashing pool is saturated
+     */
+    public User authenticate(Credentials creds, String clientIp) {
+
+        String userKey = "u:" + String.valueOf(creds.getUsername()).toLowerCase(Locale.ROOT);
+        String ipKey = clientIp == null ? null : "ip:" + clientIp;
+
+        long retryAfter = this.throttle.retryAfterSeconds(userKey);
+        if (ipKey != null) {
+            retryAfter = Math.max(retryAfter, this.throttle.retryAfterSeconds(ipKey));
+        }
+        if (retryAfter > 0) {
+            this.log.warn("Login for {} refused, locked out for another {}s", creds.getUsername(), retryAfter);
+            throw new TooManyRequestsException(retryAfter);
+        }
+
+        User user = this.userRepo.findByUsername(creds.getUsername()).orElse(null);
+        String stored = user == null ? null : user.getPassword();
 
-        return this.userRepo.findUserByUsernameAndPassword(creds.getUsername(), creds.getPassword())
-            .orElseThrow(AuthenticationException::new);
+        if (creds.getPassword() == null || !this.hasher.matches(creds.getPassword(), stored)) {
+            this.throttle.recordFailure(userKey);
+            if (ipKey != null) {
+                this.throttle.recordFailure(ipKey);
+            }
+            throw new AuthenticationException();
+        }
+        this.throttle.recordSuccess(userKey);
+
+        // passwords saved before hashing was introduced are upgraded on first login
+        if (!this.hasher.isHashed(stored)) {
+            user.setPassword(this.hasher.hash(creds.getPassword()));
+            user = this.userRepo.save(user);
+        }
+        return user;
     }
 
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    /**
+     * Registers a new user. Any id in <code>u</code> is ignored, so registering
+     * never overwrites an existing account.
+     *
+     * Like {@link #authenticate(Credentials, String)}, the password is hashed
+     * before any transaction begins; only the insert runs in one, the
+     * repository's.
+     */
     public User add(User u) {
 
-        return this.userRepo.save(u);
+        // with no id, save() persists the user rather than merging it over the one with that id
+        u.setId(0);
+        u.setPassword(this.hasher.hash(u.getPassword()));
+        User saved = this.userRepo.save(u);
+        this.availability.put(saved);
+        return saved;
+    }
+
+    @Transactional(readOnly = true)
+    public List<UserSummary> findAll() {
+
+        return this.userRepo.findAllSummaries();
     }
 
+    /**
+     * @return page <code>page</code> (from 0) of <code>size</code> users,
+     *         ordered by id
+     */
     @Transactional(readOnly = true)
-    public Set<User> findAll() {
-        // here we are using the stream API to transform the List to a Set to avoid
-        // duplicates
-        return this.userRepo.findAll().stream().collect(Collectors.toSet());
+    public PageResponse<UserSummary> findPage(int page, int size) {
+
+        PageRequest request = PageRequest.of(Math.max(0, page), PageResponse.clampSize(size));
+        return PageResponse.of(this.userRepo.findSummaries(request));
+    }
+
+    /**
+     * @return up to <code>limit</code> users with an id greater than
+     *         <code>afterId</code>, ordered by id
+     */
+    @Transactional(readOnly = true)
+    public PageResponse<UserSummary> findAfter(int afterId, int limit) {
+
+        int size = PageResponse.clampSize(limit);
+        // one extra row tells whether there is a next page without counting
+        List<UserSummary> rows = this.userRepo.findSummariesAfter(afterId, PageRequest.of(0, size + 1));
+        return PageResponse.ofKeyset(rows, size, UserSummary::getId);
     }
 
     @Transactional(readOnly = true)
@@ -71,7 +166,12 @@ public class UserService {
     }
 
     public User update(User u) {
-        return this.userRepo.save(u);
+        if (!this.hasher.isHashed(u.getPassword())) {
+            u.setPassword(this.hasher.hash(u.getPassword()));
+        }
+        User saved = this.userRepo.save(u);
+        this.availability.put(saved);
+        return saved;
     }
 
 }
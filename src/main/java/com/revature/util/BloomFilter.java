@@ -0,0 +1,94 @@
+package com.revature.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+
+/**
+ * A set of strings that can only answer "definitely not in it" or "possibly in
+ * it". It holds bits rather than the strings, so a million entries take about a
+ * megabyte at a 1% false positive rate.
+ *
+ * Each string sets {@link #hashCount()} bits, picked by double hashing two
+ * 64-bit hashes of its characters. Strings can be added but never removed. Adds
+ * and lookups never lock; a lookup that runs alongside the add of the same
+ * string may miss it.
+ */
+public class BloomFilter {
+
+    private static final double LN2 = Math.log(2);
+
+    private final AtomicLongArray bits;
+    private final long bitSize;
+    private final int hashCount;
+
+    /**
+     * @param expected
+     *        how many strings the filter is sized for; more can be added, at a
+     *        growing false positive rate
+     * @param falsePositiveRate
+     *        the rate of "possibly" answers for strings never added, once
+     *        <code>expected</code> strings are in
+     */
+    public BloomFilter(long expected, double falsePositiveRate) {
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("The false positive rate must be between 0 and 1");
+        }
+        long n = Math.max(1, expected);
+        long m = Math.max(64, (long) Math.ceil(-n * Math.log(falsePositiveRate) / (LN2 * LN2)));
+        int words = (int) Math.min(Integer.MAX_VALUE, (m + 63) / 64);
+        this.bits = new AtomicLongArray(words);
+        this.bitSize = (long) words * 64;
+        this.hashCount = Math.max(1, (int) Math.round((double) this.bitSize / n * LN2));
+    }
+
+    public void put(String s) {
+        long h1 = hash(s, 0x9E3779B97F4A7C15L);
+        long h2 = hash(s, 0xC2B2AE3D27D4EB4FL) | 1;
+        for (int i = 0; i < this.hashCount; i++) {
+            long bit = Math.floorMod(h1 + i * h2, this.bitSize);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current = this.bits.get(word);
+            while ((current & mask) == 0 && !this.bits.compareAndSet(word, current, current | mask)) {
+                current = this.bits.get(word);
+            }
+        }
+    }
+
+    /**
+     * @return <code>false</code> if <code>s</code> was never added,
+     *         <code>true</code> if it probably was
+     */
+    public boolean mightContain(String s) {
+        long h1 = hash(s, 0x9E3779B97F4A7C15L);
+        long h2 = hash(s, 0xC2B2AE3D27D4EB4FL) | 1;
+        for (int i = 0; i < this.hashCount; i++) {
+            long bit = Math.floorMod(h1 + i * h2, this.bitSize);
+            if ((this.bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long bitSize() {
+        return this.bitSize;
+    }
+
+    public int hashCount() {
+        return this.hashCount;
+    }
+
+    // 64-bit multiply-xorshift over the characters, finished with the SplitMix64 mixer
+    private static long hash(String s, long seed) {
+        long h = seed ^ s.length();
+        for (int i = 0; i < s.length(); i++) {
+            h = (h ^ s.charAt(i)) * 0x100000001B3L;
+            h ^= h >>> 29;
+        }
+        h = (h ^ (h >>> 30)) * 0xBF58476D1CE4E5B9L;
+        h = (h ^ (h >>> 27)) * 0x94D049BB133111EBL;
+        return h ^ (h >>> 31);
+    }
+
+}
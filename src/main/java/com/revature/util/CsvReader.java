@@ -0,0 +1,161 @@
+package com.revature.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * Reads RFC 4180 CSV one record at a time, so a file of any size can be
+ * processed in constant memory.
+ *
+ * Fields may be quoted; quoted fields may contain commas, line breaks and
+ * doubled quotes. Lines may end with LF or CRLF. A record longer than
+ * <code>maxRecordLength</code> characters (e.g. after an unclosed quote) fails
+ * instead of being buffered.
+ */
+public class CsvReader implements Closeable {
+
+    public static final int DEFAULT_MAX_RECORD_LENGTH = 64 * 1024;
+
+    private final Reader in;
+    private final int maxRecordLength;
+    private final char[] buffer = new char[8192];
+    private int position;
+    private int limit;
+    private int pushedBack = -2;
+    private long line = 1;
+    private long recordLine;
+
+    public CsvReader(Reader in) {
+        this(in, DEFAULT_MAX_RECORD_LENGTH);
+    }
+
+    public CsvReader(Reader in, int maxRecordLength) {
+        this.in = in;
+        this.maxRecordLength = maxRecordLength;
+    }
+
+    /**
+     * @return the fields of the next record, or <code>null</code> at the end of
+     *         the input. Blank lines are skipped.
+     * @throws CsvFormatException
+     *         if a quote is not closed or the record is too long
+     */
+    public List<String> next() throws IOException {
+
+        int c = read();
+        while (c == '\r' || c == '\n') {
+            lineBreak(c);
+            c = read();
+        }
+        if (c == -1) {
+            return null;
+        }
+
+        this.recordLine = this.line;
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        int length = 0;
+        boolean quoted = false;
+        while (true) {
+            if (++length > this.maxRecordLength) {
+                throw new CsvFormatException(this.recordLine, "record is longer than " + this.maxRecordLength
+                    + " characters");
+            }
+            if (quoted) {
+                if (c == -1) {
+                    throw new CsvFormatException(this.recordLine, "unclosed quote");
+                }
+                if (c == '"') {
+                    c = read();
+                    if (c != '"') {
+                        quoted = false;
+                        continue;
+                    }
+                } else if (c == '\n') {
+                    this.line++;
+                }
+                field.append((char) c);
+            } else if (c == '"' && field.length() == 0) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\r' || c == '\n' || c == -1) {
+                if (c != -1) {
+                    lineBreak(c);
+                }
+                fields.add(field.toString());
+                return fields;
+            } else {
+                field.append((char) c);
+            }
+            c = read();
+        }
+    }
+
+    /**
+     * @return the line the last record returned by {@link #next()} started on,
+     *         counting from 1
+     */
+    public long getRecordLine() {
+        return this.recordLine;
+    }
+
+    // c is LF or CR; consumes the LF of a CRLF
+    private void lineBreak(int c) throws IOException {
+        this.line++;
+        if (c == '\r') {
+            int next = read();
+            if (next != '\n') {
+                this.pushedBack = next;
+            }
+        }
+    }
+
+    private int read() throws IOException {
+        if (this.pushedBack != -2) {
+            int c = this.pushedBack;
+            this.pushedBack = -2;
+            return c;
+        }
+        if (this.position == this.limit) {
+            this.limit = this.in.read(this.buffer);
+            this.position = 0;
+            if (this.limit <= 0) {
+                this.limit = 0;
+                return -1;
+            }
+        }
+        return this.buffer[this.position++];
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.in.close();
+    }
+
+    /**
+     * Thrown when the input is not valid CSV.
+     */
+    public static class CsvFormatException extends IOException {
+
+        private static final long serialVersionUID = 1L;
+
+        private final long line;
+
+        public CsvFormatException(long line, String message) {
+            super("Line " + line + ": " + message);
+            this.line = line;
+        }
+
+        public long getLine() {
+            return this.line;
+        }
+
+    }
+
+}
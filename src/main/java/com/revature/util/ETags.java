@@ -0,0 +1,65 @@
+package com.revature.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+
+/**
+ * Builds strong entity tags from the values a representation depends on
+ * (typically <code>@Version</code> columns), so an ETag can be computed from a
+ * narrow query without loading or serializing the entity.
+ */
+public final class ETags {
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private ETags() {
+        super();
+    }
+
+    /**
+     * @return a quoted, strong ETag: the first 64 bits of a SHA-256 over
+     *         <code>parts</code>, so it does not expose the values themselves
+     */
+    public static String strong(Object... parts) {
+
+        MessageDigest sha256;
+        try {
+            sha256 = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+        for (Object part : parts) {
+            sha256.update(String.valueOf(part).getBytes(StandardCharsets.UTF_8));
+            sha256.update((byte) 0);
+        }
+
+        byte[] digest = sha256.digest();
+        char[] tag = new char[18];
+        tag[0] = '"';
+        for (int i = 0; i < 8; i++) {
+            tag[1 + 2 * i] = HEX[(digest[i] >> 4) & 0xf];
+            tag[2 + 2 * i] = HEX[digest[i] & 0xf];
+        }
+        tag[17] = '"';
+        return new String(tag);
+    }
+
+    /**
+     * @return whether an <code>If-Match</code> header value matches
+     *         <code>etag</code>, per RFC 7232 (strong comparison, <code>*</code>
+     *         matches anything)
+     */
+    public static boolean matches(String ifMatch, String etag) {
+
+        for (String candidate : ifMatch.split(",")) {
+            String trimmed = candidate.trim();
+            if (trimmed.equals("*") || trimmed.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+}
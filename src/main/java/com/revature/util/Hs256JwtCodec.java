@@ -0,0 +1,659 @@
+package com.revature.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.InvalidKeyException;
+import java.security.Key;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Objects;
+
+import javax.crypto.Mac;
+import javax.crypto.ShortBufferException;
+
+
+/**
+ * A purpose-built HS256 JWT encoder/decoder for the tokens this API issues.
+ *
+ * The output is wire-compatible with jjwt (same <code>{"alg":"HS256"}</code>
+ * header, plus <code>kid</code> when the key has one, and the same
+ * <code>jti, sub, iss, iat</code> claims), so tokens can be read by either
+ * implementation. Unlike the jjwt builder and parser, it reuses its keyed
+ * <code>Mac</code> and scratch buffers (per thread, or pooled on virtual threads,
+ * see {@link Recycler}), pre-encodes the constant header and issuer bytes and
+ * Base64URL-encodes straight into a byte array, so issuing or verifying a token
+ * allocates little more than the resulting <code>String</code>.
+ *
+ * Instances are thread-safe.
+ */
+public class Hs256JwtCodec {
+
+    private static final String HMAC_SHA256 = "HmacSHA256";
+    private static final int SIGNATURE_LENGTH = 32;
+    private static final int ENCODED_SIGNATURE_LENGTH = 43; // 32 bytes, unpadded Base64URL
+
+    private static final byte[] BASE64URL = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_"
+        .getBytes(StandardCharsets.US_ASCII);
+    private static final int[] BASE64URL_DECODE = new int[128];
+
+    static {
+        Arrays.fill(BASE64URL_DECODE, -1);
+        for (int i = 0; i < BASE64URL.length; i++) {
+            BASE64URL_DECODE[BASE64URL[i]] = i;
+        }
+    }
+
+    private static final byte[] JTI_PREFIX = ascii("{\"jti\":\"");
+    private static final byte[] SUB_PREFIX = ascii("\",\"sub\":\"");
+    private static final byte[] HEX = ascii("0123456789abcdef");
+
+    private static final byte[] KEY_JTI = ascii("jti");
+    private static final byte[] KEY_SUB = ascii("sub");
+    private static final byte[] KEY_IAT = ascii("iat");
+    private static final byte[] KEY_EXP = ascii("exp");
+    private static final byte[] KEY_NBF = ascii("nbf");
+    private static final byte[] KEY_ALG = ascii("alg");
+    private static final byte[] KEY_KID = ascii("kid");
+
+    private static final Recycler<Scratch> SCRATCH = new Recycler<>(Scratch::new);
+
+    private final String keyId;
+    private final String headerSegment; // "<base64url(header)>."
+    private final byte[] headerSegmentBytes;
+    private final byte[] issuerAndIatPrefix; // "","iss":"<issuer>","iat":"
+    private final Recycler<Mac> mac;
+
+    public Hs256JwtCodec(Key key, String issuer) {
+        this(key, null, issuer);
+    }
+
+    /**
+     * @param key
+     *        the HMAC-SHA256 key
+     * @param keyId
+     *        the <code>kid</code> header written into issued tokens, or
+     *        <code>null</code> for none
+     * @param issuer
+     *        the <code>iss</code> claim written into issued tokens
+     */
+    public Hs256JwtCodec(Key key, String keyId, String issuer) {
+        byte[] header = keyId == null ? ascii("{\"alg\":\"HS256\"}")
+            : concat(ascii("{\"alg\":\"HS256\",\"kid\":\""), escapeJson(keyId), ascii("\"}"));
+        byte[] encodedHeader = new byte[encodedLength(header.length) + 1];
+        int end = encode(header, 0, header.length, encodedHeader, 0);
+        encodedHeader[end] = '.';
+
+        this.keyId = keyId;
+        this.headerSegmentBytes = encodedHeader;
+        this.headerSegment = new String(encodedHeader, StandardCharsets.US_ASCII);
+        this.issuerAndIatPrefix = concat(ascii("\",\"iss\":\""), escapeJson(issuer), ascii("\",\"iat\":"));
+        // fail fast on a bad key instead of on the first request
+        newMac(key);
+        this.mac = new Recycler<>(() -> newMac(key));
+    }
+
+    public String getKeyId() {
+        return this.keyId;
+    }
+
+    /**
+     * @return <code>true</code> if the token starts with exactly the header this
+     *         codec writes, which is the case for every token it issued
+     */
+    public boolean isIssuerOf(String token) {
+        return token.startsWith(this.headerSegment);
+    }
+
+    /**
+     * Reads the <code>kid</code> header of a token without verifying it, for
+     * choosing the key to verify it with.
+     *
+     * @return the key id, or <code>null</code> if the header has none
+     * @throws IllegalArgumentException
+     *         if the header is malformed or not HS256
+     */
+    public static String readKeyId(String token) {
+        int dot = token.indexOf('.');
+        if (dot <= 0) {
+            throw new IllegalArgumentException("Malformed JWT");
+        }
+        Header header = new Header();
+        Scratch scratch = SCRATCH.acquire();
+        try {
+            byte[] json = scratch.json(dot);
+            parseObject(json, decode(token, 0, dot, json, 0), null, header);
+        } finally {
+            SCRATCH.release(scratch);
+        }
+        if (!"HS256".equals(header.algorithm)) {
+            throw new IllegalArgumentException("Unsupported JWT algorithm: " + header.algorithm);
+        }
+        return header.keyId;
+    }
+
+    /**
+     * Issues a signed token.
+     *
+     * @param id
+     *        the value of the <code>jti</code> claim (the user id)
+     * @param subject
+     *        the value of the <code>sub</code> claim (the username)
+     * @param issuedAtSeconds
+     *        the value of the <code>iat</code> claim, in epoch seconds
+     * @return the compact serialized JWT
+     */
+    public String encode(int id, String subject, long issuedAtSeconds) {
+        Scratch scratch = SCRATCH.acquire();
+        try {
+            return encode(id, subject, issuedAtSeconds, scratch);
+        } finally {
+            SCRATCH.release(scratch);
+        }
+    }
+
+    private String encode(int id, String subject, long issuedAtSeconds, Scratch scratch) {
+
+        // 1. the claims JSON
+        // worst case: every subject char escaped as backslash-u plus 4 hex digits
+        int maxJson = JTI_PREFIX.length + 11 + SUB_PREFIX.length + subject.length() * 6
+            + this.issuerAndIatPrefix.length + 20 + 1;
+        byte[] json = scratch.json(maxJson);
+        int n = put(JTI_PREFIX, json, 0);
+        n = putLong(id, json, n);
+        n = put(SUB_PREFIX, json, n);
+        n = putEscaped(subject, json, n);
+        n = put(this.issuerAndIatPrefix, json, n);
+        n = putLong(issuedAtSeconds, json, n);
+        json[n++] = '}';
+
+        // 2. header.payload, written straight into the token buffer and signed in place
+        byte[] token = scratch.token(this.headerSegmentBytes.length + encodedLength(n) + 1 + ENCODED_SIGNATURE_LENGTH);
+        int t = put(this.headerSegmentBytes, token, 0);
+        t = encode(json, 0, n, token, t);
+
+        sign(token, t, scratch.signature);
+
+        // 3. .signature
+        token[t++] = '.';
+        t = encode(scratch.signature, 0, SIGNATURE_LENGTH, token, t);
+
+        return new String(token, 0, t, StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Verifies the signature and time claims of a token and returns its claims.
+     *
+     * @param token
+     *        the compact serialized JWT
+     * @param nowSeconds
+     *        the current time, in epoch seconds
+     * @return the claims of the token
+     * @throws IllegalArgumentException
+     *         if the token is malformed, badly signed, expired or not yet valid
+     */
+    public Claims decode(String token, long nowSeconds) {
+
+        int headerLength = this.headerSegment.length();
+        if (!isIssuerOf(token)) {
+            // signed with our key by another encoder (jjwt orders header members differently)
+            if (!Objects.equals(readKeyId(token), this.keyId)) {
+                throw new IllegalArgumentException("JWT was signed with a different key");
+            }
+            headerLength = token.indexOf('.') + 1;
+        }
+
+        int signatureDot = token.lastIndexOf('.');
+        if (signatureDot < headerLength || token.indexOf('.', headerLength) != signatureDot
+            || token.length() - signatureDot - 1 != ENCODED_SIGNATURE_LENGTH) {
+            throw new IllegalArgumentException("Malformed JWT or unsupported JWT header");
+        }
+
+        Scratch scratch = SCRATCH.acquire();
+        try {
+            return verify(token, headerLength, signatureDot, nowSeconds, scratch);
+        } finally {
+            SCRATCH.release(scratch);
+        }
+    }
+
+    private Claims verify(String token, int headerLength, int signatureDot, long nowSeconds, Scratch scratch) {
+
+        // 1. recompute the signature over header.payload
+        byte[] signed = scratch.token(signatureDot);
+        for (int i = 0; i < signatureDot; i++) {
+            char c = token.charAt(i);
+            if (c >= 128) {
+                throw new IllegalArgumentException("JWT contains non-ASCII characters");
+            }
+            signed[i] = (byte) c;
+        }
+        sign(signed, signatureDot, scratch.signature);
+
+        // 2. compare it, in constant time, with the one sent
+        decode(token, signatureDot + 1, token.length(), scratch.presented, 0);
+        int diff = 0;
+        for (int i = 0; i < SIGNATURE_LENGTH; i++) {
+            diff |= scratch.signature[i] ^ scratch.presented[i];
+        }
+        if (diff != 0) {
+            throw new IllegalArgumentException("JWT signature does not match");
+        }
+
+        // 3. only now is the payload worth reading
+        int payloadLength = signatureDot - headerLength;
+        byte[] json = scratch.json(payloadLength);
+        int n = decode(token, headerLength, signatureDot, json, 0);
+        Claims claims = new Claims();
+        parseObject(json, n, claims, null);
+
+        if (claims.expiration != Claims.ABSENT && nowSeconds >= claims.expiration) {
+            throw new IllegalArgumentException("JWT expired");
+        }
+        if (claims.notBefore != Claims.ABSENT && nowSeconds < claims.notBefore) {
+            throw new IllegalArgumentException("JWT not yet valid");
+        }
+        return claims;
+    }
+
+    /**
+     * The registered claims the API reads back from its tokens. Time claims are
+     * in epoch seconds and equal {@link #ABSENT} when missing.
+     */
+    public static final class Claims {
+
+        public static final long ABSENT = Long.MIN_VALUE;
+
+        private String id;
+        private String subject;
+        private long issuedAt = ABSENT;
+        private long expiration = ABSENT;
+        private long notBefore = ABSENT;
+
+        public String getId() {
+            return this.id;
+        }
+
+        public String getSubject() {
+            return this.subject;
+        }
+
+        public long getIssuedAt() {
+            return this.issuedAt;
+        }
+
+        public long getExpiration() {
+            return this.expiration;
+        }
+
+    }
+
+    private static final class Header {
+
+        private String algorithm;
+        private String keyId;
+
+    }
+
+    // ---- JSON ----
+
+    /*
+     * A minimal reader for the flat header and claims objects we issue: string,
+     * number, boolean and null members are accepted and unknown members skipped.
+     * Nested objects and arrays are rejected. Claims are only read once the
+     * signature has been checked, so they never come from another issuer.
+     */
+    private static void parseObject(byte[] json, int length, Claims claims, Header header) {
+
+        int[] pos = { skipWhitespace(json, 0, length) };
+        expect(json, length, pos, '{');
+
+        pos[0] = skipWhitespace(json, pos[0], length);
+        if (pos[0] < length && json[pos[0]] == '}') {
+            return;
+        }
+
+        while (true) {
+            pos[0] = skipWhitespace(json, pos[0], length);
+            expect(json, length, pos, '"');
+            int keyStart = pos[0];
+            int keyEnd = endOfString(json, keyStart, length);
+            pos[0] = skipWhitespace(json, keyEnd + 1, length);
+            expect(json, length, pos, ':');
+            pos[0] = skipWhitespace(json, pos[0], length);
+            if (pos[0] >= length) {
+                throw new IllegalArgumentException("Truncated JWT claims");
+            }
+
+            byte first = json[pos[0]];
+            if (first == '"') {
+                int valueStart = pos[0] + 1;
+                int valueEnd = endOfString(json, valueStart, length);
+                if (claims != null && regionEquals(json, keyStart, keyEnd, KEY_JTI)) {
+                    claims.id = readString(json, valueStart, valueEnd);
+                } else if (claims != null && regionEquals(json, keyStart, keyEnd, KEY_SUB)) {
+                    claims.subject = readString(json, valueStart, valueEnd);
+                } else if (header != null && regionEquals(json, keyStart, keyEnd, KEY_ALG)) {
+                    header.algorithm = readString(json, valueStart, valueEnd);
+                } else if (header != null && regionEquals(json, keyStart, keyEnd, KEY_KID)) {
+                    header.keyId = readString(json, valueStart, valueEnd);
+                }
+                pos[0] = valueEnd + 1;
+            } else if (first == '-' || (first >= '0' && first <= '9')) {
+                int valueEnd = pos[0] + 1;
+                while (valueEnd < length && isNumberChar(json[valueEnd])) {
+                    valueEnd++;
+                }
+                if (claims != null && regionEquals(json, keyStart, keyEnd, KEY_EXP)) {
+                    claims.expiration = readLong(json, pos[0], valueEnd);
+                } else if (claims != null && regionEquals(json, keyStart, keyEnd, KEY_IAT)) {
+                    claims.issuedAt = readLong(json, pos[0], valueEnd);
+                } else if (claims != null && regionEquals(json, keyStart, keyEnd, KEY_NBF)) {
+                    claims.notBefore = readLong(json, pos[0], valueEnd);
+                }
+                pos[0] = valueEnd;
+            } else if (first == 't' || first == 'f' || first == 'n') {
+                while (pos[0] < length && json[pos[0]] >= 'a' && json[pos[0]] <= 'z') {
+                    pos[0]++;
+                }
+            } else {
+                throw new IllegalArgumentException("Unsupported JWT member value");
+            }
+
+            pos[0] = skipWhitespace(json, pos[0], length);
+            if (pos[0] < length && json[pos[0]] == ',') {
+                pos[0]++;
+                continue;
+            }
+            expect(json, length, pos, '}');
+            return;
+        }
+    }
+
+    private static void expect(byte[] json, int length, int[] pos, char c) {
+        if (pos[0] >= length || json[pos[0]] != c) {
+            throw new IllegalArgumentException("Malformed JWT claims");
+        }
+        pos[0]++;
+    }
+
+    private static int skipWhitespace(byte[] json, int i, int length) {
+        while (i < length && (json[i] == ' ' || json[i] == '\t' || json[i] == '\n' || json[i] == '\r')) {
+            i++;
+        }
+        return i;
+    }
+
+    // returns the index of the closing quote of a string starting at start
+    private static int endOfString(byte[] json, int start, int length) {
+        for (int i = start; i < length; i++) {
+            if (json[i] == '\\') {
+                i++;
+            } else if (json[i] == '"') {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Unterminated JWT claim string");
+    }
+
+    private static boolean isNumberChar(byte b) {
+        return (b >= '0' && b <= '9') || b == '-' || b == '+' || b == '.' || b == 'e' || b == 'E';
+    }
+
+    private static long readLong(byte[] json, int start, int end) {
+        boolean negative = json[start] == '-';
+        long value = 0;
+        for (int i = negative ? start + 1 : start; i < end; i++) {
+            byte b = json[i];
+            if (b < '0' || b > '9') {
+                // fractional or exponent values are truncated, like jjwt does for dates
+                return (long) Double.parseDouble(new String(json, start, end - start, StandardCharsets.US_ASCII));
+            }
+            value = value * 10 + (b - '0');
+        }
+        return negative ? -value : value;
+    }
+
+    private static String readString(byte[] json, int start, int end) {
+
+        int firstEscape = -1;
+        for (int i = start; i < end; i++) {
+            if (json[i] == '\\') {
+                firstEscape = i;
+                break;
+            }
+        }
+        if (firstEscape < 0) {
+            return new String(json, start, end - start, StandardCharsets.UTF_8);
+        }
+
+        // slow path, only for subjects that needed escaping when issued
+        StringBuilder sb = new StringBuilder(end - start);
+        int runStart = start;
+        for (int i = firstEscape; i < end; i++) {
+            if (json[i] != '\\') {
+                continue;
+            }
+            sb.append(new String(json, runStart, i - runStart, StandardCharsets.UTF_8));
+            byte escaped = json[++i];
+            switch (escaped) {
+                case 'b':
+                    sb.append('\b');
+                    break;
+                case 'f':
+                    sb.append('\f');
+                    break;
+                case 'n':
+                    sb.append('\n');
+                    break;
+                case 'r':
+                    sb.append('\r');
+                    break;
+                case 't':
+                    sb.append('\t');
+                    break;
+                case 'u':
+                    sb.append((char) Integer.parseInt(new String(json, i + 1, 4, StandardCharsets.US_ASCII), 16));
+                    i += 4;
+                    break;
+                default: // " \ /
+                    sb.append((char) escaped);
+            }
+            runStart = i + 1;
+        }
+        sb.append(new String(json, runStart, end - runStart, StandardCharsets.UTF_8));
+        return sb.toString();
+    }
+
+    private static boolean regionEquals(byte[] json, int start, int end, byte[] expected) {
+        if (end - start != expected.length) {
+            return false;
+        }
+        for (int i = 0; i < expected.length; i++) {
+            if (json[start + i] != expected[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int put(byte[] src, byte[] dst, int pos) {
+        System.arraycopy(src, 0, dst, pos, src.length);
+        return pos + src.length;
+    }
+
+    private static int putLong(long value, byte[] dst, int pos) {
+        if (value == 0) {
+            dst[pos] = '0';
+            return pos + 1;
+        }
+        if (value < 0) {
+            dst[pos++] = '-';
+            value = -value;
+        }
+        int digits = 0;
+        for (long v = value; v > 0; v /= 10) {
+            digits++;
+        }
+        for (int i = pos + digits - 1; i >= pos; i--) {
+            dst[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        return pos + digits;
+    }
+
+    // writes s as the UTF-8 content of a JSON string, escaping like Jackson does
+    private static int putEscaped(String s, byte[] dst, int pos) {
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '"' || c == '\\') {
+                dst[pos++] = '\\';
+                dst[pos++] = (byte) c;
+            } else if (c < 0x20) {
+                dst[pos++] = '\\';
+                dst[pos++] = 'u';
+                dst[pos++] = '0';
+                dst[pos++] = '0';
+                dst[pos++] = HEX[c >> 4];
+                dst[pos++] = HEX[c & 0xF];
+            } else if (c < 0x80) {
+                dst[pos++] = (byte) c;
+            } else if (c < 0x800) {
+                dst[pos++] = (byte) (0xC0 | (c >> 6));
+                dst[pos++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < s.length()
+                && Character.isLowSurrogate(s.charAt(i + 1))) {
+                int cp = Character.toCodePoint(c, s.charAt(++i));
+                dst[pos++] = (byte) (0xF0 | (cp >> 18));
+                dst[pos++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+                dst[pos++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+                dst[pos++] = (byte) (0x80 | (cp & 0x3F));
+            } else {
+                dst[pos++] = (byte) (0xE0 | (c >> 12));
+                dst[pos++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                dst[pos++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        return pos;
+    }
+
+    private static byte[] escapeJson(String s) {
+        byte[] buffer = new byte[s.length() * 6];
+        return Arrays.copyOf(buffer, putEscaped(s, buffer, 0));
+    }
+
+    // ---- Base64URL (no padding) ----
+
+    private static int encodedLength(int length) {
+        return (length * 4 + 2) / 3;
+    }
+
+    private static int encode(byte[] src, int offset, int length, byte[] dst, int pos) {
+        int end = offset + length;
+        int i = offset;
+        for (; i + 2 < end; i += 3) {
+            int bits = (src[i] & 0xFF) << 16 | (src[i + 1] & 0xFF) << 8 | (src[i + 2] & 0xFF);
+            dst[pos++] = BASE64URL[(bits >>> 18) & 0x3F];
+            dst[pos++] = BASE64URL[(bits >>> 12) & 0x3F];
+            dst[pos++] = BASE64URL[(bits >>> 6) & 0x3F];
+            dst[pos++] = BASE64URL[bits & 0x3F];
+        }
+        int remaining = end - i;
+        if (remaining == 1) {
+            int bits = (src[i] & 0xFF) << 16;
+            dst[pos++] = BASE64URL[(bits >>> 18) & 0x3F];
+            dst[pos++] = BASE64URL[(bits >>> 12) & 0x3F];
+        } else if (remaining == 2) {
+            int bits = (src[i] & 0xFF) << 16 | (src[i + 1] & 0xFF) << 8;
+            dst[pos++] = BASE64URL[(bits >>> 18) & 0x3F];
+            dst[pos++] = BASE64URL[(bits >>> 12) & 0x3F];
+            dst[pos++] = BASE64URL[(bits >>> 6) & 0x3F];
+        }
+        return pos;
+    }
+
+    private static int decode(String src, int start, int end, byte[] dst, int pos) {
+        int bits = 0;
+        int bitCount = 0;
+        for (int i = start; i < end; i++) {
+            char c = src.charAt(i);
+            int value = c < 128 ? BASE64URL_DECODE[c] : -1;
+            if (value < 0) {
+                throw new IllegalArgumentException("Invalid Base64URL character in JWT");
+            }
+            bits = (bits << 6) | value;
+            bitCount += 6;
+            if (bitCount >= 8) {
+                bitCount -= 8;
+                dst[pos++] = (byte) (bits >> bitCount);
+            }
+        }
+        return pos;
+    }
+
+    // ---- plumbing ----
+
+    private static Mac newMac(Key key) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_SHA256);
+            mac.init(key);
+            return mac;
+        } catch (NoSuchAlgorithmException | InvalidKeyException e) {
+            throw new IllegalStateException("Unable to initialize HMAC-SHA256 with the configured key", e);
+        }
+    }
+
+    private void sign(byte[] data, int length, byte[] out) {
+        Mac hmac = this.mac.acquire();
+        try {
+            hmac.update(data, 0, length);
+            hmac.doFinal(out, 0);
+        } catch (ShortBufferException e) {
+            throw new IllegalStateException(e);
+        } finally {
+            this.mac.release(hmac);
+        }
+    }
+
+    private static byte[] ascii(String s) {
+        return s.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static byte[] concat(byte[]... parts) {
+        int length = 0;
+        for (byte[] part : parts) {
+            length += part.length;
+        }
+        byte[] result = new byte[length];
+        int pos = 0;
+        for (byte[] part : parts) {
+            pos = put(part, result, pos);
+        }
+        return result;
+    }
+
+    /**
+     * Buffers for one token at a time, grown on demand and reused across tokens.
+     */
+    private static final class Scratch {
+
+        private byte[] json = new byte[256];
+        private byte[] token = new byte[512];
+        private final byte[] signature = new byte[SIGNATURE_LENGTH];
+        private final byte[] presented = new byte[SIGNATURE_LENGTH];
+
+        byte[] json(int capacity) {
+            if (this.json.length < capacity) {
+                this.json = new byte[Math.max(capacity, this.json.length * 2)];
+            }
+            return this.json;
+        }
+
+        byte[] token(int capacity) {
+            if (this.token.length < capacity) {
+                this.token = new byte[Math.max(capacity, this.token.length * 2)];
+            }
+            return this.token;
+        }
+
+    }
+
+}
@@ -3,57 +3,126 @@ package com.revature.util;
 // this class is responsible for managing JWT tokens
 // there will be errors in this until the auth exception
 // and user models are created
-import java.security.Key;
-import java.util.Date;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import com.revature.exceptions.AuthenticationException;
 import com.revature.models.User;
 
-import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
-import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 
 
 @Component // we decalre is as a Spring Bean (object managed by the Spring IoC container)
-public class JwtTokenManager {
+public class JwtTokenManager implements MeterBinder {
+
+    // the source that generated the token
+    static final String ISSUER = "Rolodex API";
 
-    private final Key key; // from java.security
     private final Logger logger = LoggerFactory.getLogger(JwtTokenManager.class);
 
-    public JwtTokenManager() {
+    // the keys shared by every instance, each with a codec that issues and verifies
+    // tokens without the jjwt builder/parser allocations
+    private final SigningKeyRing keyRing;
+
+    /*
+     * Tokens that already passed signature verification, keyed by a SHA-256 digest
+     * of the token so raw bearer tokens are never kept on the heap. Each entry
+     * lives until the token's own expiry or the configured TTL, whichever comes
+     * first.
+     */
+    private final Cache<String, VerifiedToken> verifiedTokens;
+    private final long cacheTtlMillis;
+
+    private static final Recycler<MessageDigest> SHA_256 = new Recycler<>(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available on this JVM", e);
+        }
+    });
+
+    @Autowired
+    public JwtTokenManager(SigningKeyRing keyRing, @Value("${jwt.cache.max-size:10000}") long cacheMaxSize,
+        @Value("${jwt.cache.ttl-seconds:300}") long cacheTtlSeconds) {
         // what is a key?
-        // a set of public keys used to verify a token and have it be parsed by our
-        // server
-        this.key = Keys.secretKeyFor(SignatureAlgorithm.HS256);
+        // a set of secret keys used to sign a token and verify it when it is parsed
+        // by our server (see SigningKeyRing)
+        this.keyRing = keyRing;
+        this.cacheTtlMillis = TimeUnit.SECONDS.toMillis(cacheTtlSeconds);
+        this.verifiedTokens = Caffeine.newBuilder()
+            .maximumSize(cacheMaxSize)
+            .expireAfter(new UntilTokenExpiry())
+            .recordStats()
+            .build();
     }
 
     // this builds the payload which is encrypted info about the user we're
     // authenticating
     public String issueToken(User user) {
-        return Jwts.builder() // io.jsonwebtoken
-            // payload
-            .setId(String.valueOf(user.getId()))
-            .setSubject(user.getUsername())
-            .setIssuer("Rolodex API") // the source that generated the token
-            .setIssuedAt(new Date(System.currentTimeMillis()))
-            .signWith(this.key)
-            .compact();
+        // payload: jti = user id, sub = username, iss, iat
+        return this.keyRing.signingCodec().encode(user.getId(), user.getUsername(), System.currentTimeMillis() / 1000);
     }
 
     public int parseUserIdFromToken(String token) {
+        return verify(token).getUserId();
+    }
+
+    /**
+     * Verifies a token, answering from the verified-token cache when the same
+     * token was already checked recently.
+     *
+     * @param token
+     *        the compact JWT sent by the client
+     * @return the verified token details
+     * @throws AuthenticationException
+     *         if the token is missing, malformed, expired or badly signed
+     */
+    public VerifiedToken verify(String token) {
+
+        if (token == null || token.isEmpty()) {
+            throw new AuthenticationException("Missing JWT. Please sign in again");
+        }
+
+        String digest = digest(token);
+        VerifiedToken cached = this.verifiedTokens.getIfPresent(digest);
+        // a cached token is only good while the key that signed it is still accepted
+        if (cached != null && this.keyRing.accepts(cached.getKeyId())) {
+            return cached;
+        }
+
+        VerifiedToken verified = parseAndVerify(token);
+        this.verifiedTokens.put(digest, verified);
+        return verified;
+    }
+
+    private VerifiedToken parseAndVerify(String token) {
 
         try {
-            return Integer.parseInt(Jwts.parserBuilder()
-                .setSigningKey(this.key)
-                .build()
-                // this is the way in which we can READ user data from a token
-                .parseClaimsJws(token)
-                .getBody()
-                .getId());
+            // this is the way in which we can READ user data from a token
+            long now = System.currentTimeMillis();
+            Hs256JwtCodec codec = this.keyRing.verifyingCodec(token);
+            Hs256JwtCodec.Claims claims = codec.decode(token, now / 1000);
+
+            long expiresAt = now + this.cacheTtlMillis;
+            if (claims.getExpiration() != Hs256JwtCodec.Claims.ABSENT) {
+                expiresAt = Math.min(expiresAt, TimeUnit.SECONDS.toMillis(claims.getExpiration()));
+            }
+            return new VerifiedToken(Integer.parseInt(claims.getId()), claims.getSubject(), codec.getKeyId(),
+                expiresAt);
 
         } catch (Exception e) {
             this.logger.warn("JWT error parsing user id from token");
@@ -61,4 +130,45 @@ public class JwtTokenManager {
         }
     }
 
+    private static String digest(String token) {
+        MessageDigest sha256 = SHA_256.acquire();
+        try {
+            return Base64.getEncoder().encodeToString(sha256.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } finally {
+            SHA_256.release(sha256);
+        }
+    }
+
+    /**
+     * Publishes the verified-token cache statistics (hits, misses, evictions,
+     * size) under <code>cache.*{cache=jwt.verified-tokens}</code>.
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, this.verifiedTokens, "jwt.verified-tokens");
+    }
+
+    /**
+     * Expires each cache entry exactly when its <code>VerifiedToken</code> stops
+     * being valid.
+     */
+    private static class UntilTokenExpiry implements Expiry<String, VerifiedToken> {
+
+        @Override
+        public long expireAfterCreate(String key, VerifiedToken value, long currentTime) {
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, value.getExpiresAt() - System.currentTimeMillis()));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, VerifiedToken value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, VerifiedToken value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+    }
+
 }
@@ -0,0 +1,199 @@
+package com.revature.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.revature.dto.CharacterScore;
+import com.revature.dto.RankedCharacter;
+
+
+/**
+ * Characters ranked by level, then experience (ties go to the lower id), kept
+ * sorted as scores change rather than sorted per request.
+ *
+ * The characters are held in a treap, a binary search tree balanced by random
+ * priorities, whose nodes also count their subtree. A rank is the counts of the
+ * subtrees to the left along one path from the root, and a range skips whole
+ * subtrees the same way to reach its first rank, so both take logarithmic time
+ * however many characters share a level; most of them sit at the first levels,
+ * often with the same experience.
+ *
+ * Nodes are never modified: a write copies the path it changes and publishes a
+ * new root. Reads never lock and each sees the whole board as of one write;
+ * writes are serialized.
+ */
+public class Leaderboard {
+
+    private static final Comparator<CharacterScore> ORDER = Comparator
+        .comparingInt(CharacterScore::getLevel).reversed()
+        .thenComparing(Comparator.comparingInt(CharacterScore::getExperience).reversed())
+        .thenComparingInt(CharacterScore::getId);
+
+    private volatile Node root;
+    private final Map<Integer, CharacterScore> byId = new ConcurrentHashMap<>();
+
+    /**
+     * Adds a character, or moves it to its new place.
+     */
+    public synchronized void put(CharacterScore score) {
+        Node tree = this.root;
+        CharacterScore old = this.byId.put(score.getId(), score);
+        if (old != null) {
+            tree = without(tree, old);
+        }
+        Node[] split = split(tree, score, false);
+        this.root = merge(merge(split[0], new Node(score, null, null)), split[1]);
+    }
+
+    public synchronized void remove(int id) {
+        CharacterScore old = this.byId.remove(id);
+        if (old != null) {
+            this.root = without(this.root, old);
+        }
+    }
+
+    public CharacterScore get(int id) {
+        return this.byId.get(id);
+    }
+
+    public int size() {
+        return this.byId.size();
+    }
+
+    /**
+     * @return the character's place, or <code>null</code> if it is not on this
+     *         board
+     */
+    public RankedCharacter rankOf(int id) {
+        CharacterScore score = this.byId.get(id);
+        if (score == null) {
+            return null;
+        }
+        long ahead = 0;
+        for (Node n = this.root; n != null;) {
+            if (ORDER.compare(score, n.score) <= 0) {
+                n = n.left;
+            } else {
+                ahead += size(n.left) + 1;
+                n = n.right;
+            }
+        }
+        return RankedCharacter.of(ahead + 1, score);
+    }
+
+    /**
+     * @return up to <code>count</code> characters, from rank
+     *         <code>fromRank</code> (1 is the top) down
+     */
+    public List<RankedCharacter> range(long fromRank, int count) {
+        if (count <= 0) {
+            return Collections.emptyList();
+        }
+        List<CharacterScore> scores = new ArrayList<>(Math.min(count, 128));
+        collect(this.root, Math.max(0, fromRank - 1), count, scores);
+        List<RankedCharacter> result = new ArrayList<>(scores.size());
+        long rank = Math.max(1, fromRank);
+        for (CharacterScore s : scores) {
+            result.add(RankedCharacter.of(rank++, s));
+        }
+        return result;
+    }
+
+    // in order, from the skip-th score of the subtree on, skipping subtrees by their counts
+    private static void collect(Node n, long skip, int count, List<CharacterScore> out) {
+        if (n == null || out.size() >= count) {
+            return;
+        }
+        long leftSize = size(n.left);
+        if (skip < leftSize) {
+            collect(n.left, skip, count, out);
+        }
+        if (skip <= leftSize && out.size() < count) {
+            out.add(n.score);
+        }
+        collect(n.right, Math.max(0, skip - leftSize - 1), count, out);
+    }
+
+    private static Node without(Node tree, CharacterScore score) {
+        Node[] below = split(tree, score, false);
+        Node[] rest = split(below[1], score, true);
+        return merge(below[0], rest[1]);
+    }
+
+    /**
+     * @return the scores before <code>score</code> (up to and including it if
+     *         <code>inclusive</code>), and the rest, as two new trees
+     */
+    private static Node[] split(Node n, CharacterScore score, boolean inclusive) {
+        if (n == null) {
+            return new Node[2];
+        }
+        int c = ORDER.compare(n.score, score);
+        if (c < 0 || (inclusive && c == 0)) {
+            Node[] right = split(n.right, score, inclusive);
+            return new Node[] { n.with(n.left, right[0]), right[1] };
+        }
+        Node[] left = split(n.left, score, inclusive);
+        return new Node[] { left[0], n.with(left[1], n.right) };
+    }
+
+    // every score in a comes before every score in b
+    private static Node merge(Node a, Node b) {
+        if (a == null) {
+            return b;
+        }
+        if (b == null) {
+            return a;
+        }
+        if (a.priority >= b.priority) {
+            return a.with(a.left, merge(a.right, b));
+        }
+        return b.with(merge(a, b.left), b.right);
+    }
+
+    private static int size(Node n) {
+        return n == null ? 0 : n.size;
+    }
+
+    private static final class Node {
+
+        private final CharacterScore score;
+        private final int priority;
+        private final Node left;
+        private final Node right;
+        private final int size;
+
+        Node(CharacterScore score, Node left, Node right) {
+            this(score, priority(score.getId()), left, right);
+        }
+
+        private Node(CharacterScore score, int priority, Node left, Node right) {
+            this.score = score;
+            this.priority = priority;
+            this.left = left;
+            this.right = right;
+            this.size = size(left) + size(right) + 1;
+        }
+
+        Node with(Node left, Node right) {
+            return new Node(this.score, this.priority, left, right);
+        }
+
+        // the id scrambled (MurmurHash3's finalizer), as random as the balance needs and repeatable
+        private static int priority(int id) {
+            int h = id;
+            h ^= h >>> 16;
+            h *= 0x85ebca6b;
+            h ^= h >>> 13;
+            h *= 0xc2b2ae35;
+            h ^= h >>> 16;
+            return h;
+        }
+
+    }
+
+}
@@ -0,0 +1,138 @@
+package com.revature.util;
+
+import java.time.Clock;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+
+/**
+ * Counts failed logins per key (a username or a client IP) and locks a key out
+ * for a while once it has failed too often within a window.
+ *
+ * The counters live in memory, split over a fixed number of stripes, each a
+ * small LRU map guarded by its own lock, so concurrent logins for different
+ * keys rarely contend and a flood of random usernames can only evict old
+ * entries rather than grow the heap.
+ */
+@Component
+public class LoginThrottle {
+
+    private static final int STRIPES = 32;
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+    private final int maxFailures;
+    private final long windowMillis;
+    private final long lockoutMillis;
+    private final Clock clock;
+
+    @Autowired
+    public LoginThrottle(@Value("${auth.throttle.max-failures:5}") int maxFailures,
+        @Value("${auth.throttle.window-seconds:300}") long windowSeconds,
+        @Value("${auth.throttle.lockout-seconds:300}") long lockoutSeconds,
+        @Value("${auth.throttle.max-keys:100000}") int maxKeys) {
+
+        this(maxFailures, windowSeconds, lockoutSeconds, maxKeys, Clock.systemUTC());
+    }
+
+    LoginThrottle(int maxFailures, long windowSeconds, long lockoutSeconds, int maxKeys, Clock clock) {
+        this.maxFailures = maxFailures;
+        this.windowMillis = windowSeconds * 1000;
+        this.lockoutMillis = lockoutSeconds * 1000;
+        this.clock = clock;
+        for (int i = 0; i < STRIPES; i++) {
+            this.stripes[i] = new Stripe(Math.max(1, maxKeys / STRIPES));
+        }
+    }
+
+    /**
+     * @return how many seconds <code>key</code> is still locked out for, or 0 if
+     *         it may attempt a login
+     */
+    public long retryAfterSeconds(String key) {
+
+        long now = this.clock.millis();
+        Stripe stripe = stripeFor(key);
+        stripe.lock.lock();
+        try {
+            Failures failures = stripe.entries.get(key);
+            if (failures == null || failures.lockedUntil <= now) {
+                return 0;
+            }
+            return (failures.lockedUntil - now + 999) / 1000;
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    public void recordFailure(String key) {
+
+        long now = this.clock.millis();
+        Stripe stripe = stripeFor(key);
+        stripe.lock.lock();
+        try {
+            Failures failures = stripe.entries.get(key);
+            if (failures == null || now - failures.windowStart >= this.windowMillis) {
+                failures = new Failures(now);
+                stripe.entries.put(key, failures);
+            }
+            if (++failures.count >= this.maxFailures) {
+                failures.lockedUntil = now + this.lockoutMillis;
+            }
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    public void recordSuccess(String key) {
+
+        Stripe stripe = stripeFor(key);
+        stripe.lock.lock();
+        try {
+            stripe.entries.remove(key);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    private Stripe stripeFor(String key) {
+        int h = key.hashCode();
+        return this.stripes[(h ^ (h >>> 16)) & (STRIPES - 1)];
+    }
+
+    private static final class Stripe {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Map<String, Failures> entries;
+
+        Stripe(int maxEntries) {
+            this.entries = new LinkedHashMap<String, Failures>(16, 0.75f, true) {
+
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Failures> eldest) {
+                    return size() > maxEntries;
+                }
+            };
+        }
+
+    }
+
+    private static final class Failures {
+
+        private final long windowStart;
+        private int count;
+        private long lockedUntil;
+
+        Failures(long windowStart) {
+            this.windowStart = windowStart;
+        }
+
+    }
+
+}
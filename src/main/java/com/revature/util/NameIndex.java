@@ -0,0 +1,289 @@
+package com.revature.util;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+
+import com.revature.dto.SearchHit;
+
+
+/**
+ * An in-memory autocomplete index over names, for searching as the user types.
+ *
+ * Names are compared case- and accent-insensitively, and a query matches a name
+ * if it is a prefix of the name or of any word in it ("sky" finds "Luke
+ * Skywalker"). These keys (the name from each word start on) are kept in a
+ * skip list, so prefix matches are a range scan. If those do not fill the
+ * result, names within a few typos of the query are added: candidates share
+ * enough trigrams with the query, at about the same positions, and are checked
+ * with an edit distance that counts swapped letters as one typo. Queries of up to 3 characters allow no typos,
+ * up to 6 one, longer ones two.
+ *
+ * Reads never lock; writes are serialized and become visible key by key.
+ */
+public class NameIndex {
+
+    public static final int MAX_LIMIT = 50;
+
+    // trigrams are only taken from this many leading characters of each key;
+    // queries longer than this fall back to prefix matching
+    private static final int TRIGRAM_SPAN = 24;
+    private static final char PAD = '\u0000';
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Comparator<String> SHORTEST_FIRST = Comparator.comparingInt(String::length)
+        .thenComparing(Comparator.naturalOrder());
+
+    private final Map<Integer, String> names = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<String, Set<Integer>> keys = new ConcurrentSkipListMap<>();
+    private final Map<String, Set<String>> trigrams = new ConcurrentHashMap<>();
+
+    /**
+     * Adds a name, replacing the one <code>id</code> had.
+     */
+    public synchronized void put(int id, String name) {
+        remove(id);
+        if (name == null) {
+            return;
+        }
+        this.names.put(id, name);
+        for (String key : keysOf(normalize(name))) {
+            Set<Integer> ids = this.keys.get(key);
+            if (ids == null) {
+                ids = ConcurrentHashMap.newKeySet();
+                this.keys.put(key, ids);
+                for (String trigram : trigramsOf(key)) {
+                    this.trigrams.computeIfAbsent(trigram, t -> ConcurrentHashMap.newKeySet()).add(key);
+                }
+            }
+            ids.add(id);
+        }
+    }
+
+    public synchronized void remove(int id) {
+        String old = this.names.remove(id);
+        if (old == null) {
+            return;
+        }
+        for (String key : keysOf(normalize(old))) {
+            Set<Integer> ids = this.keys.get(key);
+            if (ids != null && ids.remove(id) && ids.isEmpty()) {
+                this.keys.remove(key);
+                for (String trigram : trigramsOf(key)) {
+                    Set<String> posting = this.trigrams.get(trigram);
+                    if (posting != null && posting.remove(key) && posting.isEmpty()) {
+                        this.trigrams.remove(trigram);
+                    }
+                }
+            }
+        }
+    }
+
+    public int size() {
+        return this.names.size();
+    }
+
+    /**
+     * @return up to <code>limit</code> (at most {@value #MAX_LIMIT}) names
+     *         matching <code>query</code>: prefix matches in alphabetical order
+     *         first (shorter names first where they match at the same word),
+     *         then names within the allowed typos, closest and shortest first
+     */
+    public List<SearchHit> search(String query, int limit) {
+
+        String q = normalize(query);
+        int max = Math.max(1, Math.min(limit, MAX_LIMIT));
+        Map<Integer, Integer> found = new LinkedHashMap<>();
+        if (q.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        for (Set<Integer> ids : this.keys.subMap(q, true, q + Character.MAX_VALUE, false).values()) {
+            List<Integer> sameKey = new ArrayList<>(ids);
+            sameKey.sort(Comparator.comparing(id -> this.names.getOrDefault(id, ""), SHORTEST_FIRST));
+            for (Integer id : sameKey) {
+                found.putIfAbsent(id, 0);
+            }
+            if (found.size() >= max) {
+                break;
+            }
+        }
+
+        int typos = q.length() <= 3 ? 0 : q.length() <= 6 ? 1 : 2;
+        if (found.size() < max && typos > 0 && q.length() <= TRIGRAM_SPAN) {
+            addFuzzy(q, typos, found);
+        }
+
+        List<SearchHit> hits = new ArrayList<>(Math.min(found.size(), max));
+        for (Map.Entry<Integer, Integer> e : found.entrySet()) {
+            String name = this.names.get(e.getKey());
+            if (name != null) {
+                hits.add(new SearchHit(e.getKey(), name));
+                if (hits.size() == max) {
+                    break;
+                }
+            }
+        }
+        return hits;
+    }
+
+    private void addFuzzy(String q, int typos, Map<Integer, Integer> found) {
+
+        // each typo changes at most 3 of the query's trigrams, and shifts the
+        // others by at most one position
+        List<String> wanted = trigramsOf(q);
+        int minShared = Math.max(1, wanted.size() - 3 * typos);
+        List<List<Set<String>>> groups = new ArrayList<>(wanted.size());
+        for (int i = 0; i < wanted.size(); i++) {
+            String trigram = wanted.get(i).substring(0, 3);
+            List<Set<String>> group = new ArrayList<>(2 * typos + 1);
+            for (int at = Math.max(0, i - typos); at <= i + typos && at < TRIGRAM_SPAN; at++) {
+                Set<String> posting = this.trigrams.get(trigram + (char) at);
+                if (posting != null) {
+                    group.add(posting);
+                }
+            }
+            groups.add(group);
+        }
+        // a key in none of the smallest (size - minShared + 1) groups shares too few
+        // trigrams, so only those are scanned; the larger ones are only probed
+        groups.sort(Comparator.comparingInt(NameIndex::size));
+        int scanned = groups.size() - minShared + 1;
+        Map<String, int[]> shared = new HashMap<>();
+        for (List<Set<String>> group : groups.subList(0, scanned)) {
+            for (Set<String> posting : group) {
+                for (String key : posting) {
+                    shared.computeIfAbsent(key, k -> new int[1])[0]++;
+                }
+            }
+        }
+        for (List<Set<String>> group : groups.subList(scanned, groups.size())) {
+            for (Map.Entry<String, int[]> e : shared.entrySet()) {
+                for (Set<String> posting : group) {
+                    if (posting.contains(e.getKey())) {
+                        e.getValue()[0]++;
+                        break;
+                    }
+                }
+            }
+        }
+
+        Map<Integer, Integer> fuzzy = new HashMap<>();
+        for (Map.Entry<String, int[]> e : shared.entrySet()) {
+            if (e.getValue()[0] < minShared) {
+                continue;
+            }
+            int distance = prefixDistance(q, e.getKey(), typos);
+            if (distance <= typos) {
+                Set<Integer> ids = this.keys.get(e.getKey());
+                if (ids != null) {
+                    for (Integer id : ids) {
+                        fuzzy.merge(id, distance, Math::min);
+                    }
+                }
+            }
+        }
+
+        List<Map.Entry<Integer, Integer>> ranked = new ArrayList<>(fuzzy.entrySet());
+        ranked.sort(Comparator.<Map.Entry<Integer, Integer>> comparingInt(Map.Entry::getValue)
+            .thenComparing(e -> this.names.getOrDefault(e.getKey(), ""), SHORTEST_FIRST));
+        for (Map.Entry<Integer, Integer> e : ranked) {
+            found.putIfAbsent(e.getKey(), e.getValue());
+        }
+    }
+
+    private static int size(List<Set<String>> group) {
+        int size = 0;
+        for (Set<String> posting : group) {
+            size += posting.size();
+        }
+        return size;
+    }
+
+    /**
+     * @return the smallest edit distance (with adjacent transpositions) between
+     *         <code>q</code> and a prefix of <code>key</code>, or
+     *         <code>max + 1</code> if it is more than <code>max</code>
+     */
+    static int prefixDistance(String q, String key, int max) {
+
+        int n = q.length();
+        int m = Math.min(key.length(), n + max);
+        if (m < n - max) {
+            return max + 1;
+        }
+        int[] prev2 = new int[m + 1];
+        int[] prev = new int[m + 1];
+        int[] row = new int[m + 1];
+        for (int j = 0; j <= m; j++) {
+            prev[j] = j;
+        }
+        for (int i = 1; i <= n; i++) {
+            row[0] = i;
+            int rowMin = row[0];
+            for (int j = 1; j <= m; j++) {
+                int cost = q.charAt(i - 1) == key.charAt(j - 1) ? 0 : 1;
+                int d = Math.min(Math.min(prev[j] + 1, row[j - 1] + 1), prev[j - 1] + cost);
+                if (i > 1 && j > 1 && q.charAt(i - 1) == key.charAt(j - 2) && q.charAt(i - 2) == key.charAt(j - 1)) {
+                    d = Math.min(d, prev2[j - 2] + 1);
+                }
+                row[j] = d;
+                rowMin = Math.min(rowMin, d);
+            }
+            if (rowMin > max) {
+                return max + 1;
+            }
+            int[] t = prev2;
+            prev2 = prev;
+            prev = row;
+            row = t;
+        }
+        int best = max + 1;
+        for (int j = Math.max(0, n - max); j <= m; j++) {
+            best = Math.min(best, prev[j]);
+        }
+        return best;
+    }
+
+    static String normalize(String s) {
+        if (s == null) {
+            return "";
+        }
+        String plain = MARKS.matcher(Normalizer.normalize(s, Normalizer.Form.NFD)).replaceAll("");
+        return SEPARATORS.matcher(plain.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    // the name from each word start on
+    private static List<String> keysOf(String normalized) {
+        List<String> keys = new ArrayList<>(2);
+        for (int i = 0; i < normalized.length(); i++) {
+            if (i == 0 || normalized.charAt(i - 1) == ' ') {
+                keys.add(normalized.substring(i));
+            }
+        }
+        return keys;
+    }
+
+    // each trigram followed by its position (as a char), so a query only meets
+    // keys with the same trigram near the same place; padded at the start, so
+    // the first letters weigh as much as the others
+    private static List<String> trigramsOf(String key) {
+        String padded = "" + PAD + PAD + key.substring(0, Math.min(key.length(), TRIGRAM_SPAN));
+        List<String> result = new ArrayList<>(padded.length() - 2);
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            result.add(padded.substring(i, i + 3) + (char) i);
+        }
+        return result;
+    }
+
+}
@@ -0,0 +1,146 @@
+package com.revature.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Collections;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import com.revature.exceptions.TooManyRequestsException;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+
+
+/**
+ * Hashes and verifies passwords with BCrypt.
+ *
+ * BCrypt is deliberately slow, so the work runs on a dedicated pool with a
+ * bounded queue instead of on the Tomcat worker threads: a burst of logins can
+ * use at most <code>auth.hashing.threads</code> cores, and once the queue is
+ * full further calls fail fast with a {@link TooManyRequestsException} (HTTP
+ * 429) rather than piling up.
+ */
+@Component
+public class PasswordHasher implements MeterBinder, DisposableBean {
+
+    private static final Pattern BCRYPT = Pattern.compile("^\\$2[aby]?\\$\\d\\d\\$[./0-9A-Za-z]{53}$");
+    private static final long RETRY_AFTER_SECONDS = 1;
+
+    private final BCryptPasswordEncoder encoder;
+    private final ThreadPoolExecutor pool;
+    private final long timeoutMillis;
+
+    // verified against when the user does not exist, so both cases take as long
+    private final String dummyHash;
+
+    @Autowired
+    public PasswordHasher(@Value("${auth.hashing.strength:10}") int strength,
+        @Value("${auth.hashing.threads:0}") int threads, @Value("${auth.hashing.queue-size:100}") int queueSize,
+        @Value("${auth.hashing.timeout-ms:2000}") long timeoutMillis) {
+
+        this(new BCryptPasswordEncoder(strength), newPool(threads, queueSize), timeoutMillis);
+    }
+
+    PasswordHasher(BCryptPasswordEncoder encoder, ThreadPoolExecutor pool, long timeoutMillis) {
+        this.encoder = encoder;
+        this.pool = pool;
+        this.timeoutMillis = timeoutMillis;
+        this.dummyHash = encoder.encode("not-a-real-password");
+    }
+
+    private static ThreadPoolExecutor newPool(int threads, int queueSize) {
+        int size = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        return new ThreadPoolExecutor(size, size, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueSize),
+            new CustomizableThreadFactory("password-hashing-"), new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * @return a salted BCrypt hash of <code>rawPassword</code>
+     * @throws TooManyRequestsException
+     *         if the hashing pool is saturated
+     */
+    public String hash(String rawPassword) {
+        return run(() -> this.encoder.encode(rawPassword));
+    }
+
+    /**
+     * Checks a password against the stored value. Passwords stored before hashing
+     * was introduced are still plain text and are compared as such, in constant
+     * time; see {@link #isHashed(String)}.
+     *
+     * @param stored
+     *        the stored hash, or <code>null</code> if the user does not exist
+     * @throws TooManyRequestsException
+     *         if the hashing pool is saturated
+     */
+    public boolean matches(String rawPassword, String stored) {
+
+        if (stored == null) {
+            run(() -> this.encoder.matches(rawPassword, this.dummyHash));
+            return false;
+        }
+        if (!isHashed(stored)) {
+            return MessageDigest.isEqual(rawPassword.getBytes(StandardCharsets.UTF_8),
+                stored.getBytes(StandardCharsets.UTF_8));
+        }
+        return run(() -> this.encoder.matches(rawPassword, stored));
+    }
+
+    public boolean isHashed(String password) {
+        return password != null && BCRYPT.matcher(password).matches();
+    }
+
+    private <T> T run(Callable<T> task) {
+
+        Future<T> result;
+        try {
+            result = this.pool.submit(task);
+        } catch (RejectedExecutionException e) {
+            throw new TooManyRequestsException("Too many logins in progress, please try again", RETRY_AFTER_SECONDS);
+        }
+
+        try {
+            return result.get(this.timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            result.cancel(true);
+            throw new TooManyRequestsException("Too many logins in progress, please try again", RETRY_AFTER_SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            result.cancel(true);
+            throw new IllegalStateException("Interrupted while hashing a password", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    /**
+     * Publishes the pool's active threads, queue size and rejections under
+     * <code>executor.*{name=password.hashing}</code>.
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        new ExecutorServiceMetrics(this.pool, "password.hashing", Collections.emptyList()).bindTo(registry);
+    }
+
+    @Override
+    public void destroy() {
+        this.pool.shutdown();
+    }
+
+}
@@ -0,0 +1,97 @@
+package com.revature.util;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+
+/**
+ * Watches for virtual threads that block while pinned to their carrier thread,
+ * typically inside a <code>synchronized</code> block or method, which holds up
+ * one of the few carriers for as long as it blocks.
+ *
+ * Listens to the JDK Flight Recorder event <code>jdk.VirtualThreadPinned</code>
+ * in-process (through reflection, like {@link VirtualThreads}) for pins longer
+ * than the threshold. Each is counted and timed in
+ * <code>jvm.threads.virtual.pinned</code> and logged at debug level with the
+ * stack that pinned; <code>-Djdk.tracePinnedThreads=short</code> prints the
+ * stacks on the console as well.
+ */
+public class PinnedThreadMonitor implements MeterBinder, DisposableBean {
+
+    private static final String EVENT = "jdk.VirtualThreadPinned";
+
+    private Logger log = LoggerFactory.getLogger(this.getClass());
+    private final Duration threshold;
+    private final LongAdder pins = new LongAdder();
+    private final LongAdder pinnedNanos = new LongAdder();
+    private Object stream;
+    private Method getDuration;
+
+    public PinnedThreadMonitor(Duration threshold) {
+        this.threshold = threshold;
+    }
+
+    /**
+     * Starts listening; does nothing, bar a warning, on JVMs without the event.
+     */
+    public void start() {
+        try {
+            Class<?> streamClass = Class.forName("jdk.jfr.consumer.RecordingStream");
+            Class<?> settingsClass = Class.forName("jdk.jfr.EventSettings");
+            this.getDuration = Class.forName("jdk.jfr.consumer.RecordedEvent").getMethod("getDuration");
+
+            Object recording = streamClass.getConstructor().newInstance();
+            Object settings = streamClass.getMethod("enable", String.class).invoke(recording, EVENT);
+            settingsClass.getMethod("withThreshold", Duration.class).invoke(settings, this.threshold);
+            settingsClass.getMethod("withStackTrace").invoke(settings);
+            Consumer<Object> handler = this::onPinned;
+            streamClass.getMethod("onEvent", String.class, Consumer.class).invoke(recording, EVENT, handler);
+            streamClass.getMethod("startAsync").invoke(recording);
+            this.stream = recording;
+            this.log.info("Reporting virtual threads pinned for more than {}ms", this.threshold.toMillis());
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            this.log.warn("Unable to watch for pinned virtual threads", e);
+        }
+    }
+
+    private void onPinned(Object event) {
+        this.pins.increment();
+        try {
+            this.pinnedNanos.add(((Duration) this.getDuration.invoke(event)).toNanos());
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            // counted without its duration
+        }
+        this.log.debug("Virtual thread pinned: {}", event);
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        if (this.stream instanceof AutoCloseable) {
+            ((AutoCloseable) this.stream).close();
+        }
+    }
+
+    /**
+     * Publishes <code>jvm.threads.virtual.pinned</code> (timer of the pins over
+     * the threshold).
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionTimer.builder("jvm.threads.virtual.pinned", this, m -> m.pins.sum(), m -> m.pinnedNanos.sum(),
+            TimeUnit.NANOSECONDS)
+            .register(registry);
+    }
+
+}
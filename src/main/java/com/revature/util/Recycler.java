@@ -0,0 +1,74 @@
+package com.revature.util;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+
+/**
+ * Reuses objects that are costly to create and not thread-safe, such as a
+ * keyed <code>Mac</code>, a <code>MessageDigest</code> or scratch buffers, by
+ * lending each to one caller at a time.
+ *
+ * A platform thread is pooled and long-lived, so it keeps one of its own in a
+ * <code>ThreadLocal</code>. A virtual thread runs a single request and is then
+ * gone, so a <code>ThreadLocal</code> would create a new object for every
+ * request; virtual threads share a bounded pool instead, and an object is only
+ * created when the pool is empty. Callers hold an object only for a stretch of
+ * work that does not block, so they never outnumber the carrier threads for
+ * long and a pool about that size is enough. Objects returned to a full pool are
+ * dropped.
+ *
+ * <pre>
+ * T t = recycler.acquire();
+ * try {
+ *     ...
+ * } finally {
+ *     recycler.release(t);
+ * }
+ * </pre>
+ */
+public final class Recycler<T> {
+
+    private final Supplier<T> factory;
+    private final ThreadLocal<T> perThread;
+    private final ArrayBlockingQueue<T> shared;
+    private final BooleanSupplier onSharedThread;
+
+    /**
+     * @param factory
+     *        creates an object when the calling thread or the pool has none
+     */
+    public Recycler(Supplier<T> factory) {
+        this(factory, Math.max(2, Runtime.getRuntime().availableProcessors() * 2),
+            () -> VirtualThreads.isVirtual(Thread.currentThread()));
+    }
+
+    Recycler(Supplier<T> factory, int capacity, BooleanSupplier onSharedThread) {
+        this.factory = factory;
+        this.perThread = ThreadLocal.withInitial(factory);
+        this.shared = new ArrayBlockingQueue<>(capacity);
+        this.onSharedThread = onSharedThread;
+    }
+
+    /**
+     * @return an object no other caller holds until it is released
+     */
+    public T acquire() {
+        if (!this.onSharedThread.getAsBoolean()) {
+            return this.perThread.get();
+        }
+        T pooled = this.shared.poll();
+        return pooled != null ? pooled : this.factory.get();
+    }
+
+    /**
+     * Gives back an object from {@link #acquire()}, on the same thread.
+     */
+    public void release(T t) {
+        if (this.onSharedThread.getAsBoolean()) {
+            this.shared.offer(t);
+        }
+    }
+
+}
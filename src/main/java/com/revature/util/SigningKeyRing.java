@@ -0,0 +1,278 @@
+package com.revature.util;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.Key;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+
+
+/**
+ * The set of HS256 keys used to sign and verify JWTs, shared by every instance
+ * of the API so a token issued by one node is accepted by all of them.
+ *
+ * Keys are read from the file named by <code>jwt.keys.file</code>, one key per
+ * line:
+ *
+ * <pre>
+ * # kid          active from (UTC)      Base64 secret (at least 32 bytes)
+ * 2026-10-a      2026-10-01T00:00:00Z   3q2+7w...
+ * 2026-11-a      2026-11-01T00:00:00Z   u7V5Kx...
+ * </pre>
+ *
+ * Tokens are signed with the newest key whose activation time has passed and
+ * carry its id in the <code>kid</code> header. After a rotation the previous key
+ * is still accepted for <code>jwt.keys.grace-period-seconds</code>, and a key
+ * becoming active within <code>jwt.keys.clock-skew-seconds</code> is accepted
+ * early so nodes with slightly different clocks agree. The file is re-read and
+ * the active key re-evaluated every <code>jwt.keys.refresh-interval-ms</code>,
+ * so new keys can be rolled out by updating the file on every node ahead of
+ * their activation time.
+ *
+ * Without a key file a random key is generated at startup, which only works for
+ * a single instance.
+ */
+@Component
+public class SigningKeyRing {
+
+    private final Logger log = LoggerFactory.getLogger(this.getClass());
+
+    private final Path keyFile;
+    private final Duration gracePeriod;
+    private final Duration clockSkew;
+    private final Clock clock;
+
+    // guarded by this
+    private List<SigningKey> keys;
+    private long keyFileModified;
+
+    private volatile Snapshot snapshot;
+
+    @Autowired
+    public SigningKeyRing(@Value("${jwt.keys.file:}") String keyFile,
+        @Value("${jwt.keys.grace-period-seconds:86400}") long gracePeriodSeconds,
+        @Value("${jwt.keys.clock-skew-seconds:60}") long clockSkewSeconds) throws IOException {
+
+        this.keyFile = keyFile.isEmpty() ? null : Paths.get(keyFile);
+        this.gracePeriod = Duration.ofSeconds(gracePeriodSeconds);
+        this.clockSkew = Duration.ofSeconds(clockSkewSeconds);
+        this.clock = Clock.systemUTC();
+
+        if (this.keyFile == null) {
+            this.log.warn("jwt.keys.file is not set, using a random signing key. "
+                + "Tokens will not be accepted by other instances or after a restart.");
+            this.keys = Collections.singletonList(new SigningKey("local", Instant.EPOCH,
+                Keys.secretKeyFor(SignatureAlgorithm.HS256)));
+        } else {
+            this.keyFileModified = Files.getLastModifiedTime(this.keyFile).toMillis();
+            this.keys = readKeyFile(this.keyFile);
+            this.log.info("Loaded {} JWT signing keys from {}", this.keys.size(), this.keyFile);
+        }
+        rebuild();
+    }
+
+    SigningKeyRing(List<SigningKey> keys, Duration gracePeriod, Duration clockSkew, Clock clock) {
+        this.keyFile = null;
+        this.gracePeriod = gracePeriod;
+        this.clockSkew = clockSkew;
+        this.clock = clock;
+        this.keys = sorted(keys);
+        rebuild();
+    }
+
+    static SigningKeyRing of(String keyId, Key key) {
+        return new SigningKeyRing(Collections.singletonList(new SigningKey(keyId, Instant.EPOCH, key)),
+            Duration.ZERO, Duration.ZERO, Clock.systemUTC());
+    }
+
+    /**
+     * @return the codec of the key new tokens are signed with
+     */
+    public Hs256JwtCodec signingCodec() {
+        return this.snapshot.signing;
+    }
+
+    /**
+     * Finds the codec able to verify a token, from its header.
+     *
+     * @throws IllegalArgumentException
+     *         if the token names no key, or a key that is unknown or retired
+     */
+    public Hs256JwtCodec verifyingCodec(String token) {
+
+        Snapshot current = this.snapshot;
+
+        // tokens we issued start with one of the accepted keys' pre-encoded headers
+        for (Hs256JwtCodec codec : current.accepted) {
+            if (codec.isIssuerOf(token)) {
+                return codec;
+            }
+        }
+
+        // otherwise read the kid out of the header
+        String keyId = Hs256JwtCodec.readKeyId(token);
+        Hs256JwtCodec codec = keyId == null ? null : current.byKeyId.get(keyId);
+        if (codec == null) {
+            throw new IllegalArgumentException("Unknown or retired JWT key id: " + keyId);
+        }
+        return codec;
+    }
+
+    /**
+     * @return <code>true</code> if tokens signed with this key are still accepted
+     */
+    public boolean accepts(String keyId) {
+        return this.snapshot.byKeyId.containsKey(keyId);
+    }
+
+    /**
+     * Picks up changes to the key file and moves the signing key forward when the
+     * next key's activation time has passed.
+     */
+    @Scheduled(fixedDelayString = "${jwt.keys.refresh-interval-ms:60000}",
+        initialDelayString = "${jwt.keys.refresh-interval-ms:60000}")
+    public synchronized void refresh() {
+
+        if (this.keyFile != null) {
+            try {
+                long modified = Files.getLastModifiedTime(this.keyFile).toMillis();
+                if (modified != this.keyFileModified) {
+                    this.keys = readKeyFile(this.keyFile);
+                    this.keyFileModified = modified;
+                    this.log.info("Reloaded {} JWT signing keys from {}", this.keys.size(), this.keyFile);
+                }
+            } catch (IOException | RuntimeException e) {
+                this.log.error("Unable to reload JWT keys from {}, keeping the current keys", this.keyFile, e);
+            }
+        }
+        rebuild();
+    }
+
+    private synchronized void rebuild() {
+
+        Instant now = this.clock.instant();
+        List<SigningKey> all = this.keys;
+
+        int active = -1;
+        for (int i = 0; i < all.size(); i++) {
+            if (!all.get(i).activeFrom.isAfter(now)) {
+                active = i;
+            }
+        }
+        if (active < 0) {
+            active = 0;
+            this.log.warn("No JWT key is active yet, signing with the earliest one ({})", all.get(0).keyId);
+        }
+
+        SigningKey signing = all.get(active);
+        List<Hs256JwtCodec> accepted = new ArrayList<>();
+        accepted.add(signing.codec);
+        if (active > 0 && now.isBefore(signing.activeFrom.plus(this.gracePeriod))) {
+            accepted.add(all.get(active - 1).codec);
+        }
+        for (int i = active + 1; i < all.size(); i++) {
+            if (!all.get(i).activeFrom.isAfter(now.plus(this.clockSkew))) {
+                accepted.add(all.get(i).codec);
+            }
+        }
+
+        Map<String, Hs256JwtCodec> byKeyId = new HashMap<>();
+        for (Hs256JwtCodec codec : accepted) {
+            byKeyId.put(codec.getKeyId(), codec);
+        }
+
+        Snapshot previous = this.snapshot;
+        if (previous != null && previous.signing != signing.codec) {
+            this.log.info("Rotated JWT signing key from {} to {}", previous.signing.getKeyId(), signing.keyId);
+        }
+        this.snapshot = new Snapshot(signing.codec, accepted.toArray(new Hs256JwtCodec[0]), byKeyId);
+    }
+
+    private static List<SigningKey> readKeyFile(Path path) throws IOException {
+
+        List<SigningKey> keys = new ArrayList<>();
+        Set<String> keyIds = new HashSet<>();
+        List<String> lines = Files.readAllLines(path, StandardCharsets.UTF_8);
+
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i).trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] parts = line.split("\\s+");
+            if (parts.length != 3) {
+                throw new IllegalArgumentException(path + ":" + (i + 1) + " expected <kid> <active-from> <secret>");
+            }
+            if (!keyIds.add(parts[0])) {
+                throw new IllegalArgumentException(path + ":" + (i + 1) + " duplicate kid " + parts[0]);
+            }
+            keys.add(new SigningKey(parts[0], Instant.parse(parts[1]),
+                Keys.hmacShaKeyFor(Base64.getDecoder().decode(parts[2]))));
+        }
+        if (keys.isEmpty()) {
+            throw new IllegalArgumentException(path + " contains no JWT keys");
+        }
+        return sorted(keys);
+    }
+
+    private static List<SigningKey> sorted(List<SigningKey> keys) {
+        List<SigningKey> copy = new ArrayList<>(keys);
+        copy.sort(Comparator.comparing(k -> k.activeFrom));
+        return Collections.unmodifiableList(copy);
+    }
+
+    /**
+     * One key of the ring and the codec bound to it.
+     */
+    static final class SigningKey {
+
+        private final String keyId;
+        private final Instant activeFrom;
+        private final Hs256JwtCodec codec;
+
+        SigningKey(String keyId, Instant activeFrom, Key key) {
+            this.keyId = keyId;
+            this.activeFrom = activeFrom;
+            this.codec = new Hs256JwtCodec(key, keyId, JwtTokenManager.ISSUER);
+        }
+
+    }
+
+    private static final class Snapshot {
+
+        private final Hs256JwtCodec signing;
+        private final Hs256JwtCodec[] accepted;
+        private final Map<String, Hs256JwtCodec> byKeyId;
+
+        Snapshot(Hs256JwtCodec signing, Hs256JwtCodec[] accepted, Map<String, Hs256JwtCodec> byKeyId) {
+            this.signing = signing;
+            this.accepted = accepted;
+            this.byKeyId = byKeyId;
+        }
+
+    }
+
+}
@@ -0,0 +1,118 @@
+package com.revature.util;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+
+
+/**
+ * An immutable set of skill ids, held as a bitset: bit <code>i</code> is set if
+ * the set has skill <code>i</code>. Skill ids are small and dense, so a
+ * character's skills fit in a few longs, and membership checks are a shift and
+ * a mask. Serialized as the ascending array of ids.
+ */
+public final class SkillSet {
+
+    private static final SkillSet EMPTY = new SkillSet(new long[0]);
+
+    private final long[] words;
+
+    private SkillSet(long[] words) {
+        this.words = words;
+    }
+
+    public static SkillSet empty() {
+        return EMPTY;
+    }
+
+    /**
+     * @throws IllegalArgumentException
+     *         if an id is negative
+     */
+    public static SkillSet of(Collection<Integer> ids) {
+        if (ids.isEmpty()) {
+            return EMPTY;
+        }
+        long[] words = new long[0];
+        for (int id : ids) {
+            words = set(words, id);
+        }
+        return new SkillSet(words);
+    }
+
+    public boolean contains(int id) {
+        int word = id >>> 6;
+        return id >= 0 && word < this.words.length && (this.words[word] & (1L << id)) != 0;
+    }
+
+    public boolean containsAll(SkillSet other) {
+        for (int i = 0; i < other.words.length; i++) {
+            long mine = i < this.words.length ? this.words[i] : 0;
+            if ((other.words[i] & ~mine) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return this set with <code>id</code> added; this set if it already has it
+     */
+    public SkillSet with(int id) {
+        return contains(id) ? this : new SkillSet(set(this.words.clone(), id));
+    }
+
+    public int size() {
+        int size = 0;
+        for (long word : this.words) {
+            size += Long.bitCount(word);
+        }
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return this.words.length == 0;
+    }
+
+    @JsonValue
+    public int[] toArray() {
+        int[] ids = new int[size()];
+        int n = 0;
+        for (int i = 0; i < this.words.length; i++) {
+            long word = this.words[i];
+            while (word != 0) {
+                ids[n++] = (i << 6) + Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+            }
+        }
+        return ids;
+    }
+
+    // words never has trailing zero words, so equal sets have equal arrays
+    private static long[] set(long[] words, int id) {
+        if (id < 0) {
+            throw new IllegalArgumentException("Skill ids cannot be negative: " + id);
+        }
+        int word = id >>> 6;
+        long[] result = word < words.length ? words : Arrays.copyOf(words, word + 1);
+        result[word] |= 1L << id;
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof SkillSet && Arrays.equals(this.words, ((SkillSet) o).words);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(this.words);
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(toArray());
+    }
+
+}
@@ -0,0 +1,24 @@
+package com.revature.util;
+
+import lombok.Value;
+
+
+/**
+ * The result of a successful JWT verification. Instances are immutable so they
+ * can be shared between threads through the verified-token cache in
+ * {@link JwtTokenManager}.
+ */
+@Value
+public class VerifiedToken {
+
+    int userId;
+
+    String username;
+
+    // the kid of the key that signed the token
+    String keyId;
+
+    // epoch millis after which the token must be verified again
+    long expiresAt;
+
+}
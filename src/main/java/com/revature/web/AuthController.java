@@ -1,8 +1,10 @@
 package com.revature.web;
 
+import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
@@ -11,6 +13,7 @@ import org.springframework.web.bind.annotation.RestController;
 
 import com.revature.dto.Credentials;
 import com.revature.exceptions.AuthenticationException;
+import com.revature.exceptions.TooManyRequestsException;
 import com.revature.models.User;
 import com.revature.service.UserService;
 import com.revature.util.JwtTokenManager;
@@ -31,9 +34,9 @@ public class AuthController {
     }
 
     @PostMapping
-    public User login(@RequestBody Credentials creds, HttpServletResponse response) {
+    public User login(@RequestBody Credentials creds, HttpServletRequest request, HttpServletResponse response) {
         try {
-            User user = this.userService.authenticate(creds);
+            User user = this.userService.authenticate(creds, request.getRemoteAddr());
             String token = this.tokenManager.issueToken(user);
 
             response.addHeader("auth-token", token);
@@ -42,6 +45,9 @@ public class AuthController {
             response.setStatus(200);
         } catch (AuthenticationException e) {
             response.setStatus(401);
+        } catch (TooManyRequestsException e) {
+            response.addHeader(HttpHeaders.RETRY_AFTER, Long.toString(e.getRetryAfterSeconds()));
+            response.setStatus(429);
         }
         return null;
     }
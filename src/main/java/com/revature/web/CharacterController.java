@@ -1,15 +1,48 @@
 package com.revature.web;
 
-import java.util.Set;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+import javax.servlet.http.HttpServletResponse;
 
 import javax.validation.Valid;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.revature.aspects.AuthFilter;
+import com.revature.dto.AuthenticatedUser;
+import com.revature.dto.CharacterBatch;
+import com.revature.dto.CharacterExportRow;
+import com.revature.dto.CharacterSkills;
+import com.revature.dto.CharacterState;
+import com.revature.dto.CharacterSummary;
+import com.revature.dto.PageResponse;
+import com.revature.dto.SearchHit;
+import com.revature.dto.SpeciesAggregate;
+import com.revature.dto.StatsDelta;
+import com.revature.exceptions.CharacterNotFoundException;
+import com.revature.exceptions.ForbiddenException;
+import com.revature.exceptions.PreconditionFailedException;
+import com.revature.exceptions.SkillNotFoundException;
 import com.revature.models.Character;
+import com.revature.models.Skills;
+import com.revature.models.Stats;
+import com.revature.service.CharacterSearchService;
 import com.revature.service.CharacterService;
+import com.revature.service.SkillService;
+import com.revature.service.SpeciesAggregateService;
 
 
 @RestController
@@ -17,44 +50,209 @@ import com.revature.service.CharacterService;
 @RequestMapping("/characters")
 public class CharacterController {
 
+    private static final String RESPOND_ASYNC = "respond-async";
+
     private CharacterService cserv;
+    private SkillService skServ;
+    private CharacterSearchService searchServ;
+    private SpeciesAggregateService aggServ;
+    private ObjectWriter exportWriter;
 
     @Autowired
-    public CharacterController(CharacterService cserv) {
+    public CharacterController(CharacterService cserv, SkillService skServ, CharacterSearchService searchServ,
+        SpeciesAggregateService aggServ, ObjectMapper mapper) {
         super();
         this.cserv = cserv;
+        this.skServ = skServ;
+        this.searchServ = searchServ;
+        this.aggServ = aggServ;
+        // rows are written to the response one by one; let its buffer decide when to flush
+        this.exportWriter = mapper.writerFor(CharacterExportRow.class)
+            .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+            .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
     }
 
     // Get all the characters(likely wont use other than showing the full DB in the
     // demo)
     @GetMapping
-    public ResponseEntity<Set<Character>> getAllCharacters() {
+    public ResponseEntity<List<CharacterSummary>> getAllCharacters() {
         return ResponseEntity.ok(this.cserv.findAll());
     }
 
-    // Get the character by the ID
+    // Get one page of characters, ordered by id: ?page=0&size=20
+    @GetMapping(params = "page")
+    public ResponseEntity<PageResponse<CharacterSummary>> getCharacterPage(@RequestParam("page") int page,
+        @RequestParam(name = "size", defaultValue = "" + PageResponse.DEFAULT_SIZE) int size) {
+        return ResponseEntity.ok(this.cserv.findPage(page, size));
+    }
+
+    // Get the characters after the given id, for walking the whole table: ?after=0&limit=20
+    @GetMapping(params = "after")
+    public ResponseEntity<PageResponse<CharacterSummary>> getCharactersAfter(@RequestParam("after") int after,
+        @RequestParam(name = "limit", defaultValue = "" + PageResponse.DEFAULT_SIZE) int limit) {
+        return ResponseEntity.ok(this.cserv.findAfter(after, limit));
+    }
+
+    // Autocomplete: characters whose name (or a word in it) starts with q, tolerating
+    // typos: ?q=sky&limit=10. Answered from memory
+    @GetMapping("/search")
+    public ResponseEntity<List<SearchHit>> search(@RequestParam("q") String q,
+        @RequestParam(name = "limit", defaultValue = "10") int limit) {
+        return ResponseEntity.ok(this.searchServ.search(q, limit));
+    }
+
+    // Characters per species with their average level and strength, for the
+    // dashboards. Answered from counters, never by scanning the characters
+    @GetMapping("/aggregates")
+    public ResponseEntity<List<SpeciesAggregate>> getAggregates() {
+        return ResponseEntity.ok(this.aggServ.findAll());
+    }
+
+    @GetMapping("/aggregates/{speciesId}")
+    public ResponseEntity<SpeciesAggregate> getAggregate(@PathVariable("speciesId") int speciesId) {
+        return ResponseEntity.ok(this.aggServ.findBySpeciesId(speciesId));
+    }
+
+    // Get the skill ids of the characters after the given id, a page at a time:
+    // ?after=0&limit=20. The skills themselves are listed by GET /skills
+    @GetMapping(value = "/skills", params = "after")
+    public ResponseEntity<PageResponse<CharacterSkills>> getSkillsAfter(@RequestParam("after") int after,
+        @RequestParam(name = "limit", defaultValue = "" + PageResponse.DEFAULT_SIZE) int limit) {
+        return ResponseEntity.ok(this.skServ.findAfter(after, limit));
+    }
+
+    // Stream every character as newline-delimited JSON, one row per line, for the
+    // analytics export. Rows are written as they are read, never collected.
+    @GetMapping("/export")
+    public void exportCharacters(HttpServletResponse response) throws IOException {
+        response.setContentType("application/x-ndjson");
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"characters.ndjson\"");
+
+        OutputStream out = response.getOutputStream();
+        try {
+            this.cserv.export(row -> {
+                try {
+                    this.exportWriter.writeValue(out, row);
+                    out.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        out.flush();
+    }
+
+    // Get the character by the ID. The ETag is checked first, so a client that
+    // already has the current version gets a 304 without the character being loaded
     @GetMapping("/{id}")
-    public ResponseEntity<Character> getCharacter(@PathVariable("id") int id) {
-        return ResponseEntity.ok(this.cserv.getById(id));
+    public ResponseEntity<Character> getCharacter(@PathVariable("id") int id, WebRequest request) {
+        try {
+            if (id > 0 && this.cserv.getPendingStats(id) == null && request.checkNotModified(this.cserv.getETag(id))) {
+                return null;
+            }
+            Character c = this.cserv.getById(id);
+            if (c == null) {
+                return ResponseEntity.ok(null);
+            }
+            StatsDelta pending = this.cserv.getPendingStats(id);
+            if (pending != null) {
+                // the ETag only covers what is written, so none until the buffered stats are
+                c.setStats(pending.applyTo(c.getStats()));
+                return ResponseEntity.ok(c);
+            }
+            return ResponseEntity.ok().eTag(CharacterState.of(c).etag()).body(c);
+        } catch (CharacterNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    // get the skills of the character
+    @GetMapping("/{id}/skills")
+    public ResponseEntity<List<Skills>> getSkills(@PathVariable("id") int id) {
+        try {
+            return ResponseEntity.ok(this.skServ.findByCharacterId(id));
+        } catch (CharacterNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    // grant a skill to the character, only its owner may do so. Granting a skill
+    // the character already has changes nothing
+    @PostMapping("/{id}/skills/{skillId}")
+    public ResponseEntity<CharacterSkills> grantSkill(@PathVariable("id") int id,
+        @PathVariable("skillId") int skillId, @RequestAttribute(AuthFilter.PRINCIPAL) AuthenticatedUser caller) {
+        try {
+            return ResponseEntity.ok(this.skServ.grant(id, skillId, caller.getId()));
+        } catch (CharacterNotFoundException | SkillNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        } catch (ForbiddenException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+    }
+
+    // add to the stats of a character, only its owner may do so: {"experience": 50}
+    // adds 50 experience (and levels up). Concurrent changes all apply. With
+    // "Prefer: respond-async" the delta is buffered and written with others shortly
+    // after (202), for clients that send many small changes
+    @PatchMapping("/{id}/stats")
+    public ResponseEntity<Stats> addToStats(@PathVariable("id") int id, @Valid @RequestBody StatsDelta delta,
+        @RequestAttribute(AuthFilter.PRINCIPAL) AuthenticatedUser caller,
+        @RequestHeader(name = "Prefer", required = false) String prefer) {
+        try {
+            if (prefer != null && prefer.contains(RESPOND_ASYNC)) {
+                this.cserv.addToStatsLater(id, delta, caller.getId());
+                return ResponseEntity.accepted().header("Preference-Applied", RESPOND_ASYNC).build();
+            }
+            return ResponseEntity.ok(this.cserv.addToStats(id, delta, caller.getId()));
+        } catch (CharacterNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        } catch (ForbiddenException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
     }
 
     // get the characters the User owns by the User id
     @GetMapping("/find/{id}")
-    public ResponseEntity<Set<Character>> findByUser(@PathVariable("id") int id) {
+    public ResponseEntity<List<CharacterSummary>> findByUser(@PathVariable("id") int id) {
         return ResponseEntity.ok(this.cserv.findByOwnerId(id));
     }
 
-    // add a new character to the DB
+    // add a new character to the DB, owned by the caller
     @PostMapping("/add")
-    public ResponseEntity<Character> addCharacter(@Valid @RequestBody Character c) {
+    public ResponseEntity<Character> addCharacter(@Valid @RequestBody Character c,
+        @RequestAttribute(AuthFilter.PRINCIPAL) AuthenticatedUser caller) {
         // get the body from the browser
-        return ResponseEntity.ok(this.cserv.addCharacter(c));
+        return ResponseEntity.ok(this.cserv.addCharacter(c, caller.getId()));
+    }
+
+    // add several characters at once, in one transaction and batched inserts, owned by the caller
+    @PostMapping("/batch")
+    public ResponseEntity<List<Character>> addCharacters(@Valid @RequestBody CharacterBatch batch,
+        @RequestAttribute(AuthFilter.PRINCIPAL) AuthenticatedUser caller) {
+        return ResponseEntity.ok(this.cserv.addCharacters(batch.getCharacters(), caller.getId()));
     }
 
-    // update the character
+    // update the character, only its owner may do so. With If-Match the update is
+    // only applied if the character has not changed since the client read it
     @PutMapping("/update")
-    public ResponseEntity<Character> updateCharacter(@Valid @RequestBody Character c) {
-        return ResponseEntity.ok(this.cserv.update(c));
+    public ResponseEntity<Character> updateCharacter(@Valid @RequestBody Character c,
+        @RequestAttribute(AuthFilter.PRINCIPAL) AuthenticatedUser caller,
+        @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        try {
+            Character updated = this.cserv.update(c, caller.getId(), ifMatch);
+            return ResponseEntity.ok().eTag(this.cserv.getETag(updated.getId())).body(updated);
+        } catch (CharacterNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        } catch (ForbiddenException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        } catch (PreconditionFailedException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
     }
 
 }
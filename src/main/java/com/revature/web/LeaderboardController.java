@@ -0,0 +1,48 @@
+package com.revature.web;
+
+import java.util.List;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import com.revature.dto.RankedCharacter;
+import com.revature.exceptions.CharacterNotFoundException;
+import com.revature.service.LeaderboardService;
+
+
+// every endpoint ranks everyone, or only one species with ?species=
+@RestController
+@CrossOrigin(origins = "*", allowedHeaders = "*")
+@RequestMapping("/leaderboard")
+public class LeaderboardController {
+
+    private LeaderboardService lServ;
+
+    public LeaderboardController(LeaderboardService lServ) {
+        this.lServ = lServ;
+    }
+
+    @GetMapping
+    public ResponseEntity<List<RankedCharacter>> top(@RequestParam(name = "species", required = false) Integer species,
+        @RequestParam(name = "limit", defaultValue = "10") int limit) {
+        return ResponseEntity.ok(this.lServ.top(species, limit));
+    }
+
+    @GetMapping("/ranks/{rank}")
+    public ResponseEntity<List<RankedCharacter>> around(@PathVariable("rank") long rank,
+        @RequestParam(name = "species", required = false) Integer species,
+        @RequestParam(name = "radius", defaultValue = "5") int radius) {
+        return ResponseEntity.ok(this.lServ.around(species, rank, radius));
+    }
+
+    @GetMapping("/characters/{id}")
+    public ResponseEntity<RankedCharacter> rankOf(@PathVariable("id") int id,
+        @RequestParam(name = "species", required = false) Integer species) {
+        try {
+            return ResponseEntity.ok(this.lServ.rankOf(id, species));
+        } catch (CharacterNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+}
@@ -0,0 +1,46 @@
+package com.revature.web;
+
+import java.util.List;
+
+import javax.validation.Valid;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import com.revature.exceptions.SkillNotFoundException;
+import com.revature.models.Skills;
+import com.revature.service.SkillService;
+
+
+@RestController
+@CrossOrigin(origins = "*", allowedHeaders = "*")
+@RequestMapping("/skills")
+public class SkillController {
+
+    private SkillService skServ;
+
+    public SkillController(SkillService skServ) {
+        this.skServ = skServ;
+    }
+
+    @PostMapping
+    public ResponseEntity<Skills> addSkill(@Valid @RequestBody Skills s) {
+        return ResponseEntity.ok(this.skServ.add(s));
+    }
+
+    // the whole catalog, ordered by id; it is served from memory
+    @GetMapping
+    public ResponseEntity<List<Skills>> getAll() {
+        return ResponseEntity.ok(this.skServ.findAll());
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<Skills> getSkill(@PathVariable("id") int id) {
+        try {
+            return ResponseEntity.ok(this.skServ.findById(id));
+        } catch (SkillNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+}
@@ -1,12 +1,16 @@
 package com.revature.web;
 
+import java.util.List;
 import java.util.Set;
 
 import javax.validation.Valid;
 
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import com.revature.dto.PageResponse;
+import com.revature.dto.SearchHit;
 import com.revature.exceptions.UserNotFoundException;
 import com.revature.models.Species;
 import com.revature.service.SpeciesService;
@@ -28,9 +32,41 @@ public class SpeciesController {
         return ResponseEntity.ok(this.sServ.add(s));
     }
 
+    // the listings only change with the catalog, so they all share its ETag
     @GetMapping
-    public ResponseEntity<Set<Species>> getAll() {
-        return ResponseEntity.ok(this.sServ.findAll());
+    public ResponseEntity<Set<Species>> getAll(WebRequest request) {
+        String etag = this.sServ.catalogETag();
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).body(this.sServ.findAll());
+    }
+
+    @GetMapping(params = "page")
+    public ResponseEntity<PageResponse<Species>> getPage(@RequestParam("page") int page,
+        @RequestParam(name = "size", defaultValue = "" + PageResponse.DEFAULT_SIZE) int size, WebRequest request) {
+        String etag = this.sServ.catalogETag();
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).body(this.sServ.findPage(page, size));
+    }
+
+    @GetMapping(params = "after")
+    public ResponseEntity<PageResponse<Species>> getAfter(@RequestParam("after") int after,
+        @RequestParam(name = "limit", defaultValue = "" + PageResponse.DEFAULT_SIZE) int limit, WebRequest request) {
+        String etag = this.sServ.catalogETag();
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).body(this.sServ.findAfter(after, limit));
+    }
+
+    // autocomplete: species whose name starts with q, tolerating typos
+    @GetMapping("/search")
+    public ResponseEntity<List<SearchHit>> search(@RequestParam("q") String q,
+        @RequestParam(name = "limit", defaultValue = "10") int limit) {
+        return ResponseEntity.ok(this.sServ.search(q, limit));
     }
 
     @GetMapping("/{name}")
@@ -1,14 +1,30 @@
 package com.revature.web;
 
-import java.util.Set;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
 
-import javax.validation.Valid;
+import javax.servlet.http.HttpServletRequest;
+import javax.validation.groups.Default;
 
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import com.revature.aspects.AuthFilter;
+import com.revature.dto.AuthenticatedUser;
+import com.revature.dto.Availability;
+import com.revature.dto.ImportReport;
+import com.revature.dto.PageResponse;
+import com.revature.dto.UserSummary;
 import com.revature.exceptions.UserNotFoundException;
 import com.revature.models.User;
+import com.revature.service.UserAvailabilityService;
+import com.revature.service.UserImportService;
 import com.revature.service.UserService;
 
 
@@ -23,11 +39,16 @@ import com.revature.service.UserService;
 public class UserController {
 
     private UserService uServ;
+    private UserImportService importServ;
+    private UserAvailabilityService availabilityServ;
 
     // Note that declaring @Autowired here is not needed since Spring already
     // detects this constructor
-    public UserController(UserService uServ) {
+    public UserController(UserService uServ, UserImportService importServ,
+        UserAvailabilityService availabilityServ) {
         this.uServ = uServ;
+        this.importServ = importServ;
+        this.availabilityServ = availabilityServ;
     }
 
     /**
@@ -39,39 +60,120 @@ public class UserController {
      *         registration was successful
      */
     @PostMapping("/add")
-    public ResponseEntity<User> registerUser(@Valid @RequestBody User u) {
+    public ResponseEntity<User> registerUser(
+        @Validated({ Default.class, User.RawPassword.class }) @RequestBody User u) {
         return ResponseEntity.ok(this.uServ.add(u));
     }
 
     /**
-     * Updates the information of a <code>User</code> stored in the database.
+     * Registers many users at once from a CSV file with a
+     * <code>username,password,email</code> header. The body is read as it
+     * arrives, never held in memory as a whole.
+     *
+     * @return A <code>ResponseEntity</code> object containing how many users were
+     *         imported and, for every row that was not, its line and why
+     */
+    @PostMapping(value = "/import", consumes = { "text/csv", MediaType.TEXT_PLAIN_VALUE })
+    public ResponseEntity<ImportReport> importUsers(HttpServletRequest request) throws IOException {
+        // UTF-8 unless the client says otherwise (the servlet default is ISO-8859-1)
+        Reader body = request.getCharacterEncoding() != null ? request.getReader()
+            : new InputStreamReader(request.getInputStream(), StandardCharsets.UTF_8);
+        try {
+            return ResponseEntity.ok(this.importServ.importCsv(body));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Checks whether a username and/or an email can still be registered, without
+     * having to log in. Meant to be called as the user types: most answers come
+     * from memory without querying the database.
+     *
+     * @param username
+     *        The username to check, optional
+     * @param email
+     *        The email to check, optional
+     * @return A <code>ResponseEntity</code> object containing, for each one given,
+     *         whether it is free, or a 400 if neither was given
+     */
+    @GetMapping("/available")
+    public ResponseEntity<Availability> checkAvailability(
+        @RequestParam(name = "username", required = false) String username,
+        @RequestParam(name = "email", required = false) String email) {
+        if (username == null && email == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(this.availabilityServ.check(username, email));
+    }
+
+    /**
+     * Updates the information of a <code>User</code> stored in the database. Users
+     * may only update themselves.
      *
      * @param The
      *        <code>User</code> object to modify
+     * @param caller
+     *        The authenticated user making the request
      * @return A <code>ResponseEntity</code> object indicating whether or not the
      *         <code>User</code> was updated successfully
      */
     @PutMapping("/{id}")
-    public ResponseEntity<User> updateUser(@PathVariable("id") int id, @Valid @RequestBody User u) {
-        try {
-            this.uServ.getById(id);
-            return ResponseEntity.ok(this.uServ.update(u));
-        } catch (UserNotFoundException e) {
-            return ResponseEntity.notFound().build();
+    public ResponseEntity<User> updateUser(@PathVariable("id") int id,
+        @Validated({ Default.class, User.RawPassword.class }) @RequestBody User u,
+        @RequestAttribute(AuthFilter.PRINCIPAL) AuthenticatedUser caller) {
+        // the verified token already proves who the caller is, no need to fetch them
+        if (caller.getId() != id) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
         }
+        u.setId(id);
+        return ResponseEntity.ok(this.uServ.update(u));
     }
 
     /**
      * Retrieves all users registered in the database.
      *
-     * @return A <code>ResponseEntity</code> object containing a <code>Set</code> of
-     *         users found in the database
+     * @return A <code>ResponseEntity</code> object containing the ID, username and
+     *         email of every user, ordered by ID
      */
     @GetMapping("/")
-    public ResponseEntity<Set<User>> getAll() {
+    public ResponseEntity<List<UserSummary>> getAll() {
         return ResponseEntity.ok(this.uServ.findAll());
     }
 
+    /**
+     * Retrieves one page of users, ordered by ID.
+     *
+     * @param page
+     *        The page number, starting at 0
+     * @param size
+     *        The number of users per page, at most {@value PageResponse#MAX_SIZE}
+     * @return A <code>ResponseEntity</code> object containing the page, the total
+     *         number of users and the next page number
+     */
+    @GetMapping(value = "/", params = "page")
+    public ResponseEntity<PageResponse<UserSummary>> getPage(@RequestParam("page") int page,
+        @RequestParam(name = "size", defaultValue = "" + PageResponse.DEFAULT_SIZE) int size) {
+        return ResponseEntity.ok(this.uServ.findPage(page, size));
+    }
+
+    /**
+     * Retrieves the users following a given ID, ordered by ID. Unlike
+     * {@link #getPage(int, int)} this stays fast however deep the client pages.
+     *
+     * @param after
+     *        The last ID the client has seen (0 to start)
+     * @param limit
+     *        The number of users to return, at most {@value PageResponse#MAX_SIZE}
+     * @return A <code>ResponseEntity</code> object containing the users and the
+     *         cursor to pass as <code>after</code> for the next page
+     */
+    @GetMapping(value = "/", params = "after")
+    public ResponseEntity<PageResponse<UserSummary>> getAfter(@RequestParam("after") int after,
+        @RequestParam(name = "limit", defaultValue = "" + PageResponse.DEFAULT_SIZE) int limit) {
+        return ResponseEntity.ok(this.uServ.findAfter(after, limit));
+    }
+
     /**
      * Fetches a specific user based on their ID.
      *
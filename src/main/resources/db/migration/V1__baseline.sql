@@ -0,0 +1,66 @@
+-- The schema as Hibernate's ddl-auto=update created it before migrations were
+-- introduced. Existing databases are baselined at this version
+-- (spring.flyway.baseline-on-migrate) and only get the migrations after it.
+
+create table users (
+    user_id integer generated by default as identity,
+    email varchar(255) not null,
+    password varchar(255) not null,
+    username varchar(255) not null,
+    primary key (user_id),
+    constraint uk_users_email unique (email),
+    constraint uk_users_username unique (username)
+);
+
+create table species (
+    id integer generated by default as identity,
+    description varchar(255) not null,
+    species_name varchar(255) not null,
+    primary key (id),
+    constraint uk_species_species_name unique (species_name)
+);
+
+create table stats (
+    id integer generated by default as identity,
+    def integer,
+    dex integer,
+    exp integer,
+    fp integer,
+    health integer,
+    lvl integer,
+    str integer,
+    character_id integer,
+    primary key (id)
+);
+
+create table characters (
+    id integer generated by default as identity,
+    image_url varchar(255),
+    name varchar(255) not null,
+    owner_user_id integer,
+    species_id integer,
+    stats_id integer,
+    primary key (id),
+    constraint fk_characters_owner foreign key (owner_user_id) references users,
+    constraint fk_characters_species foreign key (species_id) references species,
+    constraint fk_characters_stats foreign key (stats_id) references stats
+);
+
+alter table stats add constraint fk_stats_character foreign key (character_id) references characters;
+
+create table skills (
+    id integer generated by default as identity,
+    description varchar(255),
+    name varchar(255),
+    power integer not null,
+    stat varchar(255),
+    primary key (id)
+);
+
+create table character_and_skill (
+    skill_id integer not null,
+    character_id integer not null,
+    primary key (skill_id, character_id),
+    constraint fk_character_and_skill_character foreign key (character_id) references characters,
+    constraint fk_character_and_skill_skill foreign key (skill_id) references skills
+);
@@ -0,0 +1,12 @@
+-- Optimistic locking columns, and the pooled sequences that characters, stats
+-- and users now take their ids from. "if not exists", since databases that ran
+-- with ddl-auto=update may have them already. The sequences are moved past the
+-- existing ids by IdSequenceMigration (version 2.1).
+
+alter table characters add column if not exists version integer default 0 not null;
+alter table species add column if not exists version integer default 0 not null;
+alter table stats add column if not exists version integer default 0 not null;
+
+create sequence if not exists characters_seq start with 1 increment by 50;
+create sequence if not exists stats_seq start with 1 increment by 50;
+create sequence if not exists users_seq start with 1 increment by 50;
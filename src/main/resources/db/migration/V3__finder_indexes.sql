@@ -0,0 +1,12 @@
+-- One index per repository finder that does not already have one. Lookups by
+-- id use the primary keys; users.username, users.email and species.species_name
+-- are covered by their unique constraints.
+
+-- CharacterRepository.findByOwnerId / findSummariesByOwnerId
+create index if not exists idx_characters_owner on characters (owner_user_id);
+
+-- CharacterRepository.findBySpeciesId
+create index if not exists idx_characters_species on characters (species_id);
+
+-- CharacterRepository.findByName
+create index if not exists idx_characters_name on characters (name);
@@ -0,0 +1,31 @@
+-- Stats move into columns of characters (see the Stats embeddable): reading a
+-- character no longer joins stats, and creating one is a single insert. Either
+-- side of the old one-to-one may hold the link, so a character takes the stats
+-- row its stats_id points at, or else the first one whose character_id points
+-- back at it. Missing values become 0, as the entity always wrote them.
+
+alter table characters add column lvl integer;
+alter table characters add column exp integer;
+alter table characters add column health integer;
+alter table characters add column str integer;
+alter table characters add column def integer;
+alter table characters add column dex integer;
+alter table characters add column fp integer;
+
+update characters set (lvl, exp, health, str, def, dex, fp) = (
+    select coalesce(s.lvl, 0), coalesce(s.exp, 0), coalesce(s.health, 0), coalesce(s.str, 0),
+        coalesce(s.def, 0), coalesce(s.dex, 0), coalesce(s.fp, 0)
+    from stats s where s.id = characters.stats_id)
+where stats_id is not null;
+
+update characters set (lvl, exp, health, str, def, dex, fp) = (
+    select coalesce(s.lvl, 0), coalesce(s.exp, 0), coalesce(s.health, 0), coalesce(s.str, 0),
+        coalesce(s.def, 0), coalesce(s.dex, 0), coalesce(s.fp, 0)
+    from stats s where s.character_id = characters.id order by s.id fetch first 1 row only)
+where stats_id is null and exists (select 1 from stats s where s.character_id = characters.id);
+
+-- cascade: databases baselined from ddl-auto=update have generated names for
+-- the foreign keys between the two tables
+drop table stats cascade;
+alter table characters drop column stats_id;
+drop sequence if exists stats_seq;
@@ -0,0 +1,4 @@
+-- The primary key of character_and_skill leads with skill_id, so looking up the
+-- skills of a character (SkillsRepository.findSkillIdsByCharacterId and the
+-- batch fetch of Character.skills) needs its own index.
+create index if not exists idx_character_and_skill_character on character_and_skill (character_id);
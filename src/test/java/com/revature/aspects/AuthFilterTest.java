@@ -0,0 +1,105 @@
+package com.revature.aspects;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.revature.dto.AuthenticatedUser;
+import com.revature.models.User;
+import com.revature.util.JwtTokenManager;
+import com.revature.util.SigningKeyRing;
+
+
+class AuthFilterTest {
+
+    private JwtTokenManager tokenManager;
+    private AuthFilter filter;
+    private MockFilterChain chain;
+    private MockHttpServletResponse resp;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        // no key file: a random single-instance key
+        this.tokenManager = new JwtTokenManager(new SigningKeyRing("", 60, 60), 100, 60);
+        this.filter = new AuthFilter(this.tokenManager, new ObjectMapper().findAndRegisterModules());
+        this.chain = new MockFilterChain();
+        this.resp = new MockHttpServletResponse();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        this.filter = null;
+    }
+
+    private MockHttpServletRequest request(String method, String path) {
+        MockHttpServletRequest req = new MockHttpServletRequest(method, "/api" + path);
+        req.setContextPath("/api");
+        return req;
+    }
+
+    @Test
+    void testDoFilter_ValidToken_SetsPrincipal() throws Exception {
+        MockHttpServletRequest req = request("PUT", "/characters/update");
+        req.addHeader(AuthFilter.TOKEN_HEADER,
+            this.tokenManager.issueToken(new User(7, "auser", "Project2Team6!", "auser@dat.boi")));
+
+        this.filter.doFilter(req, this.resp, this.chain);
+
+        AuthenticatedUser caller = (AuthenticatedUser) req.getAttribute(AuthFilter.PRINCIPAL);
+        assertEquals(new AuthenticatedUser(7, "auser"), caller);
+        assertNotNull(this.chain.getRequest());
+    }
+
+    @Test
+    void testDoFilter_MissingToken_Unauthorized() throws Exception {
+        MockHttpServletRequest req = request("GET", "/users/");
+
+        this.filter.doFilter(req, this.resp, this.chain);
+
+        assertEquals(401, this.resp.getStatus());
+        assertNull(this.chain.getRequest());
+    }
+
+    @Test
+    void testDoFilter_BadToken_Unauthorized() throws Exception {
+        MockHttpServletRequest req = request("GET", "/characters");
+        req.addHeader(AuthFilter.TOKEN_HEADER, "not.a.token");
+
+        this.filter.doFilter(req, this.resp, this.chain);
+
+        assertEquals(401, this.resp.getStatus());
+        assertNull(this.chain.getRequest());
+    }
+
+    @Test
+    void testDoFilter_PublicRoutes_Skipped() throws Exception {
+        for (MockHttpServletRequest req : new MockHttpServletRequest[] { request("POST", "/login"),
+            request("POST", "/users/add"), request("GET", "/users/available"),
+            request("OPTIONS", "/characters/update"), request("GET", "/actuator/health") }) {
+
+            MockFilterChain publicChain = new MockFilterChain();
+            this.filter.doFilter(req, new MockHttpServletResponse(), publicChain);
+
+            assertNotNull(publicChain.getRequest(), req.getMethod() + " " + req.getRequestURI());
+            assertNull(req.getAttribute(AuthFilter.PRINCIPAL));
+        }
+    }
+
+    @Test
+    void testDoFilter_PublicPathWithOtherMethod_Protected() throws Exception {
+        MockHttpServletRequest req = request("GET", "/users/add");
+
+        this.filter.doFilter(req, this.resp, this.chain);
+
+        assertEquals(401, this.resp.getStatus());
+    }
+
+}
@@ -0,0 +1,111 @@
+package com.revature.aspects;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.revature.dto.AuthenticatedUser;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+
+class RateLimitFilterTest {
+
+    private long now;
+    private MeterRegistry registry;
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setDefaultLimit(new RateLimitProperties.Limit("default", null, "/**", 100, Duration.ofSeconds(10)));
+        properties.getRoutes().add(
+            new RateLimitProperties.Limit("list-characters", "GET", "/characters", 2, Duration.ofSeconds(10)));
+
+        this.now = TimeUnit.HOURS.toNanos(1);
+        this.registry = new SimpleMeterRegistry();
+        this.filter = new RateLimitFilter(properties, new ObjectMapper().findAndRegisterModules(), this.registry,
+            () -> this.now);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        this.filter = null;
+    }
+
+    private MockHttpServletResponse call(String method, String path, Integer userId) throws Exception {
+        MockHttpServletRequest req = new MockHttpServletRequest(method, "/api" + path);
+        req.setContextPath("/api");
+        req.setRemoteAddr("10.0.0.1");
+        if (userId != null) {
+            req.setAttribute(AuthFilter.PRINCIPAL, new AuthenticatedUser(userId, "auser"));
+        }
+        MockHttpServletResponse resp = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+        this.filter.doFilter(req, resp, chain);
+        if (resp.getStatus() == 200) {
+            assertNotNull(chain.getRequest());
+        } else {
+            assertNull(chain.getRequest());
+        }
+        return resp;
+    }
+
+    @Test
+    void testDoFilter_WithinLimit_SetsHeaders() throws Exception {
+        MockHttpServletResponse resp = call("GET", "/characters", 7);
+
+        assertEquals(200, resp.getStatus());
+        assertEquals("2", resp.getHeader("RateLimit-Limit"));
+        assertEquals("1", resp.getHeader("RateLimit-Remaining"));
+        assertEquals("5", resp.getHeader("RateLimit-Reset"));
+    }
+
+    @Test
+    void testDoFilter_OverLimit_TooManyRequests() throws Exception {
+        call("GET", "/characters", 7);
+        call("GET", "/characters", 7);
+        MockHttpServletResponse resp = call("GET", "/characters", 7);
+
+        assertEquals(429, resp.getStatus());
+        assertEquals("5", resp.getHeader("Retry-After"));
+        assertEquals("0", resp.getHeader("RateLimit-Remaining"));
+        assertEquals(1, this.registry.get("ratelimit.rejected").tag("route", "list-characters").counter().count());
+    }
+
+    @Test
+    void testDoFilter_RefillsOverTime() throws Exception {
+        call("GET", "/characters", 7);
+        call("GET", "/characters", 7);
+
+        this.now += TimeUnit.SECONDS.toNanos(5);
+
+        assertEquals(200, call("GET", "/characters", 7).getStatus());
+        assertEquals(429, call("GET", "/characters", 7).getStatus());
+    }
+
+    @Test
+    void testDoFilter_SeparateBucketsPerClientAndRoute() throws Exception {
+        call("GET", "/characters", 7);
+        call("GET", "/characters", 7);
+
+        assertEquals(200, call("GET", "/characters", 8).getStatus());
+        assertEquals(200, call("GET", "/characters", null).getStatus());
+        MockHttpServletResponse other = call("GET", "/characters/3", 7);
+        assertEquals(200, other.getStatus());
+        assertEquals("100", other.getHeader("RateLimit-Limit"));
+    }
+
+}
@@ -0,0 +1,188 @@
+package com.revature.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import com.revature.aspects.AuthFilter;
+import com.revature.dto.AuthenticatedUser;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+
+class ReplicaRoutingDataSourceTest {
+
+    private long now;
+    private DriverManagerDataSource replica0;
+    private DriverManagerDataSource replica1;
+    private ReplicaRoutingDataSource routing;
+    private JdbcTemplate jdbc;
+    private TransactionTemplate writeTx;
+    private TransactionTemplate readTx;
+
+    @BeforeEach
+    void setUp() {
+        // three H2 databases, each answering with its own name
+        DataSource primary = database("primary");
+        this.replica0 = database("replica0");
+        this.replica1 = database("replica1");
+
+        this.now = TimeUnit.HOURS.toNanos(1);
+        this.routing = new ReplicaRoutingDataSource(primary, Arrays.asList(this.replica0, this.replica1),
+            Duration.ofSeconds(5), 1000, () -> this.now);
+        DataSource dataSource = new LazyConnectionDataSourceProxy(this.routing);
+
+        this.jdbc = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager txManager = new DataSourceTransactionManager(dataSource);
+        this.writeTx = new TransactionTemplate(txManager);
+        this.readTx = new TransactionTemplate(txManager);
+        this.readTx.setReadOnly(true);
+
+        MockHttpServletRequest req = new MockHttpServletRequest();
+        req.setAttribute(AuthFilter.PRINCIPAL, new AuthenticatedUser(7, "luke"));
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(req));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void testGetConnection_Success_ReadOnlyGoesToReplicasRoundRobin() {
+
+        assertEquals("replica0", read());
+        assertEquals("replica1", read());
+        assertEquals("replica0", read());
+    }
+
+    @Test
+    void testGetConnection_Success_WritesGoToPrimary() {
+
+        assertEquals("primary", this.writeTx.execute(s -> name()));
+        assertEquals("primary", name());
+    }
+
+    @Test
+    void testGetConnection_Success_CredentialsGoToPrimary() throws SQLException {
+
+        try (Connection c = this.routing.getConnection("", "")) {
+            assertEquals("primary", new JdbcTemplate(new SingleConnectionDataSource(c, true)).queryForObject(
+                "select name from whoami", String.class));
+        }
+    }
+
+    @Test
+    void testGetConnection_Success_ReadYourWritesWindow() {
+
+        this.writeTx.execute(s -> name());
+        assertEquals("primary", read());
+
+        this.now += TimeUnit.SECONDS.toNanos(4);
+        assertEquals("primary", read());
+
+        this.now += TimeUnit.SECONDS.toNanos(2);
+        assertEquals("replica0", read());
+    }
+
+    @Test
+    void testGetConnection_Success_WindowIsPerClient() {
+
+        this.writeTx.execute(s -> name());
+
+        MockHttpServletRequest other = new MockHttpServletRequest();
+        other.setRemoteAddr("10.0.0.2");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(other));
+        assertEquals("replica0", read());
+    }
+
+    @Test
+    void testGetConnection_Success_RolledBackWriteStartsNoWindow() {
+
+        this.writeTx.execute(s -> {
+            name();
+            s.setRollbackOnly();
+            return null;
+        });
+        assertEquals("replica0", read());
+    }
+
+    @Test
+    void testCheckHealth_Success_SkipsUnhealthyReplica() {
+
+        this.replica0.setUrl("jdbc:h2:tcp://localhost:1/nowhere");
+        this.routing.checkHealth();
+
+        assertEquals("replica1", read());
+        assertEquals("replica1", read());
+
+        this.replica0.setUrl("jdbc:h2:mem:replica0;DB_CLOSE_DELAY=-1");
+        this.routing.checkHealth();
+        assertEquals(new HashSet<>(Arrays.asList("replica0", "replica1")),
+            new HashSet<>(Arrays.asList(read(), read())));
+    }
+
+    @Test
+    void testGetConnection_Success_AllReplicasDownReadsFromPrimary() {
+
+        this.replica0.setUrl("jdbc:h2:tcp://localhost:1/nowhere");
+        this.replica1.setUrl("jdbc:h2:tcp://localhost:1/nowhere");
+
+        assertEquals("primary", read());
+        assertEquals("primary", read());
+    }
+
+    @Test
+    void testBindTo_Success() {
+
+        MeterRegistry registry = new SimpleMeterRegistry();
+        this.routing.bindTo(registry);
+        read();
+        this.replica0.setUrl("jdbc:h2:tcp://localhost:1/nowhere");
+        this.replica1.setUrl("jdbc:h2:tcp://localhost:1/nowhere");
+        read();
+
+        assertEquals(1.0, registry.get("datasource.routing.reads").tag("target", "replica").functionCounter().count());
+        assertEquals(1.0, registry.get("datasource.routing.reads").tag("target", "primary").functionCounter().count());
+        assertEquals(0.0, registry.get("datasource.replicas.healthy").gauge().value());
+    }
+
+    private String read() {
+        return this.readTx.execute(s -> name());
+    }
+
+    private String name() {
+        return this.jdbc.queryForObject("select name from whoami", String.class);
+    }
+
+    private static DriverManagerDataSource database(String name) {
+        DriverManagerDataSource ds = new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbc = new JdbcTemplate(ds);
+        jdbc.execute("create table if not exists whoami (name varchar(20))");
+        jdbc.update("delete from whoami");
+        jdbc.update("insert into whoami values (?)", name);
+        return ds;
+    }
+
+}
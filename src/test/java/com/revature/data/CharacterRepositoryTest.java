@@ -0,0 +1,279 @@
+package com.revature.data;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+
+import com.revature.dto.CharacterSkills;
+import com.revature.dto.CharacterSummary;
+import com.revature.dto.PageResponse;
+import com.revature.dto.SpeciesTotals;
+import com.revature.dto.StatsDelta;
+import com.revature.dto.UserSummary;
+import com.revature.models.Character;
+import com.revature.models.Skills;
+import com.revature.models.Species;
+import com.revature.models.Stats;
+import com.revature.models.User;
+import com.revature.service.SkillService;
+
+
+/**
+ * Checks that character reads run a fixed number of statements, however many
+ * rows and distinct owners or species they return, and that the listing
+ * projections do not load any entity, and that inserts are batched.
+ */
+@DataJpaTest(properties = {
+    "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.properties.hibernate.generate_statistics=true" })
+class CharacterRepositoryTest {
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private CharacterRepository charRepo;
+
+    @Autowired
+    private UserRepository userRepo;
+
+    @Autowired
+    private SkillsRepository skillRepo;
+
+    @Autowired
+    private EntityManagerFactory emf;
+
+    private Statistics stats;
+    private User owner;
+    private Species species;
+    private Character first;
+    private List<Skills> skills = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            User u = this.em.persist(new User("user" + i, "Project2Team6!", "user" + i + "@dat.boi"));
+            Species s = this.em.persist(new Species("Species" + i, "A species"));
+            Character c = new Character("Character" + i, null);
+            c.setOwner(u);
+            c.setSpecies(s);
+            c.setStats(new Stats(1, 0, 10, 1, 1, 1, 0));
+            this.em.persist(c);
+            if (i == 0) {
+                this.owner = u;
+                this.species = s;
+                this.first = c;
+            }
+        }
+        this.em.flush();
+        // character i has skills 0 to i % 3
+        for (int i = 0; i < 3; i++) {
+            this.skills.add(this.em.persist(new Skills("Skill" + i, "A skill", "str", i)));
+        }
+        this.em.flush();
+        for (Character c : this.charRepo.findAll()) {
+            int n = Integer.parseInt(c.getName().substring("Character".length()));
+            for (int i = 0; i <= n % 3; i++) {
+                this.skillRepo.grant(c.getId(), this.skills.get(i).getId());
+            }
+        }
+        this.em.clear();
+
+        this.stats = this.emf.unwrap(SessionFactory.class).getStatistics();
+        this.stats.clear();
+    }
+
+    private void assertFullyLoaded(List<Character> characters) {
+        for (Character c : characters) {
+            assertTrue(Hibernate.isInitialized(c.getSpecies()));
+            assertTrue(Hibernate.isInitialized(c.getOwner()));
+            assertTrue(Hibernate.isInitialized(c.getStats()));
+        }
+    }
+
+    @Test
+    void testFindAll_SingleStatement() {
+        List<Character> characters = this.charRepo.findAll();
+
+        assertEquals(10, characters.size());
+        assertFullyLoaded(characters);
+        assertEquals(1, this.stats.getPrepareStatementCount());
+    }
+
+    @Test
+    void testFindByOwnerId_SingleStatement() {
+        List<Character> characters = this.charRepo.findByOwnerId(this.owner.getId());
+
+        assertEquals(1, characters.size());
+        assertFullyLoaded(characters);
+        assertEquals(1, this.stats.getPrepareStatementCount());
+    }
+
+    @Test
+    void testFindBySpeciesId_SingleStatement() {
+        List<Character> characters = this.charRepo.findBySpeciesId(this.species.getId());
+
+        assertEquals(1, characters.size());
+        assertFullyLoaded(characters);
+        assertEquals(1, this.stats.getPrepareStatementCount());
+    }
+
+    @Test
+    void testFindAllSummaries_NoEntitiesLoaded() {
+        List<CharacterSummary> summaries = this.charRepo.findAllSummaries();
+
+        assertEquals(10, summaries.size());
+        assertEquals(new CharacterSummary(this.first.getId(), "Character0", "Species0", null, 1, this.owner.getId()),
+            summaries.get(0));
+        assertEquals(1, this.stats.getPrepareStatementCount());
+        assertEquals(0, this.stats.getEntityLoadCount());
+    }
+
+    @Test
+    void testFindAfter_SkillsInOneStatement() {
+        // 50 characters, character i still having skills 0 to i % 3
+        for (int i = 10; i < 50; i++) {
+            Character c = new Character("Character" + i, null);
+            c.setOwner(this.owner);
+            c.setSpecies(this.species);
+            this.em.persist(c);
+            for (int s = 0; s <= i % 3; s++) {
+                this.skillRepo.grant(c.getId(), this.skills.get(s).getId());
+            }
+        }
+        this.em.flush();
+        this.em.clear();
+        SkillService skServ = new SkillService(this.skillRepo, this.charRepo);
+
+        for (int size : new int[] { PageResponse.DEFAULT_SIZE, 37 }) {
+            this.stats.clear();
+
+            PageResponse<CharacterSkills> page = skServ.findAfter(0, size);
+
+            assertEquals(size, page.getItems().size());
+            for (int i = 0; i < size; i++) {
+                assertEquals(i % 3 + 1, page.getItems().get(i).getSkills().toArray().length);
+            }
+            // the page (plus one row to tell whether there is a next one), then the skills of all of it
+            assertEquals(2, this.stats.getPrepareStatementCount(), "page size " + size);
+        }
+    }
+
+    @Test
+    void testFindSkillIdsByCharacterId() {
+        List<Integer> ids = this.skillRepo.findSkillIdsByCharacterId(this.first.getId());
+
+        assertEquals(Collections.singletonList(this.skills.get(0).getId()), ids);
+    }
+
+    @Test
+    void testSaveAll_BatchedInserts() {
+        List<Character> characters = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            Character c = new Character("Batch" + i, null);
+            c.setOwner(this.owner);
+            c.setSpecies(this.species);
+            c.setStats(new Stats(1, 0, 10, 1, 1, 1, 0));
+            characters.add(c);
+        }
+
+        this.charRepo.saveAll(characters);
+        this.em.flush();
+
+        // stats are columns of the character rows, not rows of their own
+        assertEquals(200, this.stats.getEntityInsertCount());
+        // 4 batches of 50, plus a sequence call per 50 ids
+        assertTrue(this.stats.getPrepareStatementCount() <= 10, () -> this.stats.getPrepareStatementCount() + "");
+    }
+
+    @Test
+    void testAddToStats_SingleUpdate() {
+        int version = this.first.getVersion();
+
+        int updated = this.charRepo.addToStats(this.first.getId(), new StatsDelta(250, -3, 2, 0, 0, 0));
+
+        assertEquals(1, updated);
+        assertEquals(1, this.stats.getPrepareStatementCount());
+        Character c = this.em.find(Character.class, this.first.getId());
+        // level 1 + 250 / 100
+        assertEquals(new Stats(3, 250, 7, 3, 1, 1, 0), c.getStats());
+        assertEquals(version + 1, c.getVersion());
+    }
+
+    @Test
+    void testAddToStats_NeverLowersTheLevel() {
+        Character veteran = new Character("Veteran", null);
+        veteran.setOwner(this.owner);
+        veteran.setSpecies(this.species);
+        veteran.setStats(new Stats(9, 0, 10, 1, 1, 1, 0));
+        this.em.persist(veteran);
+        this.em.flush();
+
+        this.charRepo.addToStats(veteran.getId(), new StatsDelta(120, 0, 0, 0, 0, 0));
+        this.em.clear();
+
+        assertEquals(new Stats(9, 120, 10, 1, 1, 1, 0), this.em.find(Character.class, veteran.getId()).getStats());
+    }
+
+    @Test
+    void testAddToStats_WithoutStats() {
+        Character rookie = new Character("Rookie", null);
+        rookie.setOwner(this.owner);
+        rookie.setSpecies(this.species);
+        this.em.persist(rookie);
+        this.em.flush();
+
+        this.charRepo.addToStats(rookie.getId(), new StatsDelta(30, 5, 0, 0, 0, 0));
+        this.em.clear();
+
+        assertEquals(new Stats(1, 30, 5, 0, 0, 0, 0), this.em.find(Character.class, rookie.getId()).getStats());
+    }
+
+    @Test
+    void testFindSpeciesTotals_GroupedInOneStatement() {
+        Character extra = new Character("Extra", null);
+        extra.setOwner(this.owner);
+        extra.setSpecies(this.species);
+        extra.setStats(new Stats(5, 0, 10, 7, 1, 1, 0));
+        this.em.persist(extra);
+        Character noStats = new Character("NoStats", null);
+        noStats.setOwner(this.owner);
+        noStats.setSpecies(this.species);
+        this.em.persist(noStats);
+        this.em.flush();
+        this.stats.clear();
+
+        List<SpeciesTotals> totals = this.charRepo.findSpeciesTotals();
+
+        assertEquals(10, totals.size());
+        // Character0 (level 1, strength 1), Extra (level 5, strength 7) and NoStats
+        assertTrue(totals.contains(new SpeciesTotals(this.species.getId(), 3, 2, 6, 8)));
+        assertEquals(1, this.stats.getPrepareStatementCount());
+        assertEquals(0, this.stats.getEntityLoadCount());
+    }
+
+    @Test
+    void testFindUserSummaries_NoPassword() {
+        List<UserSummary> summaries = this.userRepo.findAllSummaries();
+
+        assertEquals(10, summaries.size());
+        assertEquals(new UserSummary(this.owner.getId(), "user0", "user0@dat.boi"), summaries.get(0));
+        assertEquals(0, this.stats.getEntityLoadCount());
+    }
+
+}
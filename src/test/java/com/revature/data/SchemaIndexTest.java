@@ -0,0 +1,86 @@
+package com.revature.data;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+
+/**
+ * Checks, on the schema the Flyway migrations build, that the lookup behind
+ * every repository finder is served by an index rather than a table scan. The
+ * statements mirror the SQL Hibernate generates for each finder.
+ *
+ * H2 indexes foreign key columns by itself (PostgreSQL does not), so for those
+ * the plan may name H2's index; that the migrations create their own is checked
+ * separately.
+ */
+@DataJpaTest(properties = "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect")
+class SchemaIndexTest {
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    private void assertIndexed(String sql) {
+        String plan = this.jdbc.queryForObject("explain " + sql, String.class);
+        assertFalse(plan.contains("tableScan"), plan);
+        assertTrue(plan.contains("_INDEX") || plan.contains("PRIMARY_KEY") || plan.contains("IDX_"), plan);
+    }
+
+    @Test
+    void testMigrationsCreateFinderIndexes() {
+        List<String> indexes = this.jdbc.queryForList(
+            "select lower(index_name) from information_schema.indexes where table_name = 'CHARACTERS'", String.class);
+
+        assertTrue(indexes.contains("idx_characters_owner"), indexes::toString);
+        assertTrue(indexes.contains("idx_characters_species"), indexes::toString);
+        assertTrue(indexes.contains("idx_characters_name"), indexes::toString);
+
+        List<String> skillIndexes = this.jdbc.queryForList("select lower(index_name) from "
+            + "information_schema.indexes where table_name = 'CHARACTER_AND_SKILL'", String.class);
+        assertTrue(skillIndexes.contains("idx_character_and_skill_character"), skillIndexes::toString);
+    }
+
+    @Test
+    void testCharacterFinders() {
+        // findByOwnerId, findSummariesByOwnerId
+        assertIndexed("select c.id from characters c where c.owner_user_id = 1");
+        // findBySpeciesId
+        assertIndexed("select c.id from characters c where c.species_id = 1");
+        // findFirstByNameOrderByIdAsc
+        assertIndexed("select c.id from characters c where c.name = 'Chewbacca'");
+        // findById, findStateById, findSummariesAfter
+        assertIndexed("select c.id from characters c where c.id = 1");
+        assertIndexed("select c.id from characters c where c.id > 1 order by c.id");
+    }
+
+    @Test
+    void testUserFinders() {
+        // findByUsername
+        assertIndexed("select u.user_id from users u where u.username = 'auser'");
+        // findExistingUsernames, findExistingEmails
+        assertIndexed("select u.username from users u where u.username in ('a', 'b')");
+        assertIndexed("select u.email from users u where u.email in ('a@dat.boi', 'b@dat.boi')");
+        // findById, findSummariesAfter
+        assertIndexed("select u.user_id from users u where u.user_id > 1 order by u.user_id");
+    }
+
+    @Test
+    void testSkillFinders() {
+        // findSkillIdsByCharacterId, the batch fetch of Character.skills
+        assertIndexed("select cs.skill_id from character_and_skill cs where cs.character_id = 1");
+        assertIndexed("select cs.skill_id from character_and_skill cs where cs.character_id in (1, 2, 3)");
+    }
+
+    @Test
+    void testSpeciesFinders() {
+        // findBySpeciesName
+        assertIndexed("select s.id from species s where s.species_name = 'Wookiee'");
+    }
+
+}
@@ -0,0 +1,200 @@
+package com.revature.data;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.h2.tools.Server;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+
+/**
+ * Character reads and inserts with stats in a <code>stats</code> table of their
+ * own (<code>layout=table</code>, as before V4: a join on every read, and two
+ * inserts plus the foreign key update Hibernate issued for the one-to-one on
+ * every create) against stats as columns of <code>characters</code>
+ * (<code>layout=embedded</code>). Plain JDBC with the statements Hibernate
+ * generated for each mapping, against an H2 database served over TCP on
+ * localhost so every statement costs a (short) network round trip, over
+ * {@value #CHARACTERS} characters. Inserts are batched, as with
+ * <code>hibernate.jdbc.batch_size=50</code>.
+ *
+ * Run with <code>mvn test-compile</code> followed by the <code>main</code>
+ * method of this class (from the IDE or with the test classpath).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StatsLayoutBenchmark {
+
+    private static final int CHARACTERS = 10_000;
+    private static final int PAGE = 100;
+    private static final int BATCH = 50;
+
+    private static final String[] TABLE = {
+        "create table stats (id integer primary key, lvl integer, exp integer, health integer, str integer, "
+            + "def integer, dex integer, fp integer, character_id integer)",
+        "create table characters (id integer primary key, name varchar(255) not null, image_url varchar(255), "
+            + "species_id integer, owner_user_id integer, version integer, stats_id integer references stats)" };
+
+    private static final String[] EMBEDDED = {
+        "create table characters (id integer primary key, name varchar(255) not null, image_url varchar(255), "
+            + "species_id integer, owner_user_id integer, version integer, lvl integer, exp integer, "
+            + "health integer, str integer, def integer, dex integer, fp integer)" };
+
+    @Param({ "table", "embedded" })
+    public String layout;
+
+    private Server server;
+    private Connection con;
+    private String selectById;
+    private String selectPage;
+    private int nextId = CHARACTERS;
+
+    @Setup
+    public void setUp() throws SQLException {
+        this.server = Server.createTcpServer("-tcpPort", "0", "-ifNotExists").start();
+        this.con = DriverManager.getConnection(
+            "jdbc:h2:tcp://localhost:" + this.server.getPort() + "/mem:" + this.layout, "sa", "");
+        boolean table = "table".equals(this.layout);
+        try (Statement st = this.con.createStatement()) {
+            for (String ddl : table ? TABLE : EMBEDDED) {
+                st.execute(ddl);
+            }
+        }
+        String columns = "c.id, c.name, c.image_url, c.species_id, c.owner_user_id, c.version";
+        String stats = table ? "s.lvl, s.exp, s.health, s.str, s.def, s.dex, s.fp"
+            : "c.lvl, c.exp, c.health, c.str, c.def, c.dex, c.fp";
+        String from = table ? " from characters c left join stats s on s.id = c.stats_id" : " from characters c";
+        this.selectById = "select " + columns + ", " + stats + from + " where c.id = ?";
+        this.selectPage = "select " + columns + ", " + stats + from + " where c.id > ? order by c.id limit " + PAGE;
+
+        this.con.setAutoCommit(false);
+        insert(0, CHARACTERS);
+        this.con.setAutoCommit(true);
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        this.con.close();
+        this.server.stop();
+    }
+
+    @Benchmark
+    public void readById(Blackhole bh) throws SQLException {
+        try (PreparedStatement ps = this.con.prepareStatement(this.selectById)) {
+            ps.setInt(1, ThreadLocalRandom.current().nextInt(CHARACTERS));
+            read(ps, bh);
+        }
+    }
+
+    @Benchmark
+    public void readPage(Blackhole bh) throws SQLException {
+        try (PreparedStatement ps = this.con.prepareStatement(this.selectPage)) {
+            ps.setInt(1, ThreadLocalRandom.current().nextInt(CHARACTERS - PAGE));
+            read(ps, bh);
+        }
+    }
+
+    // one transaction creating BATCH characters with their stats
+    @Benchmark
+    public void insertBatch() throws SQLException {
+        this.con.setAutoCommit(false);
+        insert(this.nextId, BATCH);
+        this.nextId += BATCH;
+        this.con.setAutoCommit(true);
+    }
+
+    private static void read(PreparedStatement ps, Blackhole bh) throws SQLException {
+        try (ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                for (int i = 1; i <= 13; i++) {
+                    bh.consume(rs.getObject(i));
+                }
+            }
+        }
+    }
+
+    private void insert(int from, int count) throws SQLException {
+        if ("table".equals(this.layout)) {
+            try (PreparedStatement stats = this.con.prepareStatement("insert into stats (lvl, exp, health, str, "
+                + "def, dex, fp, character_id, id) values (?, ?, ?, ?, ?, ?, ?, null, ?)");
+                PreparedStatement chars = this.con.prepareStatement("insert into characters (name, image_url, "
+                    + "species_id, owner_user_id, version, stats_id, id) values (?, null, 1, 1, 0, ?, ?)");
+                PreparedStatement link = this.con.prepareStatement("update stats set character_id = ? where id = ?")) {
+                for (int id = from; id < from + count; id++) {
+                    setStats(stats, id);
+                    stats.setInt(8, id);
+                    stats.addBatch();
+                    chars.setString(1, "Character" + id);
+                    chars.setInt(2, id);
+                    chars.setInt(3, id);
+                    chars.addBatch();
+                    link.setInt(1, id);
+                    link.setInt(2, id);
+                    link.addBatch();
+                    if ((id + 1) % BATCH == 0) {
+                        stats.executeBatch();
+                        chars.executeBatch();
+                        link.executeBatch();
+                    }
+                }
+                stats.executeBatch();
+                chars.executeBatch();
+                link.executeBatch();
+            }
+        } else {
+            try (PreparedStatement chars = this.con.prepareStatement("insert into characters (name, image_url, "
+                + "species_id, owner_user_id, version, lvl, exp, health, str, def, dex, fp, id) "
+                + "values (?, null, 1, 1, 0, ?, ?, ?, ?, ?, ?, ?, ?)")) {
+                for (int id = from; id < from + count; id++) {
+                    chars.setString(1, "Character" + id);
+                    for (int i = 0; i < 7; i++) {
+                        chars.setInt(2 + i, id % 100 + i);
+                    }
+                    chars.setInt(9, id);
+                    chars.addBatch();
+                    if ((id + 1) % BATCH == 0) {
+                        chars.executeBatch();
+                    }
+                }
+                chars.executeBatch();
+            }
+        }
+        this.con.commit();
+    }
+
+    private static void setStats(PreparedStatement ps, int id) throws SQLException {
+        for (int i = 0; i < 7; i++) {
+            ps.setInt(1 + i, id % 100 + i);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(StatsLayoutBenchmark.class.getSimpleName()).build()).run();
+    }
+
+}
@@ -0,0 +1,144 @@
+package com.revature.service;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.h2.tools.Server;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.revature.ProjectStarWarsApplication;
+import com.revature.data.SpeciesRepository;
+import com.revature.data.UserRepository;
+import com.revature.models.Character;
+import com.revature.models.Species;
+import com.revature.models.Stats;
+import com.revature.models.User;
+
+
+/**
+ * Time to create 1000 characters (with their stats) against an H2 database
+ * served over TCP on localhost, so every statement costs a (short) network round
+ * trip as it would against PostgreSQL: one <code>addCharacter</code> transaction per character, as clients
+ * of <code>POST /characters/add</code> do, against a single
+ * <code>addCharacters</code> call, with JDBC batching off
+ * (<code>batchSize=1</code>) and on. The JDBC statements prepared per operation
+ * are printed after each run.
+ *
+ * Run with <code>mvn test-compile</code> followed by the <code>main</code>
+ * method of this class (from the IDE or with the test classpath).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CharacterBatchInsertBenchmark {
+
+    private static final int CHARACTERS = 1000;
+
+    @Param({ "1", "50" })
+    public int batchSize;
+
+    private Server server;
+    private ConfigurableApplicationContext context;
+    private CharacterService service;
+    private Statistics statistics;
+    private User owner;
+    private Species species;
+    private long operations;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        this.server = Server.createTcpServer("-tcpPort", "0", "-ifNotExists").start();
+        this.context = new SpringApplicationBuilder(ProjectStarWarsApplication.class)
+            .web(WebApplicationType.NONE)
+            // command line arguments, so they override application.properties
+            .run("--spring.datasource.url=jdbc:h2:tcp://localhost:" + this.server.getPort() + "/mem:bench",
+                "--spring.datasource.driver-class-name=org.h2.Driver", "--spring.datasource.username=sa",
+                "--spring.datasource.password=", "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.show-sql=false", "--spring.jpa.properties.hibernate.generate_statistics=true",
+                "--spring.jpa.properties.hibernate.jdbc.batch_size=" + this.batchSize, "--logging.level.root=WARN");
+        this.service = this.context.getBean(CharacterService.class);
+        this.statistics = this.context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+        this.owner = this.context.getBean(UserRepository.class).save(new User("bench", "Project2Team6!", "b@x.io"));
+        this.species = this.context.getBean(SpeciesRepository.class).save(new Species("Bench", "A species"));
+    }
+
+    @Setup(Level.Iteration)
+    public void resetStatistics() {
+        this.statistics.clear();
+        this.operations = 0;
+    }
+
+    @TearDown(Level.Iteration)
+    public void printStatistics() {
+        if (this.operations > 0) {
+            System.out.printf("%n  statements/op: %d, inserts/op: %d%n",
+                this.statistics.getPrepareStatementCount() / this.operations,
+                this.statistics.getEntityInsertCount() / this.operations);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        this.context.close();
+        this.server.stop();
+    }
+
+    private List<Character> newCharacters() {
+        List<Character> characters = new ArrayList<>(CHARACTERS);
+        for (int i = 0; i < CHARACTERS; i++) {
+            Character c = new Character("Character" + i, null);
+            c.setOwner(this.owner);
+            c.setSpecies(this.species);
+            c.setStats(new Stats(1, 0, 10, 1, 1, 1, 0));
+            characters.add(c);
+        }
+        return characters;
+    }
+
+    @Benchmark
+    public void oneTransactionPerCharacter() {
+        for (Character c : newCharacters()) {
+            this.service.addCharacter(c, this.owner.getId());
+        }
+        this.operations++;
+    }
+
+    @Benchmark
+    public List<Character> batch() {
+        List<Character> saved = this.service.addCharacters(newCharacters(), this.owner.getId());
+        this.operations++;
+        return saved;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(CharacterBatchInsertBenchmark.class.getSimpleName()).build()).run();
+    }
+
+}
@@ -0,0 +1,74 @@
+package com.revature.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.BDDMockito.given;
+
+import java.util.Collections;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.revature.data.CharacterRepository;
+import com.revature.dto.SearchHit;
+import com.revature.events.CharacterRemovedEvent;
+import com.revature.events.CharacterSavedEvent;
+
+
+@ExtendWith(MockitoExtension.class)
+class CharacterSearchServiceTest {
+
+    @Mock
+    private CharacterRepository mockCharRepo;
+
+    @InjectMocks
+    private CharacterSearchService searchServ;
+
+    @Test
+    void testLoad() {
+        given(this.mockCharRepo.streamNames())
+            .willReturn(Stream.of(new SearchHit(1, "Chewbacca"), new SearchHit(2, "Not Han Solo")));
+
+        this.searchServ.load();
+
+        assertEquals(Collections.singletonList(new SearchHit(1, "Chewbacca")), this.searchServ.search("chew", 10));
+        assertEquals(Collections.singletonList(new SearchHit(2, "Not Han Solo")), this.searchServ.search("han", 10));
+    }
+
+    @Test
+    void testLoad_KeepsChangesMadeDuringLoad() {
+        // rows streamed before the changes committed, read after
+        given(this.mockCharRepo.streamNames()).willReturn(Stream.of(1, 2).map(id -> {
+            if (id == 1) {
+                this.searchServ.onSaved(new CharacterSavedEvent(1, "Chewie", 4, 3, 120, null, null));
+                this.searchServ.onRemoved(new CharacterRemovedEvent(2, null));
+            }
+            return new SearchHit(id, id == 1 ? "Chewbacca" : "Not Han Solo");
+        }));
+
+        this.searchServ.load();
+
+        assertEquals(Collections.singletonList(new SearchHit(1, "Chewie")), this.searchServ.search("chew", 10));
+        assertEquals(Collections.emptyList(), this.searchServ.search("han", 10));
+    }
+
+    @Test
+    void testOnSaved_AddsAndRenames() {
+        this.searchServ.onSaved(new CharacterSavedEvent(1, "Chewbacca", 4, 3, 120, null, null));
+        this.searchServ.onSaved(new CharacterSavedEvent(1, "Chewie", 4, 3, 120, null, null));
+
+        assertEquals(Collections.singletonList(new SearchHit(1, "Chewie")), this.searchServ.search("chew", 10));
+    }
+
+    @Test
+    void testOnRemoved() {
+        this.searchServ.onSaved(new CharacterSavedEvent(1, "Chewbacca", 4, 3, 120, null, null));
+        this.searchServ.onRemoved(new CharacterRemovedEvent(1, null));
+
+        assertEquals(Collections.emptyList(), this.searchServ.search("chew", 10));
+    }
+
+}
@@ -4,9 +4,11 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
-import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
 import static org.mockito.BDDMockito.willDoNothing;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -14,21 +16,39 @@ import static org.mockito.Mockito.verify;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
-import java.util.Set;
+import java.util.stream.Stream;
+
+import javax.persistence.EntityManager;
+import javax.persistence.LockModeType;
 
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 
 import com.google.gson.Gson;
 import com.revature.data.CharacterRepository;
+import com.revature.dto.CharacterExportRow;
+import com.revature.dto.CharacterState;
+import com.revature.dto.CharacterSummary;
+import com.revature.dto.PageResponse;
+import com.revature.dto.StatsDelta;
+import com.revature.events.CharacterRemovedEvent;
+import com.revature.events.CharacterSavedEvent;
+import com.revature.events.CharacterTally;
 import com.revature.exceptions.CharacterNotFoundException;
+import com.revature.exceptions.ForbiddenException;
+import com.revature.exceptions.PreconditionFailedException;
 import com.revature.models.Character;
 import com.revature.models.Species;
+import com.revature.models.Stats;
 import com.revature.models.User;
 
 
@@ -38,6 +58,15 @@ class CharacterServiceTest {
     @Mock
     private CharacterRepository mockCharRepo;
 
+    @Mock
+    private EntityManager mockEm;
+
+    @Mock
+    private ApplicationEventPublisher mockEvents;
+
+    @Mock
+    private StatsWriteBuffer mockStatsBuffer;
+
     @InjectMocks
     private CharacterService cServ;
 
@@ -76,65 +105,164 @@ class CharacterServiceTest {
         Character expected = cloneCharacter(this.dummyCharacter);
         given(this.mockCharRepo.save(this.dummyCharacter)).willReturn(expected);
 
-        Character actual = this.cServ.addCharacter(this.dummyCharacter);
+        Character actual = this.cServ.addCharacter(this.dummyCharacter, 1);
 
         assertEquals(expected, actual);
         verify(this.mockCharRepo, times(1)).save(this.dummyCharacter);
+        verify(this.mockEvents, times(1)).publishEvent(CharacterSavedEvent.of(expected));
+    }
+
+    @Test
+    void testAddCharacters() {
+        List<Character> characters = new ArrayList<>();
+        characters.add(this.dummyCharacter);
+        given(this.mockCharRepo.saveAll(characters)).willReturn(characters);
+
+        List<Character> actual = this.cServ.addCharacters(characters, 1);
+
+        assertEquals(characters, actual);
+        verify(this.mockCharRepo, times(1)).saveAll(characters);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testAddCharacters_OwnedByCaller() {
+        User other = new User(2, "buser", "Project2Team6!", "buser@dat.boi");
+        List<Character> characters = new ArrayList<>();
+        characters.add(new Character(0, "Greedo", null, null, null, other));
+        characters.add(new Character(0, "Bossk", null, null, null, this.dummyUser));
+        given(this.mockCharRepo.saveAll(characters)).willReturn(characters);
+
+        this.cServ.addCharacters(characters, 1);
+
+        // nothing is created for the user the batch named
+        ArgumentCaptor<List<Character>> saved = ArgumentCaptor.forClass(List.class);
+        verify(this.mockCharRepo).saveAll(saved.capture());
+        for (Character c : saved.getValue()) {
+            assertEquals(1, c.getOwner().getId());
+        }
+    }
+
+    @Test
+    void testAddCharacter_OwnedByCaller() {
+        Character c = new Character(0, "Greedo", null, null, null, new User(2, "buser", "Project2Team6!", "b@dat.boi"));
+        given(this.mockCharRepo.save(c)).willReturn(c);
+
+        this.cServ.addCharacter(c, 1);
+
+        assertEquals(1, c.getOwner().getId());
     }
 
     @Test
     void testFindAll() {
-        User user2 = new User("asdf", "AW33kPa$$W0rd", "asdf@asdf.com");
-        List<Character> expected = new ArrayList<>();
-        expected.add(this.dummyCharacter);
-        expected.add(new Character(2, "Not Han Solo", null, null, null, this.dummyUser));
-        expected.add(new Character(3, "Jabba", null, null, null, user2));
-        given(this.mockCharRepo.findAll()).willReturn(expected);
+        List<CharacterSummary> expected = new ArrayList<>();
+        expected.add(new CharacterSummary(1, "Chewbacca", "Wookiee", null, 3, 1));
+        expected.add(new CharacterSummary(2, "Not Han Solo", "Human", null, null, 1));
+        expected.add(new CharacterSummary(3, "Jabba", "Hutt", null, 9, 2));
+        given(this.mockCharRepo.findAllSummaries()).willReturn(expected);
 
-        Set<Character> actual = this.cServ.findAll();
+        List<CharacterSummary> actual = this.cServ.findAll();
 
-        assertEquals(expected.size(), actual.size());
-        assertTrue(expected.containsAll(actual));
-        verify(this.mockCharRepo, times(1)).findAll();
+        assertEquals(expected, actual);
+        verify(this.mockCharRepo, times(1)).findAllSummaries();
+    }
+
+    @Test
+    void testFindPage() {
+        PageRequest request = PageRequest.of(1, 2);
+        List<CharacterSummary> content = new ArrayList<>();
+        content.add(new CharacterSummary(3, "Jabba", "Hutt", null, 9, 1));
+        content.add(new CharacterSummary(4, "Yoda", "Unknown", null, 99, 1));
+        given(this.mockCharRepo.findSummaries(request)).willReturn(new PageImpl<>(content, request, 5));
+
+        PageResponse<CharacterSummary> actual = this.cServ.findPage(1, 2);
+
+        assertEquals(content, actual.getItems());
+        assertEquals("2", actual.getNextCursor());
+        assertEquals(5L, actual.getTotalElements());
+    }
+
+    @Test
+    void testFindAfter_HasNext() {
+        List<CharacterSummary> rows = new ArrayList<>();
+        rows.add(new CharacterSummary(4, "Yoda", "Unknown", null, 99, 1));
+        rows.add(new CharacterSummary(7, "Jabba", "Hutt", null, 9, 1));
+        rows.add(new CharacterSummary(9, "Lando", "Human", null, 5, 1));
+        given(this.mockCharRepo.findSummariesAfter(3, PageRequest.of(0, 3))).willReturn(rows);
+
+        PageResponse<CharacterSummary> actual = this.cServ.findAfter(3, 2);
+
+        assertEquals(rows.subList(0, 2), actual.getItems());
+        assertEquals("7", actual.getNextCursor());
+        assertNull(actual.getTotalElements());
+    }
+
+    @Test
+    void testFindAfter_LastPage() {
+        List<CharacterSummary> rows = new ArrayList<>();
+        rows.add(new CharacterSummary(1, "Chewbacca", "Wookiee", null, 3, 1));
+        given(this.mockCharRepo.findSummariesAfter(0, PageRequest.of(0, 21))).willReturn(rows);
+
+        PageResponse<CharacterSummary> actual = this.cServ.findAfter(0, 20);
+
+        assertEquals(rows, actual.getItems());
+        assertNull(actual.getNextCursor());
+    }
+
+    @Test
+    void testExport() {
+        Species wookiee = new Species(4, "Wookiee", "Tall and hairy");
+        Stats stats = new Stats(3, 120, 80, 12, 10, 7, 0);
+        Character chewie = new Character(1, "Chewbacca", wookiee, null, stats, this.dummyUser);
+        Character han = new Character(2, "Not Han Solo", wookiee, null, null, this.dummyUser);
+        given(this.mockCharRepo.streamAllForExport()).willReturn(Stream.of(chewie, han));
+
+        List<CharacterExportRow> rows = new ArrayList<>();
+        long count = this.cServ.export(rows::add);
+
+        assertEquals(2, count);
+        assertEquals(new CharacterExportRow(1, "Chewbacca", null, 4, "Wookiee", 1, 3, 120, 80, 12, 10, 7, 0),
+            rows.get(0));
+        assertEquals(new CharacterExportRow(2, "Not Han Solo", null, 4, "Wookiee", 1, null, null, null, null, null,
+            null, null), rows.get(1));
     }
 
     @Test
     void testFindByOwnerId_Success() {
         int id = this.dummyUser.getId();
 
-        List<Character> expected = new ArrayList<>();
-        expected.add(this.dummyCharacter);
-        expected.add(new Character(2, "Not Han Solo", null, null, null, this.dummyUser));
-        given(this.mockCharRepo.findByOwnerId(id)).willReturn(expected);
+        List<CharacterSummary> expected = new ArrayList<>();
+        expected.add(new CharacterSummary(1, "Chewbacca", "Wookiee", null, 3, id));
+        expected.add(new CharacterSummary(2, "Not Han Solo", "Human", null, null, id));
+        given(this.mockCharRepo.findSummariesByOwnerId(id)).willReturn(expected);
 
-        Set<Character> actual = this.cServ.findByOwnerId(id);
+        List<CharacterSummary> actual = this.cServ.findByOwnerId(id);
 
-        assertEquals(expected.size(), actual.size());
-        assertTrue(expected.containsAll(actual));
-        verify(this.mockCharRepo, times(1)).findByOwnerId(id);
+        assertEquals(expected, actual);
+        verify(this.mockCharRepo, times(1)).findSummariesByOwnerId(id);
     }
 
     @Test
     void testFindByOwnerId_Success_NoCharacters() {
         int id = this.dummyUser.getId();
-        List<Character> expected = new ArrayList<>();
-        given(this.mockCharRepo.findByOwnerId(id)).willReturn(expected);
+        List<CharacterSummary> expected = new ArrayList<>();
+        given(this.mockCharRepo.findSummariesByOwnerId(id)).willReturn(expected);
 
-        Set<Character> actual = this.cServ.findByOwnerId(id);
+        List<CharacterSummary> actual = this.cServ.findByOwnerId(id);
 
         assertEquals(0, actual.size());
-        verify(this.mockCharRepo, times(1)).findByOwnerId(id);
+        verify(this.mockCharRepo, times(1)).findSummariesByOwnerId(id);
     }
 
     @Test
     void testFindByOwnerId_Failure_UnknownId() {
         int id = this.dummyUser.getId();
-        given(this.mockCharRepo.findByOwnerId(id)).willReturn(new ArrayList<Character>());
+        given(this.mockCharRepo.findSummariesByOwnerId(id)).willReturn(new ArrayList<CharacterSummary>());
 
-        Set<Character> actual = this.cServ.findByOwnerId(id);
+        List<CharacterSummary> actual = this.cServ.findByOwnerId(id);
 
         assertEquals(0, actual.size());
-        verify(this.mockCharRepo, times(1)).findByOwnerId(id);
+        verify(this.mockCharRepo, times(1)).findSummariesByOwnerId(id);
     }
 
     @Test
@@ -142,11 +270,11 @@ class CharacterServiceTest {
         String name = this.dummyCharacter.getName();
         List<Character> expectedList = new ArrayList<>();
         expectedList.add(this.dummyCharacter);
-        given(this.mockCharRepo.findByName(name)).willReturn(expectedList);
+        given(this.mockCharRepo.findFirstByNameOrderByIdAsc(name)).willReturn(Optional.of(expectedList.get(0)));
 
         Character actual = this.cServ.findByName(name);
 
-        verify(this.mockCharRepo, times(1)).findByName(name);
+        verify(this.mockCharRepo, times(1)).findFirstByNameOrderByIdAsc(name);
         assertEquals(expectedList.get(0), actual);
     }
 
@@ -157,21 +285,21 @@ class CharacterServiceTest {
         List<Character> expected = new ArrayList<>();
         expected.add(this.dummyCharacter);
         expected.add(new Character(2, name, null, null, null, this.dummyUser));
-        given(this.mockCharRepo.findByName(name)).willReturn(expected);
+        given(this.mockCharRepo.findFirstByNameOrderByIdAsc(name)).willReturn(Optional.of(expected.get(0)));
 
         Character actual = this.cServ.findByName(name);
 
         assertEquals(expected.get(0), actual);
-        verify(this.mockCharRepo, times(1)).findByName(name);
+        verify(this.mockCharRepo, times(1)).findFirstByNameOrderByIdAsc(name);
     }
 
     @Test
     void testFindByName_Failure_UnknownName() {
         String name = "Anonymous";
-        given(this.mockCharRepo.findByName(name)).willThrow(new CharacterNotFoundException());
+        given(this.mockCharRepo.findFirstByNameOrderByIdAsc(name)).willReturn(Optional.empty());
 
         assertThrows(CharacterNotFoundException.class, () -> this.cServ.findByName(name));
-        verify(this.mockCharRepo, times(1)).findByName(name);
+        verify(this.mockCharRepo, times(1)).findFirstByNameOrderByIdAsc(name);
     }
 
     @Test
@@ -234,10 +362,22 @@ class CharacterServiceTest {
     @Test
     void testRemove() {
         int id = this.dummyCharacter.getId();
-        willDoNothing().given(this.mockCharRepo).deleteById(id);
+        given(this.mockCharRepo.findById(id)).willReturn(Optional.of(this.dummyCharacter));
+        willDoNothing().given(this.mockCharRepo).delete(this.dummyCharacter);
 
         this.cServ.remove(id);
-        verify(this.mockCharRepo, times(1)).deleteById(id);
+        verify(this.mockCharRepo, times(1)).delete(this.dummyCharacter);
+        verify(this.mockEvents, times(1))
+            .publishEvent(new CharacterRemovedEvent(id, CharacterTally.of(this.dummyCharacter)));
+    }
+
+    @Test
+    void testRemove_Failure_UnknownId() {
+        given(this.mockCharRepo.findById(1)).willReturn(Optional.empty());
+
+        assertThrows(CharacterNotFoundException.class, () -> this.cServ.remove(1));
+        verify(this.mockCharRepo, never()).delete(any());
+        verify(this.mockEvents, never()).publishEvent(any());
     }
 
     @Test
@@ -252,6 +392,159 @@ class CharacterServiceTest {
         assertEquals(expected, actual);
         assertNotEquals(dummyCharacterOld, actual);
         verify(this.mockCharRepo, times(1)).save(this.dummyCharacter);
+        verify(this.mockEvents, times(1)).publishEvent(CharacterSavedEvent.of(this.dummyCharacter));
+    }
+
+    @Test
+    void testUpdate_AsOwner() {
+        int ownerId = this.dummyUser.getId();
+        this.dummyCharacter.setVersion(3);
+        given(this.mockCharRepo.findStateById(this.dummyCharacter.getId())).willReturn(Optional.of(state(ownerId, 3)));
+        given(this.mockCharRepo.save(this.dummyCharacter)).willReturn(this.dummyCharacter);
+
+        Character actual = this.cServ.update(this.dummyCharacter, ownerId);
+
+        assertEquals(ownerId, actual.getOwner().getId());
+        assertEquals(3, actual.getVersion());
+        verify(this.mockCharRepo, times(1)).save(this.dummyCharacter);
+        // the aggregates take away what the character counted for before the update
+        verify(this.mockEvents, times(1))
+            .publishEvent(CharacterSavedEvent.of(this.dummyCharacter, new CharacterTally(4, 2, 9)));
+    }
+
+    @Test
+    void testUpdate_Failure_NotOwner() {
+        given(this.mockCharRepo.findStateById(this.dummyCharacter.getId())).willReturn(Optional.of(state(2, 0)));
+
+        assertThrows(ForbiddenException.class, () -> this.cServ.update(this.dummyCharacter, 1));
+        verify(this.mockCharRepo, never()).save(any());
+    }
+
+    @Test
+    void testUpdate_Failure_UnknownCharacter() {
+        given(this.mockCharRepo.findStateById(this.dummyCharacter.getId())).willReturn(Optional.empty());
+
+        assertThrows(CharacterNotFoundException.class, () -> this.cServ.update(this.dummyCharacter, 1));
+        verify(this.mockCharRepo, never()).save(any());
+    }
+
+    @Test
+    void testUpdate_IfMatch_Success() {
+        CharacterState current = state(1, 3);
+        given(this.mockCharRepo.findStateById(this.dummyCharacter.getId())).willReturn(Optional.of(current));
+        given(this.mockCharRepo.save(this.dummyCharacter)).willReturn(this.dummyCharacter);
+
+        this.cServ.update(this.dummyCharacter, 1, current.etag());
+
+        // the ETag stands for the version the client read
+        assertEquals(3, this.dummyCharacter.getVersion());
+        verify(this.mockCharRepo, times(1)).save(this.dummyCharacter);
+    }
+
+    @Test
+    void testUpdate_KeepsVersionWithoutIfMatch() {
+        this.dummyCharacter.setVersion(2);
+        given(this.mockCharRepo.findStateById(this.dummyCharacter.getId())).willReturn(Optional.of(state(1, 3)));
+        given(this.mockCharRepo.save(this.dummyCharacter)).willReturn(this.dummyCharacter);
+
+        this.cServ.update(this.dummyCharacter, 1, null);
+
+        // left for the save to find stale
+        assertEquals(2, this.dummyCharacter.getVersion());
+    }
+
+    @Test
+    void testUpdate_Failure_IfMatchStale() {
+        String stale = state(1, 2).etag();
+        given(this.mockCharRepo.findStateById(this.dummyCharacter.getId())).willReturn(Optional.of(state(1, 3)));
+
+        assertThrows(PreconditionFailedException.class, () -> this.cServ.update(this.dummyCharacter, 1, stale));
+        verify(this.mockCharRepo, never()).save(any());
+    }
+
+    @Test
+    void testGetETag_ChangesWithVersion() {
+        given(this.mockCharRepo.findStateById(1)).willReturn(Optional.of(state(1, 3)));
+        given(this.mockCharRepo.findStateById(2)).willReturn(Optional.of(state(1, 4)));
+
+        assertNotEquals(this.cServ.getETag(1), this.cServ.getETag(2));
+        assertEquals(state(1, 3).etag(), this.cServ.getETag(1));
+    }
+
+    @Test
+    void testAddToStats_Success() {
+        StatsDelta delta = new StatsDelta(150, 0, 2, 0, 0, 0);
+        this.dummyCharacter.setSpecies(new Species(4, "Wookiee", "Tall and hairy"));
+        this.dummyCharacter.setStats(new Stats(1, 20, 80, 10, 10, 7, 0));
+        given(this.mockEm.find(Character.class, 1, LockModeType.PESSIMISTIC_WRITE)).willReturn(this.dummyCharacter);
+        given(this.mockCharRepo.addToStats(1, delta)).willReturn(1);
+        // what the database holds after the update
+        willAnswer(inv -> {
+            this.dummyCharacter.setStats(new Stats(2, 170, 80, 12, 10, 7, 0));
+            return null;
+        }).given(this.mockEm).refresh(this.dummyCharacter);
+
+        Stats actual = this.cServ.addToStats(1, delta, this.dummyUser.getId());
+
+        assertEquals(new Stats(2, 170, 80, 12, 10, 7, 0), actual);
+        verify(this.mockEvents, times(1))
+            .publishEvent(CharacterSavedEvent.of(this.dummyCharacter, new CharacterTally(4, 1, 10)));
+    }
+
+    @Test
+    void testAddToStats_Failure_UnknownCharacter() {
+        given(this.mockEm.find(Character.class, 1, LockModeType.PESSIMISTIC_WRITE)).willReturn(null);
+
+        assertThrows(CharacterNotFoundException.class, () -> this.cServ.addToStats(1, new StatsDelta(), 1));
+        verify(this.mockCharRepo, never()).addToStats(anyInt(), any());
+    }
+
+    @Test
+    void testAddToStats_Failure_NotOwner() {
+        given(this.mockEm.find(Character.class, 1, LockModeType.PESSIMISTIC_WRITE)).willReturn(this.dummyCharacter);
+
+        assertThrows(ForbiddenException.class, () -> this.cServ.addToStats(1, new StatsDelta(), 2));
+        verify(this.mockCharRepo, never()).addToStats(anyInt(), any());
+        verify(this.mockEvents, never()).publishEvent(any());
+    }
+
+    @Test
+    void testAddToStatsLater_Success_OwnerReadOnce() {
+        StatsDelta delta = new StatsDelta(10, 0, 0, 0, 0, 0);
+        given(this.mockCharRepo.findOwnerIdById(1)).willReturn(Optional.of(this.dummyUser.getId()));
+
+        this.cServ.addToStatsLater(1, delta, this.dummyUser.getId());
+        this.cServ.addToStatsLater(1, delta, this.dummyUser.getId());
+
+        verify(this.mockStatsBuffer, times(2)).add(1, delta);
+        verify(this.mockCharRepo, times(1)).findOwnerIdById(1);
+    }
+
+    @Test
+    void testAddToStatsLater_Failure_UnknownCharacter() {
+        given(this.mockCharRepo.findOwnerIdById(1)).willReturn(Optional.empty());
+
+        assertThrows(CharacterNotFoundException.class, () -> this.cServ.addToStatsLater(1, new StatsDelta(), 1));
+        verify(this.mockStatsBuffer, never()).add(anyInt(), any());
+    }
+
+    @Test
+    void testAddToStatsLater_Failure_NotOwner() {
+        given(this.mockCharRepo.findOwnerIdById(1)).willReturn(Optional.of(this.dummyUser.getId()));
+
+        assertThrows(ForbiddenException.class, () -> this.cServ.addToStatsLater(1, new StatsDelta(), 2));
+        verify(this.mockStatsBuffer, never()).add(anyInt(), any());
+    }
+
+    @Test
+    void testGetETag_Failure_UnknownCharacter() {
+        given(this.mockCharRepo.findStateById(1)).willReturn(Optional.empty());
+
+        assertThrows(CharacterNotFoundException.class, () -> this.cServ.getETag(1));
+    }
+
+    private static CharacterState state(int ownerId, int version) {
+        return new CharacterState(ownerId, version, 0, "auser", "auser@dat.boi", 4, 2, 9);
     }
 
 }
@@ -0,0 +1,125 @@
+package com.revature.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.BDDMockito.given;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.revature.data.CharacterRepository;
+import com.revature.dto.CharacterScore;
+import com.revature.dto.RankedCharacter;
+import com.revature.events.CharacterRemovedEvent;
+import com.revature.events.CharacterSavedEvent;
+import com.revature.exceptions.CharacterNotFoundException;
+
+
+@ExtendWith(MockitoExtension.class)
+class LeaderboardServiceTest {
+
+    @Mock
+    private CharacterRepository mockCharRepo;
+
+    @InjectMocks
+    private LeaderboardService boardServ;
+
+    private static List<Integer> ids(List<RankedCharacter> ranked) {
+        List<Integer> ids = new ArrayList<>();
+        for (RankedCharacter r : ranked) {
+            ids.add(r.getId());
+        }
+        return ids;
+    }
+
+    @Test
+    void testLoad() {
+        given(this.mockCharRepo.streamScores()).willReturn(Stream.of(new CharacterScore(1, "Chewbacca", 4, 3, 120),
+            new CharacterScore(2, "Luke", 1, 9, 900), new CharacterScore(3, "Leia", 1, 9, 950)));
+
+        this.boardServ.load();
+
+        assertEquals(Arrays.asList(3, 2, 1), ids(this.boardServ.top(null, 10)));
+        assertEquals(Arrays.asList(3, 2), ids(this.boardServ.top(1, 10)));
+        assertEquals(Arrays.asList(1), ids(this.boardServ.top(4, 10)));
+        assertEquals(Collections.emptyList(), this.boardServ.top(99, 10));
+    }
+
+    @Test
+    void testLoad_KeepsChangesMadeDuringLoad() {
+        // rows streamed before the changes committed, read after
+        given(this.mockCharRepo.streamScores()).willReturn(Stream.of(1, 2).map(id -> {
+            if (id == 1) {
+                this.boardServ.onSaved(new CharacterSavedEvent(1, "Chewbacca", 4, 5, 10, null, null));
+                this.boardServ.onRemoved(new CharacterRemovedEvent(2, null));
+            }
+            return id == 1 ? new CharacterScore(1, "Chewbacca", 4, 3, 120) : new CharacterScore(2, "Luke", 1, 9, 900);
+        }));
+
+        this.boardServ.load();
+
+        assertEquals(Arrays.asList(1), ids(this.boardServ.top(null, 10)));
+        assertEquals(5, this.boardServ.rankOf(1, null).getLevel());
+    }
+
+    @Test
+    void testRankOf_Success() {
+        this.boardServ.onSaved(new CharacterSavedEvent(1, "Chewbacca", 4, 10, 0, null, null));
+        this.boardServ.onSaved(new CharacterSavedEvent(2, "Luke", 1, 3, 0, null, null));
+
+        assertEquals(2, this.boardServ.rankOf(2, null).getRank());
+        assertEquals(1, this.boardServ.rankOf(2, 1).getRank());
+    }
+
+    @Test
+    void testRankOf_Failure_NotRankedThere() {
+        this.boardServ.onSaved(new CharacterSavedEvent(1, "Chewbacca", 4, 10, 0, null, null));
+        this.boardServ.onSaved(new CharacterSavedEvent(2, "Luke", 1, null, null, null, null));
+
+        assertThrows(CharacterNotFoundException.class, () -> this.boardServ.rankOf(1, 1));
+        assertThrows(CharacterNotFoundException.class, () -> this.boardServ.rankOf(2, null));
+        assertThrows(CharacterNotFoundException.class, () -> this.boardServ.rankOf(3, null));
+    }
+
+    @Test
+    void testOnSaved_ChangingSpeciesMovesBoards() {
+        this.boardServ.onSaved(new CharacterSavedEvent(1, "Chewbacca", 4, 10, 0, null, null));
+        this.boardServ.onSaved(new CharacterSavedEvent(1, "Chewbacca", 5, 11, 0, null, null));
+
+        assertEquals(Collections.emptyList(), this.boardServ.top(4, 10));
+        assertEquals(Arrays.asList(1), ids(this.boardServ.top(5, 10)));
+        assertEquals(11, this.boardServ.rankOf(1, null).getLevel());
+    }
+
+    @Test
+    void testOnRemoved() {
+        this.boardServ.onSaved(new CharacterSavedEvent(1, "Chewbacca", 4, 10, 0, null, null));
+        this.boardServ.onRemoved(new CharacterRemovedEvent(1, null));
+
+        assertEquals(Collections.emptyList(), this.boardServ.top(null, 10));
+        assertEquals(Collections.emptyList(), this.boardServ.top(4, 10));
+    }
+
+    @Test
+    void testAround() {
+        for (int id = 1; id <= 20; id++) {
+            this.boardServ.onSaved(new CharacterSavedEvent(id, "c" + id, 1, id, 0, null, null));
+        }
+
+        List<RankedCharacter> around = this.boardServ.around(null, 10, 2);
+
+        assertEquals(Arrays.asList(13, 12, 11, 10, 9), ids(around));
+        assertEquals(8, around.get(0).getRank());
+        assertEquals(Arrays.asList(20, 19, 18), ids(this.boardServ.around(null, 1, 2)));
+    }
+
+}
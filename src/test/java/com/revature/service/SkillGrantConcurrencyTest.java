@@ -0,0 +1,115 @@
+package com.revature.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.revature.data.CharacterRepository;
+import com.revature.data.SkillsRepository;
+import com.revature.data.SpeciesRepository;
+import com.revature.data.UserRepository;
+import com.revature.models.Character;
+import com.revature.models.Skills;
+import com.revature.models.Species;
+import com.revature.models.User;
+
+
+/**
+ * Grants run in transactions of their own, committed, so they can race like
+ * concurrent requests do.
+ */
+@DataJpaTest(properties = "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SkillGrantConcurrencyTest {
+
+    @Autowired
+    private CharacterRepository charRepo;
+
+    @Autowired
+    private SkillsRepository skillRepo;
+
+    @Autowired
+    private SpeciesRepository speciesRepo;
+
+    @Autowired
+    private UserRepository userRepo;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate tx;
+    private User owner;
+    private Species species;
+    private Character character;
+    private Skills skill;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        this.tx = new TransactionTemplate(this.transactionManager);
+        this.tx.executeWithoutResult(status -> {
+            this.owner = this.userRepo.save(new User("grantee", "Project2Team6!", "grantee@dat.boi"));
+            this.species = this.speciesRepo.save(new Species("Grantee species", "A species"));
+            Character c = new Character("Grantee", null);
+            c.setOwner(this.owner);
+            c.setSpecies(this.species);
+            this.character = this.charRepo.save(c);
+            this.skill = this.skillRepo.save(new Skills("Force Grant", "A skill", "fp", 1));
+        });
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        this.jdbc.update("delete from character_and_skill where character_id = ?", this.character.getId());
+        this.jdbc.update("delete from characters where id = ?", this.character.getId());
+        this.jdbc.update("delete from skills where id = ?", this.skill.getId());
+        this.jdbc.update("delete from species where id = ?", this.species.getId());
+        this.jdbc.update("delete from users where user_id = ?", this.owner.getId());
+    }
+
+    @Test
+    void testGrant_Concurrent_SameSkillGrantedOnce() throws Exception {
+        SkillService skServ = new SkillService(this.skillRepo, this.charRepo);
+        int threads = 8;
+        CyclicBarrier start = new CyclicBarrier(threads);
+        List<Throwable> failures = Collections.synchronizedList(new ArrayList<>());
+        List<Thread> granting = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            Thread t = new Thread(() -> {
+                try {
+                    start.await();
+                    this.tx.executeWithoutResult(
+                        status -> skServ.grant(this.character.getId(), this.skill.getId(), this.owner.getId()));
+                } catch (Exception e) {
+                    failures.add(e);
+                }
+            });
+            t.start();
+            granting.add(t);
+        }
+        for (Thread t : granting) {
+            t.join();
+        }
+
+        assertEquals(Collections.emptyList(), failures);
+        assertEquals(Collections.singletonList(this.skill.getId()),
+            this.skillRepo.findSkillIdsByCharacterId(this.character.getId()));
+    }
+
+}
@@ -0,0 +1,222 @@
+package com.revature.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+
+import com.revature.data.CharacterRepository;
+import com.revature.data.SkillsRepository;
+import com.revature.dto.CharacterSkills;
+import com.revature.dto.PageResponse;
+import com.revature.exceptions.CharacterNotFoundException;
+import com.revature.exceptions.ForbiddenException;
+import com.revature.exceptions.SkillNotFoundException;
+import com.revature.models.Character;
+import com.revature.models.Skills;
+import com.revature.util.SkillSet;
+
+
+@ExtendWith(MockitoExtension.class)
+class SkillServiceTest {
+
+    @Mock
+    private SkillsRepository mockSkillRepo;
+
+    @Mock
+    private CharacterRepository mockCharRepo;
+
+    @InjectMocks
+    private SkillService skServ;
+
+    private Skills push;
+    private Skills choke;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        this.push = new Skills(1, "Force Push", "Pushes things", "fp", 10, null);
+        this.choke = new Skills(2, "Force Choke", "Chokes things", "fp", 20, null);
+    }
+
+    @Test
+    void testFindAll_LoadedOnce() {
+        given(this.mockSkillRepo.findAll()).willReturn(Arrays.asList(this.choke, this.push));
+
+        assertEquals(Arrays.asList(this.push, this.choke), this.skServ.findAll());
+        assertEquals(this.choke, this.skServ.findById(2));
+        verify(this.mockSkillRepo, times(1)).findAll();
+        verify(this.mockSkillRepo, never()).findById(anyInt());
+    }
+
+    @Test
+    void testFindById_Success_ReadThrough() {
+        given(this.mockSkillRepo.findAll()).willReturn(Collections.singletonList(this.push));
+        given(this.mockSkillRepo.findById(2)).willReturn(Optional.of(this.choke));
+
+        assertEquals(this.choke, this.skServ.findById(2));
+        assertEquals(Arrays.asList(this.push, this.choke), this.skServ.findAll());
+    }
+
+    @Test
+    void testFindById_Failure_UnknownId() {
+        given(this.mockSkillRepo.findAll()).willReturn(Collections.singletonList(this.push));
+        given(this.mockSkillRepo.findById(9)).willReturn(Optional.empty());
+
+        assertThrows(SkillNotFoundException.class, () -> this.skServ.findById(9));
+    }
+
+    @Test
+    void testAdd_AddedToCatalog() {
+        Skills lift = new Skills("Force Lift", "Lifts things", "fp", 5);
+        Skills saved = new Skills(3, "Force Lift", "Lifts things", "fp", 5, null);
+        given(this.mockSkillRepo.save(lift)).willReturn(saved);
+        given(this.mockSkillRepo.findAll()).willReturn(Collections.singletonList(this.push));
+
+        assertEquals(saved, this.skServ.add(lift));
+        assertEquals(Arrays.asList(this.push, saved), this.skServ.findAll());
+    }
+
+    @Test
+    void testAdd_IgnoresClientId() {
+        Skills overwrite = new Skills(this.push.getId(), "Force Lift", "Lifts things", "fp", 5, null);
+        Skills saved = new Skills(3, "Force Lift", "Lifts things", "fp", 5, null);
+        given(this.mockSkillRepo.save(overwrite)).willReturn(saved);
+
+        assertEquals(saved, this.skServ.add(overwrite));
+        assertEquals(0, overwrite.getId());
+    }
+
+    @Test
+    void testAdd_CatalogKeepsItsOwnCopy() {
+        Skills lift = new Skills("Force Lift", "Lifts things", "fp", 5);
+        Skills saved = new Skills(3, "Force Lift", "Lifts things", "fp", 5, null);
+        given(this.mockSkillRepo.save(lift)).willReturn(saved);
+        given(this.mockSkillRepo.findAll()).willReturn(Collections.singletonList(this.push));
+
+        this.skServ.add(lift).setPower(500);
+
+        assertEquals(5, this.skServ.findAll().get(1).getPower());
+    }
+
+    @Test
+    void testReload_KeepsSkillsAddedDuringReload() {
+        Skills lift = new Skills("Force Lift", "Lifts things", "fp", 5);
+        Skills saved = new Skills(3, "Force Lift", "Lifts things", "fp", 5, null);
+        given(this.mockSkillRepo.save(lift)).willReturn(saved);
+        given(this.mockSkillRepo.findAll()).willReturn(Collections.singletonList(this.push))
+            .willAnswer(inv -> {
+                this.skServ.add(lift);
+                return Collections.singletonList(this.push);
+            });
+        this.skServ.findAll();
+
+        this.skServ.reload();
+
+        assertEquals(Arrays.asList(this.push, saved), this.skServ.findAll());
+    }
+
+    @Test
+    void testFindByCharacterId_Success() {
+        given(this.mockSkillRepo.findAll()).willReturn(Arrays.asList(this.push, this.choke));
+        given(this.mockSkillRepo.findSkillIdsByCharacterId(7)).willReturn(Arrays.asList(2, 1));
+
+        assertEquals(Arrays.asList(this.push, this.choke), this.skServ.findByCharacterId(7));
+    }
+
+    @Test
+    void testFindByCharacterId_Success_NoSkills() {
+        given(this.mockSkillRepo.findSkillIdsByCharacterId(7)).willReturn(Collections.emptyList());
+        given(this.mockCharRepo.existsById(7)).willReturn(true);
+
+        assertEquals(Collections.emptyList(), this.skServ.findByCharacterId(7));
+    }
+
+    @Test
+    void testFindByCharacterId_Failure_UnknownCharacter() {
+        given(this.mockSkillRepo.findSkillIdsByCharacterId(7)).willReturn(Collections.emptyList());
+        given(this.mockCharRepo.existsById(7)).willReturn(false);
+
+        assertThrows(CharacterNotFoundException.class, () -> this.skServ.findByCharacterId(7));
+    }
+
+    @Test
+    void testFindAfter() {
+        given(this.mockCharRepo.findIdsAfter(2, PageRequest.of(0, 3))).willReturn(Arrays.asList(3, 4));
+        given(this.mockSkillRepo.findSkillIdsByCharacterIds(Arrays.asList(3, 4)))
+            .willReturn(Arrays.asList(new Object[] { 3, 2 }, new Object[] { 3, 1 }));
+
+        PageResponse<CharacterSkills> page = this.skServ.findAfter(2, 2);
+
+        assertEquals(Arrays.asList(new CharacterSkills(3, SkillSet.of(Arrays.asList(1, 2))),
+            new CharacterSkills(4, SkillSet.empty())), page.getItems());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void testGrant_Success() {
+        given(this.mockCharRepo.lockOwnerIdById(7)).willReturn(Optional.of(5));
+        given(this.mockSkillRepo.findAll()).willReturn(Arrays.asList(this.push, this.choke));
+        given(this.mockSkillRepo.findSkillIdsByCharacterId(7)).willReturn(Collections.singletonList(1));
+
+        CharacterSkills actual = this.skServ.grant(7, 2, 5);
+
+        assertEquals(new CharacterSkills(7, SkillSet.of(Arrays.asList(1, 2))), actual);
+        verify(this.mockSkillRepo, times(1)).grant(7, 2);
+    }
+
+    @Test
+    void testGrant_Success_AlreadyGranted() {
+        given(this.mockCharRepo.lockOwnerIdById(7)).willReturn(Optional.of(5));
+        given(this.mockSkillRepo.findAll()).willReturn(Arrays.asList(this.push, this.choke));
+        given(this.mockSkillRepo.findSkillIdsByCharacterId(7)).willReturn(Arrays.asList(1, 2));
+
+        CharacterSkills actual = this.skServ.grant(7, 2, 5);
+
+        assertEquals(new CharacterSkills(7, SkillSet.of(Arrays.asList(1, 2))), actual);
+        verify(this.mockSkillRepo, never()).grant(anyInt(), anyInt());
+    }
+
+    @Test
+    void testGrant_Failure_NotOwner() {
+        given(this.mockCharRepo.lockOwnerIdById(7)).willReturn(Optional.of(5));
+
+        assertThrows(ForbiddenException.class, () -> this.skServ.grant(7, 2, 6));
+        verify(this.mockSkillRepo, never()).grant(anyInt(), anyInt());
+    }
+
+    @Test
+    void testGrant_Failure_UnknownCharacter() {
+        given(this.mockCharRepo.lockOwnerIdById(7)).willReturn(Optional.empty());
+
+        assertThrows(CharacterNotFoundException.class, () -> this.skServ.grant(7, 2, 5));
+    }
+
+    @Test
+    void testGrant_Failure_UnknownSkill() {
+        given(this.mockCharRepo.lockOwnerIdById(7)).willReturn(Optional.of(5));
+        given(this.mockSkillRepo.findAll()).willReturn(Collections.singletonList(this.push));
+        given(this.mockSkillRepo.findById(9)).willReturn(Optional.empty());
+
+        assertThrows(SkillNotFoundException.class, () -> this.skServ.grant(7, 9, 5));
+        verify(this.mockSkillRepo, never()).grant(anyInt(), anyInt());
+    }
+
+}
@@ -0,0 +1,109 @@
+package com.revature.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.BDDMockito.given;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.revature.data.CharacterRepository;
+import com.revature.dto.SpeciesAggregate;
+import com.revature.dto.SpeciesTotals;
+import com.revature.events.CharacterRemovedEvent;
+import com.revature.events.CharacterSavedEvent;
+import com.revature.events.CharacterTally;
+
+
+@ExtendWith(MockitoExtension.class)
+class SpeciesAggregateServiceTest {
+
+    @Mock
+    private CharacterRepository mockCharRepo;
+
+    @Mock
+    private JdbcTemplate mockJdbc;
+
+    @Mock
+    private PlatformTransactionManager mockTxManager;
+
+    @InjectMocks
+    private SpeciesAggregateService aggServ;
+
+    @Test
+    void testReload() {
+        given(this.mockCharRepo.findSpeciesTotals())
+            .willReturn(Arrays.asList(new SpeciesTotals(2, 3, 2, 6, 8), new SpeciesTotals(1, 1, 0, 0, 0)));
+
+        this.aggServ.reload();
+
+        assertEquals(Arrays.asList(new SpeciesAggregate(1, 1, null, null), new SpeciesAggregate(2, 3, 3.0, 4.0)),
+            this.aggServ.findAll());
+    }
+
+    @Test
+    void testReload_WaitsForEventsOfCommittingChanges() throws Exception {
+        // the change is in the totals, its event not applied yet
+        given(this.mockCharRepo.findSpeciesTotals()).willReturn(Arrays.asList(new SpeciesTotals(4, 1, 1, 3, 10)));
+        CharacterSavedEvent event = new CharacterSavedEvent(1, "Chewbacca", 4, 3, 120, 10, null);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            this.aggServ.beforeCommit(event);
+            Thread reload = new Thread(this.aggServ::reload);
+            reload.start();
+            reload.join(200);
+            assertTrue(reload.isAlive());
+
+            this.aggServ.onSaved(event);
+            for (TransactionSynchronization s : TransactionSynchronizationManager.getSynchronizations()) {
+                s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+            }
+            reload.join();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(new SpeciesAggregate(4, 1, 3.0, 10.0), this.aggServ.findBySpeciesId(4));
+    }
+
+    @Test
+    void testOnSaved_Added() {
+        this.aggServ.onSaved(new CharacterSavedEvent(1, "Chewbacca", 4, 3, 120, 10, null));
+        this.aggServ.onSaved(new CharacterSavedEvent(2, "Lumpy", 4, 1, 0, 2, null));
+        this.aggServ.onSaved(new CharacterSavedEvent(3, "Itchy", 4, null, null, null, null));
+
+        assertEquals(new SpeciesAggregate(4, 3, 2.0, 6.0), this.aggServ.findBySpeciesId(4));
+    }
+
+    @Test
+    void testOnSaved_UpdatedMovesBetweenSpecies() {
+        this.aggServ.onSaved(new CharacterSavedEvent(1, "Chewbacca", 4, 3, 120, 10, null));
+        this.aggServ.onSaved(new CharacterSavedEvent(2, "Lumpy", 4, 1, 0, 2, null));
+
+        this.aggServ.onSaved(new CharacterSavedEvent(1, "Chewbacca", 5, 4, 200, 12, new CharacterTally(4, 3, 10)));
+
+        assertEquals(new SpeciesAggregate(4, 1, 1.0, 2.0), this.aggServ.findBySpeciesId(4));
+        assertEquals(new SpeciesAggregate(5, 1, 4.0, 12.0), this.aggServ.findBySpeciesId(5));
+    }
+
+    @Test
+    void testOnRemoved() {
+        this.aggServ.onSaved(new CharacterSavedEvent(1, "Chewbacca", 4, 3, 120, 10, null));
+
+        this.aggServ.onRemoved(new CharacterRemovedEvent(1, new CharacterTally(4, 3, 10)));
+
+        assertEquals(new SpeciesAggregate(4, 0, null, null), this.aggServ.findBySpeciesId(4));
+        assertEquals(Collections.emptyList(), this.aggServ.findAll());
+    }
+
+}
@@ -0,0 +1,122 @@
+package com.revature.service;
+
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.revature.data.SpeciesRepository;
+import com.revature.models.Species;
+
+
+/**
+ * Latency of a species lookup by name under concurrent load: a query per call
+ * (what <code>findBySpeciesName</code> does, here against an in-memory H2
+ * database, so a real network round trip would only widen the gap) against the
+ * <code>SpeciesService</code> catalog. Sample-time mode reports the p99 and p99.9
+ * next to the mean.
+ *
+ * Run with <code>mvn test-compile</code> followed by the <code>main</code>
+ * method of this class (from the IDE or with the test classpath).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class SpeciesServiceBenchmark {
+
+    private static final int SPECIES = 50;
+    private static final String URL = "jdbc:h2:mem:species-bench;DB_CLOSE_DELAY=-1";
+
+    private SpeciesService service;
+
+    @Setup
+    public void setUp() throws SQLException {
+        List<Species> all = new ArrayList<>();
+        try (Connection c = DriverManager.getConnection(URL); Statement st = c.createStatement()) {
+            st.execute("create table species (id int primary key, species_name varchar(255) unique, "
+                + "description varchar(255))");
+            for (int i = 0; i < SPECIES; i++) {
+                st.execute("insert into species values (" + i + ", 'Species" + i + "', 'A species')");
+                all.add(new Species(i, "Species" + i, "A species"));
+            }
+        }
+
+        SpeciesRepository repo = mock(SpeciesRepository.class);
+        given(repo.findAll()).willReturn(all);
+        this.service = new SpeciesService(repo);
+        this.service.findAll();
+    }
+
+    @State(Scope.Thread)
+    public static class Database {
+
+        private Connection connection;
+        private PreparedStatement byName;
+
+        @Setup(Level.Trial)
+        public void open() throws SQLException {
+            this.connection = DriverManager.getConnection(URL);
+            this.byName = this.connection.prepareStatement(
+                "select id, species_name, description from species where species_name = ?");
+        }
+
+        @TearDown(Level.Trial)
+        public void close() throws SQLException {
+            this.connection.close();
+        }
+
+    }
+
+    private static String randomName() {
+        return "Species" + ThreadLocalRandom.current().nextInt(SPECIES);
+    }
+
+    @Benchmark
+    public Species queryPerLookup(Database db) throws SQLException {
+        db.byName.setString(1, randomName());
+        try (ResultSet rs = db.byName.executeQuery()) {
+            rs.next();
+            return new Species(rs.getInt(1), rs.getString(2), rs.getString(3));
+        }
+    }
+
+    @Benchmark
+    public Species catalogLookup() {
+        return this.service.findbyName(randomName());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(SpeciesServiceBenchmark.class.getSimpleName()).build()).run();
+    }
+
+}
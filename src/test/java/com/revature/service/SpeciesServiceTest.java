@@ -1,15 +1,18 @@
 package com.revature.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -24,9 +27,14 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import com.google.gson.Gson;
 import com.revature.data.SpeciesRepository;
+import com.revature.dto.PageResponse;
+import com.revature.dto.SearchHit;
 import com.revature.exceptions.SpeciesNotFoundException;
 import com.revature.models.Species;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
 
 @ExtendWith(MockitoExtension.class)
 class SpeciesServiceTest {
@@ -89,6 +97,124 @@ class SpeciesServiceTest {
         verify(this.mockSpeciesRepo, times(1)).findAll();
     }
 
+    @Test
+    void testFindPage_LastPage() {
+        List<Species> content = new ArrayList<>();
+        content.add(new Species(3, "Hutt", "Large and slug-like"));
+        content.add(this.dummySpecies);
+        given(this.mockSpeciesRepo.findAll()).willReturn(content);
+
+        PageResponse<Species> actual = this.sServ.findPage(0, 20);
+
+        assertEquals(1, actual.getItems().get(0).getId());
+        assertEquals(3, actual.getItems().get(1).getId());
+        assertNull(actual.getNextCursor());
+        assertEquals(2L, actual.getTotalElements());
+    }
+
+    @Test
+    void testFindAfter_FromCatalog() {
+        List<Species> content = new ArrayList<>();
+        for (int id = 1; id <= 5; id++) {
+            content.add(new Species(id * 2, "Species" + id, "A species"));
+        }
+        given(this.mockSpeciesRepo.findAll()).willReturn(content);
+
+        PageResponse<Species> actual = this.sServ.findAfter(4, 2);
+
+        assertEquals(6, actual.getItems().get(0).getId());
+        assertEquals(8, actual.getItems().get(1).getId());
+        assertEquals("8", actual.getNextCursor());
+        assertTrue(this.sServ.findAfter(10, 100_000).getItems().isEmpty());
+        assertEquals(PageResponse.MAX_SIZE, this.sServ.findAfter(10, 100_000).getSize());
+        verify(this.mockSpeciesRepo, times(1)).findAll();
+    }
+
+    @Test
+    void testFindbyName_Success_CachedAndCaseInsensitive() {
+        List<Species> content = new ArrayList<>();
+        content.add(this.dummySpecies);
+        given(this.mockSpeciesRepo.findAll()).willReturn(content);
+
+        assertEquals(this.dummySpecies, this.sServ.findbyName("Dummy"));
+        assertEquals(this.dummySpecies, this.sServ.findbyName("dUMMY"));
+
+        verify(this.mockSpeciesRepo, times(1)).findAll();
+        verify(this.mockSpeciesRepo, never()).findBySpeciesName(anyString());
+    }
+
+    @Test
+    void testAdd_PublishesToCatalog() {
+        given(this.mockSpeciesRepo.findAll()).willReturn(new ArrayList<>());
+        given(this.mockSpeciesRepo.save(this.dummySpecies)).willReturn(this.dummySpecies);
+        MeterRegistry registry = new SimpleMeterRegistry();
+        this.sServ.bindTo(registry);
+
+        assertTrue(this.sServ.findAll().isEmpty());
+        this.sServ.add(this.dummySpecies);
+
+        assertEquals(this.dummySpecies, this.sServ.findbyName("dummy"));
+        assertTrue(this.sServ.findAll().contains(this.dummySpecies));
+        verify(this.mockSpeciesRepo, never()).findBySpeciesName(anyString());
+        assertEquals(1.0, registry.get("species.catalog.hit.ratio").gauge().value());
+        assertEquals(1.0, registry.get("species.catalog.size").gauge().value());
+    }
+
+    @Test
+    void testAdd_CatalogKeepsItsOwnCopy() {
+        given(this.mockSpeciesRepo.findAll()).willReturn(new ArrayList<>());
+        given(this.mockSpeciesRepo.save(this.dummySpecies)).willReturn(this.dummySpecies);
+
+        this.sServ.add(this.dummySpecies).setDescription("Changed after saving");
+
+        assertEquals("A dummy species", this.sServ.findbyName("Dummy").getDescription());
+    }
+
+    @Test
+    void testReload_KeepsSpeciesAddedDuringReload() {
+        Species human = new Species(2, "human", "A human being");
+        given(this.mockSpeciesRepo.save(human)).willReturn(human);
+        // the reload's query runs before the add commits, so its result misses the new species
+        given(this.mockSpeciesRepo.findAll()).willReturn(new ArrayList<>(Collections.singletonList(this.dummySpecies)))
+            .willAnswer(inv -> {
+                this.sServ.add(human);
+                return new ArrayList<>(Collections.singletonList(this.dummySpecies));
+            });
+        this.sServ.findAll();
+
+        this.sServ.reload();
+
+        assertTrue(this.sServ.findAll().contains(human));
+        assertEquals(human, this.sServ.findbyName("human"));
+        verify(this.mockSpeciesRepo, never()).findBySpeciesName(anyString());
+    }
+
+    @Test
+    void testCatalogETag_ChangesOnAdd() {
+        given(this.mockSpeciesRepo.findAll()).willReturn(new ArrayList<>());
+        given(this.mockSpeciesRepo.save(this.dummySpecies)).willReturn(this.dummySpecies);
+
+        String before = this.sServ.catalogETag();
+        assertEquals(before, this.sServ.catalogETag());
+        this.sServ.add(this.dummySpecies);
+
+        assertNotEquals(before, this.sServ.catalogETag());
+    }
+
+    @Test
+    void testSearch_FollowsCatalog() {
+        Species wookiee = new Species(2, "Wookiee", "Tall and hairy");
+        given(this.mockSpeciesRepo.findAll()).willReturn(Collections.singletonList(this.dummySpecies));
+        given(this.mockSpeciesRepo.save(wookiee)).willReturn(wookiee);
+
+        assertEquals(Collections.singletonList(new SearchHit(1, "Dummy")), this.sServ.search("dum", 10));
+        this.sServ.add(wookiee);
+
+        // one typo
+        assertEquals(Collections.singletonList(new SearchHit(2, "Wookiee")), this.sServ.search("wooki", 10));
+        assertEquals(Collections.singletonList(new SearchHit(2, "Wookiee")), this.sServ.search("wokiee", 10));
+    }
+
     @Test
     void testFindbyName_Success() {
         String name = this.dummySpecies.getSpeciesName();
@@ -0,0 +1,166 @@
+package com.revature.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.revature.dto.StatsDelta;
+import com.revature.events.CharacterSavedEvent;
+import com.revature.events.CharacterTally;
+import com.revature.models.Character;
+import com.revature.models.Species;
+import com.revature.models.Stats;
+import com.revature.models.User;
+
+
+/**
+ * Runs the buffer's SQL against the real schema; each test's transaction is
+ * the one the flush joins.
+ */
+@DataJpaTest(properties = "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect")
+class StatsWriteBufferTest {
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedJdbc;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final List<Object> events = new ArrayList<>();
+    private final List<Runnable> scheduled = new ArrayList<>();
+    private StatsWriteBuffer buffer;
+    private Character fighter;
+    private Character rookie;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        User owner = this.em.persist(new User("auser", "Project2Team6!", "auser@dat.boi"));
+        Species species = this.em.persist(new Species("Wookiee", "Tall and hairy"));
+        this.fighter = new Character("Fighter", null);
+        this.fighter.setOwner(owner);
+        this.fighter.setSpecies(species);
+        this.fighter.setStats(new Stats(1, 90, 50, 5, 1, 1, 0));
+        this.em.persist(this.fighter);
+        this.rookie = new Character("Rookie", null);
+        this.rookie.setOwner(owner);
+        this.rookie.setSpecies(species);
+        this.em.persist(this.rookie);
+        this.em.flush();
+        this.em.clear();
+
+        this.buffer = buffer(this.transactionManager, 2);
+    }
+
+    private StatsWriteBuffer buffer(PlatformTransactionManager tm, int maxPending) {
+        TaskScheduler scheduler = mock(TaskScheduler.class);
+        given(scheduler.schedule(any(Runnable.class), any(Instant.class))).willAnswer(inv -> {
+            this.scheduled.add(inv.getArgument(0));
+            return null;
+        });
+        return new StatsWriteBuffer(this.jdbc, this.namedJdbc, tm, this.events::add, scheduler, maxPending);
+    }
+
+    private Stats statsOf(Character c) {
+        this.em.clear();
+        return this.em.find(Character.class, c.getId()).getStats();
+    }
+
+    @Test
+    void testAdd_CoalescesPerCharacter() {
+        this.buffer.add(this.fighter.getId(), new StatsDelta(5, -10, 0, 0, 0, 0));
+        this.buffer.add(this.fighter.getId(), new StatsDelta(15, 0, 1, 0, 0, 0));
+
+        assertEquals(new StatsDelta(20, -10, 1, 0, 0, 0), this.buffer.pending(this.fighter.getId()));
+        assertTrue(this.scheduled.isEmpty());
+    }
+
+    @Test
+    void testFlush_WritesAndPublishes() {
+        int version = this.em.find(Character.class, this.fighter.getId()).getVersion();
+        this.buffer.add(this.fighter.getId(), new StatsDelta(5, -10, 0, 0, 0, 0));
+        this.buffer.add(this.fighter.getId(), new StatsDelta(15, 0, 1, 0, 0, 0));
+
+        this.buffer.flush();
+
+        // level 1 + 110 / 100
+        assertEquals(new Stats(2, 110, 40, 6, 1, 1, 0), statsOf(this.fighter));
+        assertEquals(version + 1, this.em.find(Character.class, this.fighter.getId()).getVersion());
+        assertNull(this.buffer.pending(this.fighter.getId()));
+        CharacterSavedEvent saved = (CharacterSavedEvent) this.events.get(0);
+        assertEquals(2, saved.getLevel());
+        assertEquals(110, saved.getExperience());
+        assertEquals(6, saved.getStrength());
+        assertEquals(new CharacterTally(this.fighter.getSpecies().getId(), 1, 5), saved.getPrevious());
+    }
+
+    @Test
+    void testFlush_CharacterWithoutStats() {
+        this.buffer.add(this.rookie.getId(), new StatsDelta(30, 5, 0, 0, 0, 0));
+
+        this.buffer.flush();
+
+        assertEquals(new Stats(1, 30, 5, 0, 0, 0, 0), statsOf(this.rookie));
+        assertNull(((CharacterSavedEvent) this.events.get(0)).getPrevious().getLevel());
+    }
+
+    @Test
+    void testFlush_DropsRemovedCharacters() {
+        this.buffer.add(this.fighter.getId() + 1000, new StatsDelta(5, 0, 0, 0, 0, 0));
+
+        this.buffer.flush();
+
+        assertNull(this.buffer.pending(this.fighter.getId() + 1000));
+        assertTrue(this.events.isEmpty());
+    }
+
+    @Test
+    void testFlush_Failure_KeepsDeltas() {
+        PlatformTransactionManager failing = mock(PlatformTransactionManager.class);
+        given(failing.getTransaction(any())).willThrow(new CannotCreateTransactionException("down"));
+        StatsWriteBuffer down = buffer(failing, 10);
+        down.add(this.fighter.getId(), new StatsDelta(5, 0, 0, 0, 0, 0));
+
+        down.flush();
+        down.add(this.fighter.getId(), new StatsDelta(1, 0, 0, 0, 0, 0));
+
+        assertEquals(new StatsDelta(6, 0, 0, 0, 0, 0), down.pending(this.fighter.getId()));
+        assertEquals(new Stats(1, 90, 50, 5, 1, 1, 0), statsOf(this.fighter));
+    }
+
+    @Test
+    void testAdd_FullBufferSchedulesFlush() {
+        this.buffer.add(this.fighter.getId(), new StatsDelta(5, 0, 0, 0, 0, 0));
+        this.buffer.add(this.rookie.getId(), new StatsDelta(5, 0, 0, 0, 0, 0));
+        this.buffer.add(this.rookie.getId(), new StatsDelta(5, 0, 0, 0, 0, 0));
+
+        assertEquals(1, this.scheduled.size());
+        this.scheduled.get(0).run();
+        assertNull(this.buffer.pending(this.rookie.getId()));
+        assertEquals(10, statsOf(this.rookie).getExperience());
+    }
+
+}
@@ -0,0 +1,152 @@
+package com.revature.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.revature.data.UserRepository;
+import com.revature.dto.Availability;
+import com.revature.dto.UserSummary;
+import com.revature.models.User;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+
+@ExtendWith(MockitoExtension.class)
+class UserAvailabilityServiceTest {
+
+    @Mock
+    private UserRepository mockUserRepo;
+
+    private UserAvailabilityService availability;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        this.availability = new UserAvailabilityService(this.mockUserRepo, 0.01);
+    }
+
+    private void rebuildWith(UserSummary... users) {
+        given(this.mockUserRepo.count()).willReturn((long) users.length);
+        given(this.mockUserRepo.streamSummaries()).willReturn(Stream.of(users));
+        this.availability.rebuild();
+    }
+
+    @Test
+    void testCheck_Success_UnseenNamesNeverQueried() {
+        rebuildWith(new UserSummary(1, "auser", "auser@dat.boi"));
+
+        Availability result = this.availability.check("buser", "buser@dat.boi");
+
+        assertTrue(result.getUsername());
+        assertTrue(result.getEmail());
+        verify(this.mockUserRepo, never()).existsByUsername(anyString());
+        verify(this.mockUserRepo, never()).existsByEmail(anyString());
+    }
+
+    @Test
+    void testCheck_Success_TakenNamesConfirmedByQuery() {
+        rebuildWith(new UserSummary(1, "auser", "auser@dat.boi"));
+        given(this.mockUserRepo.existsByUsername("auser")).willReturn(true);
+
+        Availability result = this.availability.check("auser", null);
+
+        assertFalse(result.getUsername());
+        assertNull(result.getEmail());
+    }
+
+    @Test
+    void testCheck_Success_BeforeBuildQueries() {
+        given(this.mockUserRepo.existsByEmail("auser@dat.boi")).willReturn(false);
+
+        Availability result = this.availability.check(null, "auser@dat.boi");
+
+        assertNull(result.getUsername());
+        assertTrue(result.getEmail());
+    }
+
+    @Test
+    void testPut_Success_NewUserTaken() {
+        rebuildWith();
+        User u = new User(2, "buser", "Project2Team6!", "buser@dat.boi");
+        given(this.mockUserRepo.existsByUsername("buser")).willReturn(true);
+        given(this.mockUserRepo.existsByEmail("buser@dat.boi")).willReturn(true);
+
+        this.availability.put(u);
+        Availability result = this.availability.check("buser", "buser@dat.boi");
+
+        assertFalse(result.getUsername());
+        assertFalse(result.getEmail());
+    }
+
+    @Test
+    void testPut_Success_RebuiltMidPut() throws Exception {
+        rebuildWith();
+        CountDownLatch putting = new CountDownLatch(1);
+        CountDownLatch rebuilt = new CountDownLatch(1);
+        // holds the put after it read the old filters, until the rebuild swapped them
+        User u = new User(2, "buser", "Project2Team6!", "buser@dat.boi") {
+
+            private boolean first = true;
+
+            @Override
+            public String getUsername() {
+                if (this.first) {
+                    this.first = false;
+                    putting.countDown();
+                    await(rebuilt);
+                }
+                return super.getUsername();
+            }
+        };
+        Thread t = new Thread(() -> this.availability.put(u));
+        t.start();
+        await(putting);
+        rebuildWith();
+        rebuilt.countDown();
+        t.join();
+        given(this.mockUserRepo.existsByUsername("buser")).willReturn(true);
+
+        assertFalse(this.availability.check("buser", null).getUsername());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(10, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Test
+    void testBindTo_CountsChecks() {
+        MeterRegistry registry = new SimpleMeterRegistry();
+        this.availability.bindTo(registry);
+        rebuildWith(new UserSummary(1, "auser", "auser@dat.boi"));
+        given(this.mockUserRepo.existsByUsername("auser")).willReturn(false);
+
+        this.availability.check("auser", "buser@dat.boi");
+
+        assertEquals(1.0, registry.get("users.availability.checks").tag("result", "filtered").functionCounter()
+            .count());
+        assertEquals(1.0, registry.get("users.availability.checks").tag("result", "queried").functionCounter()
+            .count());
+        assertEquals(1.0, registry.get("users.availability.false.positives").functionCounter().count());
+    }
+
+}
@@ -0,0 +1,156 @@
+package com.revature.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Collections;
+import java.util.List;
+
+import javax.validation.Validation;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.revature.data.UserRepository;
+import com.revature.dto.ImportReport;
+import com.revature.models.User;
+import com.revature.util.PasswordHasher;
+
+
+@ExtendWith(MockitoExtension.class)
+class UserImportServiceTest {
+
+    private static final String HASH = "$2a$10$N9qo8uLOickgx2ZMRZoMyeIjZAgcfl7p92ldGxad68LJZdL17lhWy";
+
+    @Mock
+    private UserRepository mockUserRepo;
+
+    @Mock
+    private PasswordHasher mockHasher;
+
+    @Mock
+    private UserAvailabilityService mockAvailability;
+
+    @Mock
+    private PlatformTransactionManager mockTxManager;
+
+    private UserImportService importServ;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        this.importServ = new UserImportService(this.mockUserRepo, this.mockHasher,
+            Validation.buildDefaultValidatorFactory().getValidator(), this.mockAvailability, this.mockTxManager, 2);
+        lenient().when(this.mockHasher.isHashed(anyString())).thenAnswer(inv -> HASH.equals(inv.getArgument(0)));
+    }
+
+    private ImportReport importCsv(String csv) throws IOException {
+        return this.importServ.importCsv(new StringReader(csv));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testImportCsv_Success_ChunkedAndHashed() throws IOException {
+        given(this.mockHasher.hash("Project2Team6!")).willReturn(HASH);
+
+        ImportReport report = importCsv("email,username,password\n"
+            + "a@dat.boi,auser,Project2Team6!\n"
+            + "b@dat.boi,buser," + HASH + "\n"
+            + "c@dat.boi,cuser,Project2Team6!\n");
+
+        assertEquals(3, report.getImported());
+        assertEquals(0, report.getFailed());
+        ArgumentCaptor<List<User>> saved = ArgumentCaptor.forClass(List.class);
+        verify(this.mockUserRepo, times(2)).saveAll(saved.capture());
+        List<List<User>> chunks = saved.getAllValues();
+        assertEquals(2, chunks.get(0).size());
+        assertEquals("buser", chunks.get(0).get(1).getUsername());
+        assertEquals(HASH, chunks.get(0).get(0).getPassword());
+        verify(this.mockHasher, times(2)).hash("Project2Team6!");
+        verify(this.mockAvailability, times(3)).put(any(User.class));
+    }
+
+    @Test
+    void testImportCsv_Failure_InvalidRows() throws IOException {
+        ImportReport report = importCsv("username,password,email\n"
+            + "ab,weak,not-an-email\n"
+            + "too,many,fields,here\n");
+
+        assertEquals(0, report.getImported());
+        assertEquals(2, report.getFailed());
+        assertEquals(2, report.getErrors().get(0).getLine());
+        assertEquals("ab", report.getErrors().get(0).getKey());
+        assertEquals(3, report.getErrors().get(0).getMessages().size());
+        assertEquals(3, report.getErrors().get(1).getLine());
+        verify(this.mockUserRepo, never()).saveAll(anyList());
+    }
+
+    @Test
+    void testImportCsv_Failure_TakenAndRepeated() throws IOException {
+        this.importServ = new UserImportService(this.mockUserRepo, this.mockHasher,
+            Validation.buildDefaultValidatorFactory().getValidator(), this.mockAvailability, this.mockTxManager, 10);
+        given(this.mockUserRepo.findExistingUsernames(anyCollection()))
+            .willReturn(Collections.singletonList("auser"));
+        given(this.mockUserRepo.findExistingEmails(anyCollection())).willReturn(Collections.emptyList());
+
+        ImportReport report = importCsv("username,password,email\n"
+            + "auser," + HASH + ",a@dat.boi\n"
+            + "buser," + HASH + ",b@dat.boi\n"
+            + "\n"
+            + "buser," + HASH + ",other@dat.boi\n");
+
+        assertEquals(1, report.getImported());
+        assertEquals(2, report.getFailed());
+        assertEquals(2, report.getErrors().get(0).getLine());
+        assertEquals(5, report.getErrors().get(1).getLine());
+    }
+
+    @Test
+    void testImportCsv_ConstraintViolation_FallsBackToRows() throws IOException {
+        given(this.mockUserRepo.saveAll(anyList())).willThrow(new DataIntegrityViolationException("duplicate"));
+        given(this.mockUserRepo.saveAndFlush(any(User.class)))
+            .willAnswer(inv -> inv.getArgument(0))
+            .willThrow(new DataIntegrityViolationException("duplicate"));
+
+        ImportReport report = importCsv("username,password,email\n"
+            + "auser," + HASH + ",a@dat.boi\n"
+            + "buser," + HASH + ",b@dat.boi\n");
+
+        assertEquals(1, report.getImported());
+        assertEquals(1, report.getFailed());
+        assertEquals(3, report.getErrors().get(0).getLine());
+    }
+
+    @Test
+    void testImportCsv_Failure_BadCsvKeepsEarlierRows() throws IOException {
+        ImportReport report = importCsv("username,password,email\n"
+            + "auser," + HASH + ",a@dat.boi\n"
+            + "\"buser," + HASH + ",b@dat.boi\n");
+
+        assertEquals(1, report.getImported());
+        assertEquals(1, report.getFailed());
+        assertEquals(3, report.getErrors().get(0).getLine());
+    }
+
+    @Test
+    void testImportCsv_Failure_MissingColumn() {
+        assertThrows(IllegalArgumentException.class, () -> importCsv("username,email\nauser,a@dat.boi\n"));
+    }
+
+}
@@ -4,8 +4,8 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
-import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.BDDMockito.willDoNothing;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
@@ -14,7 +14,6 @@ import static org.mockito.Mockito.verify;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
-import java.util.Set;
 
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -23,13 +22,19 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
 
 import com.google.gson.Gson;
 import com.revature.data.UserRepository;
 import com.revature.dto.Credentials;
+import com.revature.dto.PageResponse;
+import com.revature.dto.UserSummary;
 import com.revature.exceptions.AuthenticationException;
+import com.revature.exceptions.TooManyRequestsException;
 import com.revature.exceptions.UserNotFoundException;
 import com.revature.models.User;
+import com.revature.util.LoginThrottle;
+import com.revature.util.PasswordHasher;
 
 
 @ExtendWith(MockitoExtension.class)
@@ -38,9 +43,20 @@ class UserServiceTest {
     @Mock
     private UserRepository mockUserRepo;
 
+    @Mock
+    private PasswordHasher mockHasher;
+
+    @Mock
+    private LoginThrottle mockThrottle;
+
+    @Mock
+    private UserAvailabilityService mockAvailability;
+
     @InjectMocks
     private UserService uServ;
 
+    private static final String HASH = "$2a$10$N9qo8uLOickgx2ZMRZoMyeIjZAgcfl7p92ldGxad68LJZdL17lhWy";
+
     private User dummyUser;
 
     @BeforeEach
@@ -73,12 +89,34 @@ class UserServiceTest {
         User expected = this.dummyUser;
         String username = expected.getUsername();
         String password = expected.getPassword();
-        given(this.mockUserRepo.findUserByUsernameAndPassword(username, password)).willReturn(Optional.of(expected));
+        expected.setPassword(HASH);
+        given(this.mockUserRepo.findByUsername(username)).willReturn(Optional.of(expected));
+        given(this.mockHasher.matches(password, HASH)).willReturn(true);
+        given(this.mockHasher.isHashed(HASH)).willReturn(true);
 
-        User actual = this.uServ.authenticate(new Credentials(username, password));
+        User actual = this.uServ.authenticate(new Credentials(username, password), "10.0.0.1");
 
         assertEquals(expected, actual);
-        verify(this.mockUserRepo, times(1)).findUserByUsernameAndPassword(username, password);
+        verify(this.mockUserRepo, times(1)).findByUsername(username);
+        verify(this.mockThrottle, times(1)).recordSuccess("u:auser");
+        verify(this.mockUserRepo, never()).save(expected);
+    }
+
+    @Test
+    void testAuthenticate_Success_UpgradesLegacyPassword() {
+        User expected = this.dummyUser;
+        String username = expected.getUsername();
+        String password = expected.getPassword();
+        given(this.mockUserRepo.findByUsername(username)).willReturn(Optional.of(expected));
+        given(this.mockHasher.matches(password, password)).willReturn(true);
+        given(this.mockHasher.isHashed(password)).willReturn(false);
+        given(this.mockHasher.hash(password)).willReturn(HASH);
+        given(this.mockUserRepo.save(expected)).willReturn(expected);
+
+        User actual = this.uServ.authenticate(new Credentials(username, password));
+
+        assertEquals(HASH, actual.getPassword());
+        verify(this.mockUserRepo, times(1)).save(expected);
     }
 
     @Test
@@ -86,37 +124,80 @@ class UserServiceTest {
         User expected = this.dummyUser;
         String username = expected.getUsername();
         String password = expected.getPassword();
-        given(this.mockUserRepo.findUserByUsernameAndPassword(username, password)).willReturn(Optional.empty());
+        given(this.mockUserRepo.findByUsername(username)).willReturn(Optional.empty());
+        given(this.mockHasher.matches(password, null)).willReturn(false);
 
         Credentials creds = new Credentials(username, password);
-        assertThrows(AuthenticationException.class, () -> this.uServ.authenticate(creds));
+        assertThrows(AuthenticationException.class, () -> this.uServ.authenticate(creds, "10.0.0.1"));
+        verify(this.mockThrottle, times(1)).recordFailure("u:auser");
+        verify(this.mockThrottle, times(1)).recordFailure("ip:10.0.0.1");
+    }
+
+    @Test
+    void testAuthenticate_Failure_LockedOut() {
+        given(this.mockThrottle.retryAfterSeconds(anyString())).willReturn(0L);
+        given(this.mockThrottle.retryAfterSeconds("ip:10.0.0.1")).willReturn(42L);
+
+        Credentials creds = new Credentials(this.dummyUser.getUsername(), this.dummyUser.getPassword());
+        TooManyRequestsException e = assertThrows(TooManyRequestsException.class,
+            () -> this.uServ.authenticate(creds, "10.0.0.1"));
+
+        assertEquals(42L, e.getRetryAfterSeconds());
+        verify(this.mockUserRepo, never()).findByUsername(anyString());
     }
 
     @Test
     void testAdd() {
         User expected = cloneUser(this.dummyUser);
         this.dummyUser.setId(0);
+        given(this.mockHasher.hash("Project2Team6!")).willReturn(HASH);
         given(this.mockUserRepo.save(this.dummyUser)).willReturn(expected);
 
         User actual = this.uServ.add(this.dummyUser);
 
         assertEquals(expected, actual);
+        assertEquals(HASH, this.dummyUser.getPassword());
         verify(this.mockUserRepo, times(1)).save(this.dummyUser);
+        verify(this.mockAvailability).put(expected);
+    }
+
+    @Test
+    void testAdd_IgnoresClientId() {
+        User takeover = new User(1, "auser", "Project2Team6!", "mallory@dat.boi");
+        given(this.mockHasher.hash("Project2Team6!")).willReturn(HASH);
+        given(this.mockUserRepo.save(takeover)).willReturn(takeover);
+
+        this.uServ.add(takeover);
+
+        // inserted as a new user, which the unique username then rejects
+        assertEquals(0, takeover.getId());
     }
 
     @Test
     void testFindAll() {
-        List<User> expected = new ArrayList<>();
-        expected.add(this.dummyUser);
-        expected.add(new User(2, "acarasimon96", "ChunChun~1", "timothyb@example.com"));
-        expected.add(new User(3, "itshector", "$wappiBo1", "itshector@example.com"));
-        given(this.mockUserRepo.findAll()).willReturn(expected);
+        List<UserSummary> expected = new ArrayList<>();
+        expected.add(new UserSummary(1, "auser", "auser@dat.boi"));
+        expected.add(new UserSummary(2, "acarasimon96", "timothyb@example.com"));
+        expected.add(new UserSummary(3, "itshector", "itshector@example.com"));
+        given(this.mockUserRepo.findAllSummaries()).willReturn(expected);
+
+        List<UserSummary> actual = this.uServ.findAll();
+
+        assertEquals(expected, actual);
+        verify(this.mockUserRepo, times(1)).findAllSummaries();
+    }
+
+    @Test
+    void testFindAfter() {
+        List<UserSummary> rows = new ArrayList<>();
+        rows.add(new UserSummary(1, "auser", "auser@dat.boi"));
+        rows.add(new UserSummary(2, "acarasimon96", "timothyb@example.com"));
+        given(this.mockUserRepo.findSummariesAfter(0, PageRequest.of(0, 2))).willReturn(rows);
 
-        Set<User> actual = this.uServ.findAll();
+        PageResponse<UserSummary> actual = this.uServ.findAfter(0, 1);
 
-        assertEquals(expected.size(), actual.size());
-        assertTrue(expected.containsAll(actual));
-        verify(this.mockUserRepo, times(1)).findAll();
+        assertEquals(rows.subList(0, 1), actual.getItems());
+        assertEquals("1", actual.getNextCursor());
     }
 
     @Test
@@ -183,6 +264,7 @@ class UserServiceTest {
     void testUpdate() {
         User dummyUserOld = cloneUser(this.dummyUser);
         this.dummyUser.setPassword("someNewPa$$W0rd");
+        given(this.mockHasher.hash("someNewPa$$W0rd")).willReturn(HASH);
         given(this.mockUserRepo.save(this.dummyUser)).willReturn(this.dummyUser);
 
         User expected = this.dummyUser;
@@ -191,6 +273,7 @@ class UserServiceTest {
         assertEquals(expected, actual);
         assertNotEquals(dummyUserOld, actual);
         verify(this.mockUserRepo, times(1)).save(this.dummyUser);
+        verify(this.mockAvailability).put(actual);
     }
 
 }
@@ -0,0 +1,64 @@
+package com.revature.util;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+
+class BloomFilterTest {
+
+    @Test
+    void testMightContain_EverythingAdded() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("user" + i + "@dat.boi");
+        }
+
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filter.mightContain("user" + i + "@dat.boi"));
+        }
+    }
+
+    @Test
+    void testMightContain_FalsePositivesNearTheRate() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("user" + i);
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain("other" + i)) {
+                falsePositives++;
+            }
+        }
+        // 1% expected; 2% leaves room for chance
+        assertTrue(falsePositives < 2_000, falsePositives + " false positives");
+    }
+
+    @Test
+    void testMightContain_Empty() {
+        BloomFilter filter = new BloomFilter(100, 0.01);
+
+        assertFalse(filter.mightContain("auser"));
+        assertFalse(filter.mightContain(""));
+    }
+
+    @Test
+    void testMightContain_CaseSensitive() {
+        BloomFilter filter = new BloomFilter(100, 0.001);
+        filter.put("auser");
+
+        assertTrue(filter.mightContain("auser"));
+        assertFalse(filter.mightContain("AUser"));
+    }
+
+    @Test
+    void testNew_Failure_BadRate() {
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(100, 0));
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(100, 1));
+    }
+
+}
@@ -0,0 +1,64 @@
+package com.revature.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+
+class CsvReaderTest {
+
+    @Test
+    void testNext_PlainAndQuotedFields() throws IOException {
+        CsvReader csv = new CsvReader(new StringReader("a,b,c\r\n\"x, y\",\"say \"\"hi\"\"\",\n"));
+
+        assertEquals(Arrays.asList("a", "b", "c"), csv.next());
+        assertEquals(1, csv.getRecordLine());
+        assertEquals(Arrays.asList("x, y", "say \"hi\"", ""), csv.next());
+        assertEquals(2, csv.getRecordLine());
+        assertNull(csv.next());
+    }
+
+    @Test
+    void testNext_LineBreakInQuotesAndBlankLines() throws IOException {
+        CsvReader csv = new CsvReader(new StringReader("\"multi\nline\",1\n\n\nlast,2"));
+
+        assertEquals(Arrays.asList("multi\nline", "1"), csv.next());
+        assertEquals(Arrays.asList("last", "2"), csv.next());
+        assertEquals(5, csv.getRecordLine());
+        assertNull(csv.next());
+    }
+
+    @Test
+    void testNext_LoneCarriageReturns() throws IOException {
+        CsvReader csv = new CsvReader(new StringReader("a,b\rc,d\r"));
+
+        assertEquals(Arrays.asList("a", "b"), csv.next());
+        assertEquals(Arrays.asList("c", "d"), csv.next());
+        assertNull(csv.next());
+    }
+
+    @Test
+    void testNext_Failure_UnclosedQuote() throws IOException {
+        CsvReader csv = new CsvReader(new StringReader("ok,1\n\"never closed,2\n"));
+        csv.next();
+
+        CsvReader.CsvFormatException e = assertThrows(CsvReader.CsvFormatException.class, csv::next);
+        assertEquals(2, e.getLine());
+    }
+
+    @Test
+    void testNext_Failure_RecordTooLong() {
+        char[] huge = new char[100];
+        Arrays.fill(huge, 'x');
+        CsvReader csv = new CsvReader(new StringReader(new String(huge)), 50);
+
+        assertThrows(CsvReader.CsvFormatException.class, csv::next);
+    }
+
+}
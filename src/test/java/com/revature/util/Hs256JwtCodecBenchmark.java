@@ -0,0 +1,90 @@
+package com.revature.util;
+
+import java.security.Key;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+
+
+/**
+ * Compares issuing and verifying tokens with the jjwt builder/parser against
+ * <code>Hs256JwtCodec</code>. The GC profiler reports the bytes allocated per
+ * operation (<code>gc.alloc.rate.norm</code>) next to the ops/ms score.
+ *
+ * Run with <code>mvn test-compile</code> followed by the <code>main</code>
+ * method of this class (from the IDE or with the test classpath).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class Hs256JwtCodecBenchmark {
+
+    private Key key;
+    private JwtParser parser;
+    private Hs256JwtCodec codec;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        this.key = Keys.secretKeyFor(SignatureAlgorithm.HS256);
+        this.parser = Jwts.parserBuilder().setSigningKey(this.key).build();
+        this.codec = new Hs256JwtCodec(this.key, JwtTokenManager.ISSUER);
+        this.token = this.codec.encode(42, "benchuser", System.currentTimeMillis() / 1000);
+    }
+
+    @Benchmark
+    public String issueJjwt() {
+        return Jwts.builder()
+            .setId("42")
+            .setSubject("benchuser")
+            .setIssuer(JwtTokenManager.ISSUER)
+            .setIssuedAt(new Date(System.currentTimeMillis()))
+            .signWith(this.key)
+            .compact();
+    }
+
+    @Benchmark
+    public String issueCodec() {
+        return this.codec.encode(42, "benchuser", System.currentTimeMillis() / 1000);
+    }
+
+    @Benchmark
+    public String verifyJjwt() {
+        return this.parser.parseClaimsJws(this.token).getBody().getId();
+    }
+
+    @Benchmark
+    public String verifyCodec() {
+        return this.codec.decode(this.token, System.currentTimeMillis() / 1000).getId();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(Hs256JwtCodecBenchmark.class.getSimpleName())
+            .addProfiler(GCProfiler.class)
+            .build()).run();
+    }
+
+}
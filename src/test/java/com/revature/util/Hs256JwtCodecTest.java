@@ -0,0 +1,141 @@
+package com.revature.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.util.Base64;
+import java.util.Date;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+
+
+class Hs256JwtCodecTest {
+
+    private static final long NOW = 1_700_000_000L;
+
+    private Key key;
+    private Hs256JwtCodec codec;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        this.key = Keys.secretKeyFor(SignatureAlgorithm.HS256);
+        this.codec = new Hs256JwtCodec(this.key, "Rolodex API");
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        this.codec = null;
+    }
+
+    private String jjwtToken(String id, String subject, Date expiration) {
+        return Jwts.builder()
+            .setId(id)
+            .setSubject(subject)
+            .setIssuer("Rolodex API")
+            .setIssuedAt(new Date(NOW * 1000))
+            .setExpiration(expiration)
+            .signWith(this.key)
+            .compact();
+    }
+
+    @Test
+    void testEncode_ReadableByJjwt() {
+        String token = this.codec.encode(42, "auser", NOW);
+
+        Claims claims = Jwts.parserBuilder().setSigningKey(this.key).build().parseClaimsJws(token).getBody();
+
+        assertEquals("42", claims.getId());
+        assertEquals("auser", claims.getSubject());
+        assertEquals("Rolodex API", claims.getIssuer());
+        assertEquals(NOW * 1000, claims.getIssuedAt().getTime());
+    }
+
+    @Test
+    void testEncode_SameBytesAsJjwt() {
+        assertEquals(jjwtToken("42", "auser", null), this.codec.encode(42, "auser", NOW));
+    }
+
+    @Test
+    void testEncode_EscapedSubjectReadableByJjwt() {
+        String subject = "we\"ird\\name\té中😀";
+        String token = this.codec.encode(1, subject, NOW);
+
+        Claims claims = Jwts.parserBuilder().setSigningKey(this.key).build().parseClaimsJws(token).getBody();
+
+        assertEquals(subject, claims.getSubject());
+        assertEquals(subject, this.codec.decode(token, NOW).getSubject());
+    }
+
+    @Test
+    void testDecode_ReadsJjwtToken() {
+        String token = jjwtToken("7", "itshector", new Date((NOW + 60) * 1000));
+
+        Hs256JwtCodec.Claims claims = this.codec.decode(token, NOW);
+
+        assertEquals("7", claims.getId());
+        assertEquals("itshector", claims.getSubject());
+        assertEquals(NOW, claims.getIssuedAt());
+        assertEquals(NOW + 60, claims.getExpiration());
+    }
+
+    @Test
+    void testDecode_NoExpiration() {
+        String token = this.codec.encode(7, "auser", NOW);
+
+        assertEquals(Hs256JwtCodec.Claims.ABSENT, this.codec.decode(token, NOW).getExpiration());
+    }
+
+    @Test
+    void testDecode_Failure_Expired() {
+        String token = jjwtToken("7", "auser", new Date((NOW - 1) * 1000));
+
+        assertThrows(IllegalArgumentException.class, () -> this.codec.decode(token, NOW));
+    }
+
+    @Test
+    void testDecode_Failure_TamperedPayload() {
+        String token = this.codec.encode(7, "auser", NOW);
+        String[] parts = token.split("\\.");
+        String forged = Base64.getUrlEncoder().withoutPadding()
+            .encodeToString("{\"jti\":\"1\",\"sub\":\"admin\"}".getBytes(StandardCharsets.UTF_8));
+
+        assertThrows(IllegalArgumentException.class,
+            () -> this.codec.decode(parts[0] + "." + forged + "." + parts[2], NOW));
+    }
+
+    @Test
+    void testDecode_Failure_ForeignKey() {
+        String token = new Hs256JwtCodec(Keys.secretKeyFor(SignatureAlgorithm.HS256), "Rolodex API")
+            .encode(7, "auser", NOW);
+
+        assertThrows(IllegalArgumentException.class, () -> this.codec.decode(token, NOW));
+    }
+
+    @Test
+    void testDecode_Failure_UnsignedAlgorithmNone() {
+        String header = Base64.getUrlEncoder().withoutPadding()
+            .encodeToString("{\"alg\":\"none\"}".getBytes(StandardCharsets.UTF_8));
+        String token = this.codec.encode(7, "auser", NOW);
+        String unsigned = header + token.substring(token.indexOf('.'), token.lastIndexOf('.') + 1);
+
+        assertThrows(IllegalArgumentException.class, () -> this.codec.decode(unsigned, NOW));
+    }
+
+    @Test
+    void testDecode_Failure_Garbage() {
+        assertThrows(IllegalArgumentException.class, () -> this.codec.decode("not-a-token", NOW));
+        assertThrows(IllegalArgumentException.class, () -> this.codec.decode("a.b.c", NOW));
+        assertTrue(this.codec.encode(7, "auser", NOW).startsWith("eyJhbGciOiJIUzI1NiJ9."));
+    }
+
+}
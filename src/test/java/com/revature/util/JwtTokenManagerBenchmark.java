@@ -0,0 +1,80 @@
+package com.revature.util;
+
+import java.security.Key;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.revature.models.User;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+
+
+/**
+ * Compares the original token parsing path (a new <code>JwtParser</code> and a
+ * full verification per call) with the shared parser and the verified-token
+ * cache in <code>JwtTokenManager</code>.
+ *
+ * Run with <code>mvn test-compile</code> followed by the <code>main</code>
+ * method of this class (from the IDE or with the test classpath).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtTokenManagerBenchmark {
+
+    private Key key;
+    private JwtTokenManager cachedManager;
+    private JwtTokenManager uncachedManager;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        this.key = Keys.secretKeyFor(SignatureAlgorithm.HS256);
+        this.cachedManager = new JwtTokenManager(SigningKeyRing.of("bench", this.key), 10_000, 300);
+        this.uncachedManager = new JwtTokenManager(SigningKeyRing.of("bench", this.key), 0, 300);
+        this.token = this.cachedManager.issueToken(new User(42, "benchuser", "Project2Team6!", "bench@dat.boi"));
+    }
+
+    @Benchmark
+    public int parserPerCall() {
+        return Integer.parseInt(Jwts.parserBuilder()
+            .setSigningKey(this.key)
+            .build()
+            .parseClaimsJws(this.token)
+            .getBody()
+            .getId());
+    }
+
+    @Benchmark
+    public int sharedParser() {
+        return this.uncachedManager.parseUserIdFromToken(this.token);
+    }
+
+    @Benchmark
+    public int sharedParserWithCache() {
+        return this.cachedManager.parseUserIdFromToken(this.token);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(JwtTokenManagerBenchmark.class.getSimpleName()).build()).run();
+    }
+
+}
@@ -0,0 +1,116 @@
+package com.revature.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.security.Key;
+import java.util.Date;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.revature.exceptions.AuthenticationException;
+import com.revature.models.User;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+
+class JwtTokenManagerTest {
+
+    private Key key;
+    private JwtTokenManager tokenManager;
+    private MeterRegistry registry;
+    private User dummyUser;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        this.key = Keys.secretKeyFor(SignatureAlgorithm.HS256);
+        this.tokenManager = new JwtTokenManager(SigningKeyRing.of("k1", this.key), 100, 60);
+        this.registry = new SimpleMeterRegistry();
+        this.tokenManager.bindTo(this.registry);
+        this.dummyUser = new User(7, "auser", "Project2Team6!", "auser@dat.boi");
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        this.tokenManager = null;
+        this.dummyUser = null;
+    }
+
+    private double cacheGets(String result) {
+        return this.registry.get("cache.gets").tag("cache", "jwt.verified-tokens").tag("result", result)
+            .functionCounter().count();
+    }
+
+    @Test
+    void testParseUserIdFromToken_Success() {
+        String token = this.tokenManager.issueToken(this.dummyUser);
+
+        assertEquals(this.dummyUser.getId(), this.tokenManager.parseUserIdFromToken(token));
+    }
+
+    @Test
+    void testParseUserIdFromToken_Success_CachedOnSecondCall() {
+        String token = this.tokenManager.issueToken(this.dummyUser);
+
+        this.tokenManager.parseUserIdFromToken(token);
+        this.tokenManager.parseUserIdFromToken(token);
+        this.tokenManager.parseUserIdFromToken(token);
+
+        assertEquals(1, cacheGets("miss"));
+        assertEquals(2, cacheGets("hit"));
+    }
+
+    @Test
+    void testParseUserIdFromToken_Failure_TamperedSignature() {
+        String token = this.tokenManager.issueToken(this.dummyUser);
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        assertThrows(AuthenticationException.class, () -> this.tokenManager.parseUserIdFromToken(tampered));
+    }
+
+    @Test
+    void testParseUserIdFromToken_Failure_ForeignKey() {
+        String token = Jwts.builder()
+            .setId("7")
+            .signWith(Keys.secretKeyFor(SignatureAlgorithm.HS256))
+            .compact();
+
+        assertThrows(AuthenticationException.class, () -> this.tokenManager.parseUserIdFromToken(token));
+    }
+
+    @Test
+    void testParseUserIdFromToken_Success_IssuedByJjwt() {
+        String token = Jwts.builder()
+            .setHeaderParam("kid", "k1")
+            .setId("7")
+            .signWith(this.key)
+            .compact();
+
+        assertEquals(7, this.tokenManager.parseUserIdFromToken(token));
+    }
+
+    @Test
+    void testParseUserIdFromToken_Failure_Expired() {
+        String token = Jwts.builder()
+            .setHeaderParam("kid", "k1")
+            .setId("7")
+            .setExpiration(new Date(System.currentTimeMillis() - 1000))
+            .signWith(this.key)
+            .compact();
+
+        assertThrows(AuthenticationException.class, () -> this.tokenManager.parseUserIdFromToken(token));
+    }
+
+    @Test
+    void testParseUserIdFromToken_Failure_Missing() {
+        assertThrows(AuthenticationException.class, () -> this.tokenManager.parseUserIdFromToken(null));
+        assertThrows(AuthenticationException.class, () -> this.tokenManager.parseUserIdFromToken(""));
+    }
+
+}
@@ -0,0 +1,148 @@
+package com.revature.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.revature.dto.CharacterScore;
+import com.revature.dto.RankedCharacter;
+
+
+class LeaderboardTest {
+
+    private static CharacterScore score(int id, int level, int experience) {
+        return new CharacterScore(id, "c" + id, 1, level, experience);
+    }
+
+    private static List<Integer> ids(List<RankedCharacter> ranked) {
+        List<Integer> ids = new ArrayList<>();
+        for (RankedCharacter r : ranked) {
+            ids.add(r.getId());
+        }
+        return ids;
+    }
+
+    @Test
+    void testRange_LevelThenExperienceThenId() {
+        Leaderboard board = new Leaderboard();
+        board.put(score(1, 5, 100));
+        board.put(score(2, 7, 10));
+        board.put(score(3, 5, 300));
+        board.put(score(4, 5, 100));
+        board.put(score(5, 1, 9999));
+
+        List<RankedCharacter> top = board.range(1, 10);
+
+        assertEquals(Arrays.asList(2, 3, 1, 4, 5), ids(top));
+        assertEquals(Arrays.asList(1L, 2L, 3L, 4L, 5L), Arrays.asList(top.get(0).getRank(), top.get(1).getRank(),
+            top.get(2).getRank(), top.get(3).getRank(), top.get(4).getRank()));
+    }
+
+    @Test
+    void testRange_FromTheMiddle() {
+        Leaderboard board = new Leaderboard();
+        for (int id = 1; id <= 10; id++) {
+            // two characters per level
+            board.put(score(id, (id + 1) / 2, id));
+        }
+
+        List<RankedCharacter> middle = board.range(4, 3);
+
+        assertEquals(Arrays.asList(7, 6, 5), ids(middle));
+        assertEquals(4, middle.get(0).getRank());
+        assertEquals(Collections.emptyList(), board.range(11, 3));
+        assertEquals(Arrays.asList(1), ids(board.range(10, 3)));
+    }
+
+    @Test
+    void testPut_MovesTheCharacter() {
+        Leaderboard board = new Leaderboard();
+        board.put(score(1, 1, 0));
+        board.put(score(2, 2, 0));
+
+        board.put(score(1, 3, 0));
+
+        assertEquals(2, board.size());
+        assertEquals(Arrays.asList(1, 2), ids(board.range(1, 10)));
+        assertEquals(1, board.rankOf(1).getRank());
+        assertEquals(3, board.rankOf(1).getLevel());
+    }
+
+    @Test
+    void testRemove() {
+        Leaderboard board = new Leaderboard();
+        board.put(score(1, 1, 0));
+        board.put(score(2, 2, 0));
+
+        board.remove(2);
+        board.remove(3);
+
+        assertEquals(1, board.size());
+        assertNull(board.rankOf(2));
+        assertEquals(1, board.rankOf(1).getRank());
+    }
+
+    @Test
+    void testRankOf_MatchesFullSort() {
+        Random random = new Random(7);
+        Leaderboard board = new Leaderboard();
+        List<CharacterScore> all = new ArrayList<>();
+        for (int id = 0; id < 2000; id++) {
+            CharacterScore s = score(id, random.nextInt(20), random.nextInt(50));
+            board.put(s);
+            all.add(s);
+        }
+        all.sort(Comparator.comparingInt(CharacterScore::getLevel).reversed()
+            .thenComparing(Comparator.comparingInt(CharacterScore::getExperience).reversed())
+            .thenComparingInt(CharacterScore::getId));
+
+        for (int i = 0; i < all.size(); i += 37) {
+            assertEquals(i + 1, board.rankOf(all.get(i).getId()).getRank());
+        }
+        assertEquals(all.get(1234).getId(), board.range(1235, 1).get(0).getId());
+    }
+
+    @Test
+    void testRankOf_MatchesFullSortAfterMovesAndRemovals() {
+        Random random = new Random(11);
+        Leaderboard board = new Leaderboard();
+        Map<Integer, CharacterScore> current = new HashMap<>();
+        // most characters new, at level 1 with no experience
+        for (int i = 0; i < 20000; i++) {
+            int id = random.nextInt(5000);
+            if (random.nextInt(10) == 0) {
+                board.remove(id);
+                current.remove(id);
+            } else {
+                boolean fresh = random.nextInt(4) != 0;
+                CharacterScore s = score(id, fresh ? 1 : 1 + random.nextInt(5), fresh ? 0 : random.nextInt(50));
+                board.put(s);
+                current.put(id, s);
+            }
+        }
+        List<CharacterScore> all = new ArrayList<>(current.values());
+        all.sort(Comparator.comparingInt(CharacterScore::getLevel).reversed()
+            .thenComparing(Comparator.comparingInt(CharacterScore::getExperience).reversed())
+            .thenComparingInt(CharacterScore::getId));
+
+        assertEquals(all.size(), board.size());
+        for (int i = 0; i < all.size(); i += 13) {
+            assertEquals(i + 1, board.rankOf(all.get(i).getId()).getRank());
+        }
+        List<RankedCharacter> page = board.range(all.size() - 5, 10);
+        assertEquals(6, page.size());
+        assertEquals(all.get(all.size() - 6).getId(), page.get(0).getId());
+        assertEquals(all.size(), page.get(5).getRank());
+    }
+
+}
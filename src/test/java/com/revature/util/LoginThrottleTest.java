@@ -0,0 +1,99 @@
+package com.revature.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+
+class LoginThrottleTest {
+
+    private MutableClock clock;
+    private LoginThrottle throttle;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        this.clock = new MutableClock(Instant.parse("2026-10-01T00:00:00Z"));
+        this.throttle = new LoginThrottle(3, 60, 300, 1000, this.clock);
+    }
+
+    private void advance(Duration duration) {
+        this.clock.now = this.clock.now.plus(duration);
+    }
+
+    @Test
+    void testRecordFailure_LocksOutAfterMaxFailures() {
+        this.throttle.recordFailure("u:auser");
+        this.throttle.recordFailure("u:auser");
+        assertEquals(0, this.throttle.retryAfterSeconds("u:auser"));
+
+        this.throttle.recordFailure("u:auser");
+        assertEquals(300, this.throttle.retryAfterSeconds("u:auser"));
+        assertEquals(0, this.throttle.retryAfterSeconds("u:someoneelse"));
+    }
+
+    @Test
+    void testRecordFailure_WindowResets() {
+        this.throttle.recordFailure("u:auser");
+        this.throttle.recordFailure("u:auser");
+        advance(Duration.ofSeconds(61));
+        this.throttle.recordFailure("u:auser");
+
+        assertEquals(0, this.throttle.retryAfterSeconds("u:auser"));
+    }
+
+    @Test
+    void testRecordSuccess_ResetsFailures() {
+        this.throttle.recordFailure("u:auser");
+        this.throttle.recordFailure("u:auser");
+        this.throttle.recordSuccess("u:auser");
+        this.throttle.recordFailure("u:auser");
+
+        assertEquals(0, this.throttle.retryAfterSeconds("u:auser"));
+    }
+
+    @Test
+    void testRetryAfterSeconds_LockoutExpires() {
+        for (int i = 0; i < 3; i++) {
+            this.throttle.recordFailure("ip:10.0.0.1");
+        }
+
+        advance(Duration.ofSeconds(299));
+        assertEquals(1, this.throttle.retryAfterSeconds("ip:10.0.0.1"));
+
+        advance(Duration.ofSeconds(1));
+        assertEquals(0, this.throttle.retryAfterSeconds("ip:10.0.0.1"));
+    }
+
+    private static class MutableClock extends Clock {
+
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return this.now;
+        }
+
+    }
+
+}
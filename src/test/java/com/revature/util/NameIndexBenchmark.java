@@ -0,0 +1,103 @@
+package com.revature.util;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.revature.dto.SearchHit;
+
+
+/**
+ * Search latency of <code>NameIndex</code> over <code>names</code> random
+ * two-word names (plus "Luke Skywalker"), for a short prefix, a longer prefix, a query with one typo,
+ * one with two, and one that matches nothing, each with the default limit of
+ * 10.
+ *
+ * Run with <code>mvn test-compile</code> followed by the <code>main</code>
+ * method of this class (from the IDE or with the test classpath).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NameIndexBenchmark {
+
+    private static final String CONSONANTS = "bcdfghjklmnprstvwyz";
+    private static final String VOWELS = "aeiou";
+
+    @Param({ "100000" })
+    public int names;
+
+    private NameIndex index;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        this.index = new NameIndex();
+        for (int i = 0; i < this.names; i++) {
+            this.index.put(i, word(random) + " " + word(random));
+        }
+        this.index.put(this.names, "Luke Skywalker");
+    }
+
+    private static String word(Random random) {
+        // pronounceable: consonants and vowels alternate, 4 to 9 letters
+        StringBuilder word = new StringBuilder();
+        int length = 4 + random.nextInt(6);
+        boolean vowel = random.nextBoolean();
+        for (int i = 0; i < length; i++) {
+            String letters = vowel ? VOWELS : CONSONANTS;
+            word.append(letters.charAt(random.nextInt(letters.length())));
+            vowel = !vowel;
+        }
+        word.setCharAt(0, Character.toUpperCase(word.charAt(0)));
+        return word.toString();
+    }
+
+    @Benchmark
+    public List<SearchHit> shortPrefix() {
+        return this.index.search("sk", 10);
+    }
+
+    @Benchmark
+    public List<SearchHit> longPrefix() {
+        return this.index.search("skywal", 10);
+    }
+
+    @Benchmark
+    public List<SearchHit> oneTypo() {
+        return this.index.search("lkue sky", 10);
+    }
+
+    @Benchmark
+    public List<SearchHit> twoTypos() {
+        return this.index.search("skywlakr", 10);
+    }
+
+    @Benchmark
+    public List<SearchHit> noMatch() {
+        return this.index.search("xqxqxqxq", 10);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(NameIndexBenchmark.class.getSimpleName()).build()).run();
+    }
+
+}
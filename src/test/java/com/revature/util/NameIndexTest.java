@@ -0,0 +1,117 @@
+package com.revature.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.revature.dto.SearchHit;
+
+
+class NameIndexTest {
+
+    private NameIndex index;
+
+    @BeforeEach
+    void setUp() {
+        this.index = new NameIndex();
+        this.index.put(1, "Luke Skywalker");
+        this.index.put(2, "Anakin Skywalker");
+        this.index.put(3, "Leia Organa");
+        this.index.put(4, "Padmé Amidala");
+        this.index.put(5, "Lando Calrissian");
+        this.index.put(6, "Luke");
+    }
+
+    private List<Integer> ids(String query) {
+        List<Integer> ids = new ArrayList<>();
+        for (SearchHit hit : this.index.search(query, 10)) {
+            ids.add(hit.getId());
+        }
+        return ids;
+    }
+
+    @Test
+    void testSearch_PrefixOfNameOrWord() {
+        assertEquals(Arrays.asList(6, 1), ids("luke"));
+        assertEquals(Arrays.asList(1, 2), ids("Sky"));
+        assertEquals(Collections.singletonList(1), ids("luke sky"));
+        assertEquals(Collections.singletonList(new SearchHit(3, "Leia Organa")), this.index.search("ORG", 10));
+    }
+
+    @Test
+    void testSearch_IgnoresCaseAndAccents() {
+        assertEquals(Collections.singletonList(4), ids("PADME"));
+        assertEquals(Collections.singletonList(4), ids("padmé a"));
+    }
+
+    @Test
+    void testSearch_ToleratesTypos() {
+        // one substitution, one swap, two edits on a longer query
+        assertEquals(Collections.singletonList(3), ids("leua"));
+        assertEquals(Arrays.asList(6, 1), ids("lkue"));
+        assertEquals(Arrays.asList(1, 2), ids("skywlakr"));
+        assertEquals(Collections.singletonList(5), ids("calrisian"));
+    }
+
+    @Test
+    void testSearch_PrefixMatchesBeforeTypos() {
+        this.index.put(7, "Lune");
+
+        // "lune" is a prefix match, "luke" one typo away
+        assertEquals(Arrays.asList(7, 6, 1), ids("lune"));
+    }
+
+    @Test
+    void testSearch_ShortQueriesAllowNoTypos() {
+        assertEquals(Collections.emptyList(), ids("lek"));
+        assertEquals(Collections.emptyList(), ids("xyz"));
+        assertEquals(Collections.emptyList(), ids("  "));
+    }
+
+    @Test
+    void testSearch_Limit() {
+        for (int i = 0; i < 100; i++) {
+            this.index.put(100 + i, "Clone " + i);
+        }
+
+        assertEquals(3, this.index.search("clone", 3).size());
+        assertEquals(NameIndex.MAX_LIMIT, this.index.search("clone", 1000).size());
+    }
+
+    @Test
+    void testPut_ReplacesName() {
+        this.index.put(3, "Leia Solo");
+
+        assertEquals(Collections.emptyList(), ids("organa"));
+        assertEquals(Collections.singletonList(3), ids("solo"));
+        assertEquals(6, this.index.size());
+    }
+
+    @Test
+    void testRemove() {
+        this.index.remove(1);
+        this.index.remove(42);
+
+        assertEquals(Collections.singletonList(2), ids("sky"));
+        assertEquals(Collections.singletonList(6), ids("luke"));
+        assertTrue(ids("lkue").contains(6));
+        assertEquals(5, this.index.size());
+    }
+
+    @Test
+    void testPrefixDistance() {
+        assertEquals(0, NameIndex.prefixDistance("sky", "skywalker", 1));
+        assertEquals(1, NameIndex.prefixDistance("skx", "skywalker", 1));
+        assertEquals(1, NameIndex.prefixDistance("ksy", "skywalker", 1));
+        assertEquals(1, NameIndex.prefixDistance("skyw", "sky", 1));
+        assertEquals(2, NameIndex.prefixDistance("abcd", "skywalker", 1));
+    }
+
+}
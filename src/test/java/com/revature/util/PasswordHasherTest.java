@@ -0,0 +1,88 @@
+package com.revature.util;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import com.revature.exceptions.TooManyRequestsException;
+
+
+class PasswordHasherTest {
+
+    private ThreadPoolExecutor pool;
+    private PasswordHasher hasher;
+    private CountDownLatch release;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        this.pool = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(1));
+        this.hasher = new PasswordHasher(new BCryptPasswordEncoder(4), this.pool, 500);
+        this.release = new CountDownLatch(1);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        this.release.countDown();
+        this.hasher.destroy();
+    }
+
+    private void blockPool() {
+        this.pool.execute(() -> {
+            try {
+                this.release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+    }
+
+    @Test
+    void testHash_Success_SaltedAndVerifiable() {
+        String first = this.hasher.hash("Project2Team6!");
+        String second = this.hasher.hash("Project2Team6!");
+
+        assertNotEquals(first, second);
+        assertTrue(this.hasher.isHashed(first));
+        assertTrue(this.hasher.matches("Project2Team6!", first));
+        assertFalse(this.hasher.matches("Project2Team7!", first));
+    }
+
+    @Test
+    void testMatches_LegacyPlainText() {
+        assertFalse(this.hasher.isHashed("Project2Team6!"));
+        assertTrue(this.hasher.matches("Project2Team6!", "Project2Team6!"));
+        assertFalse(this.hasher.matches("Project2Team6", "Project2Team6!"));
+    }
+
+    @Test
+    void testMatches_Failure_UnknownUser() {
+        assertFalse(this.hasher.matches("Project2Team6!", null));
+    }
+
+    @Test
+    void testHash_Failure_QueueFull() {
+        blockPool();
+        blockPool();
+
+        assertThrows(TooManyRequestsException.class, () -> this.hasher.hash("Project2Team6!"));
+    }
+
+    @Test
+    void testHash_Failure_Timeout() {
+        blockPool();
+
+        assertThrows(TooManyRequestsException.class, () -> this.hasher.hash("Project2Team6!"));
+    }
+
+}
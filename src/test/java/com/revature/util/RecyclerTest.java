@@ -0,0 +1,95 @@
+package com.revature.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+
+
+class RecyclerTest {
+
+    private final AtomicInteger created = new AtomicInteger();
+
+    @Test
+    void testAcquire_Success_PerThread() throws Exception {
+        Recycler<Object> recycler = new Recycler<>(this::create, 4, () -> false);
+
+        Object first = recycler.acquire();
+        recycler.release(first);
+        Object other = CompletableFuture.supplyAsync(recycler::acquire).get();
+
+        assertSame(first, recycler.acquire());
+        assertNotSame(first, other);
+    }
+
+    @Test
+    void testAcquire_Success_SharedReusesReleased() {
+        Recycler<Object> recycler = new Recycler<>(this::create, 4, () -> true);
+
+        Object first = recycler.acquire();
+        recycler.release(first);
+
+        assertSame(first, recycler.acquire());
+        assertEquals(1, this.created.get());
+    }
+
+    @Test
+    void testAcquire_Success_SharedNeverLendsTwice() {
+        Recycler<Object> recycler = new Recycler<>(this::create, 4, () -> true);
+
+        assertNotSame(recycler.acquire(), recycler.acquire());
+        assertEquals(2, this.created.get());
+    }
+
+    @Test
+    void testRelease_Success_SharedKeepsAtMostCapacity() {
+        Recycler<Object> recycler = new Recycler<>(this::create, 2, () -> true);
+        Object[] held = { recycler.acquire(), recycler.acquire(), recycler.acquire() };
+        for (Object o : held) {
+            recycler.release(o);
+        }
+
+        recycler.acquire();
+        recycler.acquire();
+        recycler.acquire();
+
+        assertEquals(4, this.created.get());
+    }
+
+    @Test
+    void testAcquire_Success_VirtualThreadsShare() throws Exception {
+        assumeTrue(VirtualThreads.isSupported(), "needs Java 21 or later");
+        Recycler<Object> recycler = new Recycler<>(this::create);
+        ThreadFactory factory = VirtualThreads.factory("test-vt-");
+
+        Object first = onNewThread(factory, () -> {
+            Object o = recycler.acquire();
+            recycler.release(o);
+            return o;
+        });
+
+        assertSame(first, onNewThread(factory, recycler::acquire));
+        assertEquals(1, this.created.get());
+    }
+
+    private static Object onNewThread(ThreadFactory factory, Supplier<Object> task) throws Exception {
+        CompletableFuture<Object> result = new CompletableFuture<>();
+        Thread t = factory.newThread(() -> result.complete(task.get()));
+        t.start();
+        t.join();
+        return result.get();
+    }
+
+    private Object create() {
+        this.created.incrementAndGet();
+        return new Object();
+    }
+
+}
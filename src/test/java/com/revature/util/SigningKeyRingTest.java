@@ -0,0 +1,158 @@
+package com.revature.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Base64;
+
+import javax.crypto.SecretKey;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.revature.models.User;
+
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+
+
+class SigningKeyRingTest {
+
+    private static final Instant T0 = Instant.parse("2026-10-01T00:00:00Z");
+
+    private SecretKey oldKey;
+    private SecretKey newKey;
+    private MutableClock clock;
+    private SigningKeyRing ring;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        this.oldKey = Keys.secretKeyFor(SignatureAlgorithm.HS256);
+        this.newKey = Keys.secretKeyFor(SignatureAlgorithm.HS256);
+        this.clock = new MutableClock(T0.plus(Duration.ofDays(1)));
+        this.ring = new SigningKeyRing(Arrays.asList(
+            new SigningKeyRing.SigningKey("2026-11", T0.plus(Duration.ofDays(31)), this.newKey),
+            new SigningKeyRing.SigningKey("2026-10", T0, this.oldKey)),
+            Duration.ofDays(1), Duration.ofMinutes(1), this.clock);
+    }
+
+    private String issue() {
+        return this.ring.signingCodec().encode(7, "auser", this.clock.instant().getEpochSecond());
+    }
+
+    private void advanceTo(Instant instant) {
+        this.clock.now = instant;
+        this.ring.refresh();
+    }
+
+    @Test
+    void testSigningCodec_NewestActiveKey() {
+        assertEquals("2026-10", this.ring.signingCodec().getKeyId());
+        assertTrue(this.ring.accepts("2026-10"));
+        assertFalse(this.ring.accepts("2026-11"));
+    }
+
+    @Test
+    void testRefresh_RotatesAndKeepsPreviousKeyDuringGracePeriod() {
+        String oldToken = issue();
+
+        advanceTo(T0.plus(Duration.ofDays(31)).plus(Duration.ofHours(1)));
+
+        assertEquals("2026-11", this.ring.signingCodec().getKeyId());
+        assertEquals("2026-10", this.ring.verifyingCodec(oldToken).getKeyId());
+        assertEquals("2026-11", this.ring.verifyingCodec(issue()).getKeyId());
+    }
+
+    @Test
+    void testRefresh_RetiresPreviousKeyAfterGracePeriod() {
+        String oldToken = issue();
+
+        advanceTo(T0.plus(Duration.ofDays(33)));
+
+        assertFalse(this.ring.accepts("2026-10"));
+        assertThrows(IllegalArgumentException.class, () -> this.ring.verifyingCodec(oldToken));
+    }
+
+    @Test
+    void testVerifyingCodec_AcceptsUpcomingKeyWithinClockSkew() {
+        advanceTo(T0.plus(Duration.ofDays(31)).minus(Duration.ofSeconds(30)));
+
+        String earlyToken = new Hs256JwtCodec(this.newKey, "2026-11", JwtTokenManager.ISSUER)
+            .encode(7, "auser", this.clock.instant().getEpochSecond());
+
+        assertEquals("2026-10", this.ring.signingCodec().getKeyId());
+        assertEquals("2026-11", this.ring.verifyingCodec(earlyToken).getKeyId());
+    }
+
+    @Test
+    void testVerifyingCodec_Failure_UnknownKeyId() {
+        String token = new Hs256JwtCodec(this.oldKey, "someone-else", JwtTokenManager.ISSUER)
+            .encode(7, "auser", this.clock.instant().getEpochSecond());
+
+        assertThrows(IllegalArgumentException.class, () -> this.ring.verifyingCodec(token));
+    }
+
+    @Test
+    void testKeyFile_TokenFromOneInstanceAcceptedByAnother(@TempDir Path dir) throws IOException {
+        Path keyFile = dir.resolve("jwt.keys");
+        Files.write(keyFile, Arrays.asList(
+            "# kid  active-from  secret",
+            "k1  2020-01-01T00:00:00Z  " + Base64.getEncoder().encodeToString(this.oldKey.getEncoded()),
+            "k2  2021-01-01T00:00:00Z  " + Base64.getEncoder().encodeToString(this.newKey.getEncoded())),
+            StandardCharsets.UTF_8);
+
+        JwtTokenManager nodeA = new JwtTokenManager(new SigningKeyRing(keyFile.toString(), 60, 60), 100, 60);
+        JwtTokenManager nodeB = new JwtTokenManager(new SigningKeyRing(keyFile.toString(), 60, 60), 100, 60);
+
+        String token = nodeA.issueToken(new User(7, "auser", "Project2Team6!", "a@dat.boi"));
+
+        assertEquals(7, nodeB.parseUserIdFromToken(token));
+    }
+
+    @Test
+    void testKeyFile_Failure_Malformed(@TempDir Path dir) throws IOException {
+        Path keyFile = dir.resolve("jwt.keys");
+        Files.write(keyFile, Arrays.asList("k1 2020-01-01T00:00:00Z"), StandardCharsets.UTF_8);
+
+        assertThrows(IllegalArgumentException.class, () -> new SigningKeyRing(keyFile.toString(), 60, 60));
+    }
+
+    private static class MutableClock extends Clock {
+
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return this.now;
+        }
+
+    }
+
+}
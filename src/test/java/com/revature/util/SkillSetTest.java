@@ -0,0 +1,80 @@
+package com.revature.util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+
+class SkillSetTest {
+
+    @Test
+    void testContains() {
+        SkillSet skills = SkillSet.of(Arrays.asList(1, 63, 64, 200));
+
+        assertTrue(skills.contains(1));
+        assertTrue(skills.contains(63));
+        assertTrue(skills.contains(64));
+        assertTrue(skills.contains(200));
+        assertFalse(skills.contains(0));
+        assertFalse(skills.contains(65));
+        assertFalse(skills.contains(1000));
+        assertFalse(skills.contains(-1));
+        assertEquals(4, skills.size());
+    }
+
+    @Test
+    void testToArray_AscendingWithoutDuplicates() {
+        SkillSet skills = SkillSet.of(Arrays.asList(130, 2, 64, 2));
+
+        assertArrayEquals(new int[] { 2, 64, 130 }, skills.toArray());
+    }
+
+    @Test
+    void testWith_LeavesOriginalUnchanged() {
+        SkillSet skills = SkillSet.of(Collections.singletonList(3));
+        SkillSet more = skills.with(300);
+
+        assertFalse(skills.contains(300));
+        assertTrue(more.contains(300));
+        assertTrue(more.contains(3));
+        assertSame(more, more.with(3));
+    }
+
+    @Test
+    void testContainsAll() {
+        SkillSet skills = SkillSet.of(Arrays.asList(1, 5, 70));
+
+        assertTrue(skills.containsAll(SkillSet.of(Arrays.asList(1, 70))));
+        assertTrue(skills.containsAll(SkillSet.empty()));
+        assertFalse(skills.containsAll(SkillSet.of(Arrays.asList(1, 71))));
+        assertFalse(skills.containsAll(SkillSet.of(Collections.singletonList(500))));
+    }
+
+    @Test
+    void testEquals_SameIdsEqualSets() {
+        assertEquals(SkillSet.of(Arrays.asList(4, 100)), SkillSet.of(Arrays.asList(100, 4)));
+        assertEquals(SkillSet.empty(), SkillSet.of(Collections.emptyList()));
+        assertEquals(SkillSet.of(Arrays.asList(4, 100)).hashCode(), SkillSet.empty().with(100).with(4).hashCode());
+    }
+
+    @Test
+    void testOf_Failure_NegativeId() {
+        assertThrows(IllegalArgumentException.class, () -> SkillSet.of(Collections.singletonList(-3)));
+    }
+
+    @Test
+    void testSerializedAsIdArray() throws Exception {
+        assertEquals("[1,65]", new ObjectMapper().writeValueAsString(SkillSet.of(Arrays.asList(65, 1))));
+    }
+
+}
@@ -0,0 +1,38 @@
+package com.revature.util;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadFactory;
+
+import org.junit.jupiter.api.Test;
+
+
+class VirtualThreadsTest {
+
+    @Test
+    void testFactory_Success_VirtualThreads() throws Exception {
+        assumeTrue(VirtualThreads.isSupported(), "needs Java 21 or later");
+        ThreadFactory factory = VirtualThreads.factory("test-vt-");
+        CompletableFuture<Thread> ran = new CompletableFuture<>();
+
+        Thread t = factory.newThread(() -> ran.complete(Thread.currentThread()));
+        t.start();
+
+        assertTrue(VirtualThreads.isVirtual(ran.get()));
+        assertTrue(t.getName().startsWith("test-vt-"));
+    }
+
+    @Test
+    void testFactory_Failure_NotSupported() {
+        assumeFalse(VirtualThreads.isSupported(), "runs on JVMs without virtual threads");
+
+        assertThrows(IllegalStateException.class, () -> VirtualThreads.factory("test-vt-"));
+        assertFalse(VirtualThreads.isVirtual(Thread.currentThread()));
+    }
+
+}
@@ -0,0 +1,120 @@
+package com.revature.web;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Collections;
+
+import javax.validation.ConstraintViolationException;
+import javax.validation.Validation;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.http.HttpStatus;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.revature.data.CharacterRepository;
+import com.revature.dto.AuthenticatedUser;
+import com.revature.models.Character;
+import com.revature.models.Species;
+import com.revature.models.Stats;
+import com.revature.models.User;
+import com.revature.service.CharacterService;
+
+
+/**
+ * Updates go through the real persistence context, so the version checks are
+ * Hibernate's own.
+ */
+@DataJpaTest(properties = "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect")
+class CharacterControllerTest {
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private CharacterRepository charRepo;
+
+    private CharacterController controller;
+    private AuthenticatedUser caller;
+    private Character character;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        CharacterService cserv = new CharacterService(this.charRepo, this.em.getEntityManager(), event -> {
+        }, null);
+        this.controller = new CharacterController(cserv, null, null, null, new ObjectMapper());
+
+        User owner = this.em.persist(new User("updater", "Project2Team6!", "updater@dat.boi"));
+        Species species = this.em.persist(new Species("Updater species", "A species"));
+        Character c = new Character("Updater", null);
+        c.setOwner(owner);
+        c.setSpecies(species);
+        c.setStats(new Stats(1, 0, 10, 1, 1, 1, 0));
+        this.character = this.em.persist(c);
+        // a second write moves it to version 1
+        this.character.setName("Updated");
+        this.em.flush();
+        this.em.clear();
+        this.caller = new AuthenticatedUser(owner.getId(), owner.getUsername());
+    }
+
+    @Test
+    void testUpdateCharacter_Success() {
+        Character current = copy(this.character, 1);
+
+        assertEquals(HttpStatus.OK, this.controller.updateCharacter(current, this.caller, null).getStatusCode());
+    }
+
+    @Test
+    void testUpdateCharacter_Failure_StaleVersion() {
+        Character stale = copy(this.character, 0);
+
+        assertEquals(HttpStatus.CONFLICT, this.controller.updateCharacter(stale, this.caller, null).getStatusCode());
+    }
+
+    @Test
+    void testAddCharacter_Success_ExistingIdOfAnotherUser() {
+        User intruder = this.em.persist(new User("intruder", "Project2Team6!", "intruder@dat.boi"));
+        Character posted = copy(this.character, 1);
+
+        Character created = this.controller
+            .addCharacter(posted, new AuthenticatedUser(intruder.getId(), intruder.getUsername())).getBody();
+        this.em.flush();
+        this.em.clear();
+
+        assertNotEquals(this.character.getId(), created.getId());
+        assertEquals(intruder.getId(), this.em.find(Character.class, created.getId()).getOwner().getId());
+        Character untouched = this.em.find(Character.class, this.character.getId());
+        assertEquals("Updated", untouched.getName());
+        assertEquals(this.caller.getId(), untouched.getOwner().getId());
+    }
+
+    @Test
+    void testAddCharacter_Success_BodyWithoutOwner() {
+        Character posted = copy(this.character, 0);
+
+        assertEquals(Collections.emptySet(), Validation.buildDefaultValidatorFactory().getValidator().validate(posted));
+        assertEquals(this.caller.getId(), this.controller.addCharacter(posted, this.caller).getBody().getOwner().getId());
+    }
+
+    @Test
+    void testPersist_Failure_NoOwner() {
+        Character ownerless = copy(this.character, 0);
+        ownerless.setId(0);
+
+        assertThrows(ConstraintViolationException.class, () -> this.em.persistAndFlush(ownerless));
+    }
+
+    // what a client sends back after reading the character at this version
+    private static Character copy(Character c, int version) {
+        Character copy = new Character(c.getId(), "Renamed", c.getSpecies(), null, c.getStats(), null);
+        copy.setVersion(version);
+        return copy;
+    }
+
+}
@@ -0,0 +1,107 @@
+// Load test comparing Tomcat's worker pool with virtual threads (threads.virtual.enabled).
+//
+// Every virtual user logs in as the same user and loops over a read and a stat update that
+// go to the database (a character) and two reads mostly answered from memory (the user
+// availability check, the leaderboard). Run it once per mode and per client count against the same database:
+//
+//   java -jar target/ProjectStarWars.jar --ratelimit.enabled=false
+//   k6 run -e VUS=1000 -e LABEL=pool-1k src/test/k6/virtual-threads.js
+//   k6 run -e VUS=5000 -e LABEL=pool-5k src/test/k6/virtual-threads.js
+//
+//   java -Djdk.tracePinnedThreads=short -jar target/ProjectStarWars.jar --ratelimit.enabled=false \
+//       --threads.virtual.enabled=true                                       (Java 21 or later)
+//   k6 run -e VUS=1000 -e LABEL=virtual-1k src/test/k6/virtual-threads.js
+//   k6 run -e VUS=5000 -e LABEL=virtual-5k src/test/k6/virtual-threads.js
+//
+// Rate limiting is off since all the virtual users are one user. Each run prints its
+// throughput and p99 on one line and writes the full summary to summary-<LABEL>.json; compare
+// them along with jvm.threads.live, hikaricp.connections.pending,
+// jvm.threads.virtual.pinned and jvm.gc.memory.allocated from /api/actuator/metrics. The
+// allocation rate should stay close between the modes: every request digests its token and
+// some sign or verify one, with a Mac, digest and buffers that platform threads keep per
+// thread and virtual threads borrow from a pool (Recycler) rather than create per request.
+//
+// Options (-e): BASE_URL (http://localhost:5000/api), VUS (1000), RAMP (30s), DURATION (2m),
+// CHARACTERS (200), LABEL (run).
+
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:5000/api';
+const VUS = parseInt(__ENV.VUS || '1000', 10);
+const CHARACTERS = parseInt(__ENV.CHARACTERS || '200', 10);
+const LABEL = __ENV.LABEL || 'run';
+
+export const options = {
+  scenarios: {
+    clients: {
+      executor: 'ramping-vus',
+      startVUs: 0,
+      stages: [
+        { duration: __ENV.RAMP || '30s', target: VUS },
+        { duration: __ENV.DURATION || '2m', target: VUS },
+      ],
+      gracefulRampDown: '10s',
+    },
+  },
+  summaryTrendStats: ['avg', 'med', 'p(90)', 'p(99)', 'max'],
+  setupTimeout: '2m',
+};
+
+const JSON_HEADERS = { 'Content-Type': 'application/json' };
+
+export function setup() {
+  const suffix = Date.now().toString(36);
+  const user = { username: `load${suffix}`, password: 'Passw0rd!x', email: `load${suffix}@load.test` };
+  check(http.post(`${BASE_URL}/users/add`, JSON.stringify(user), { headers: JSON_HEADERS }),
+    { 'user registered': (r) => r.status === 200 });
+
+  const login = http.post(`${BASE_URL}/login`,
+    JSON.stringify({ username: user.username, password: user.password }), { headers: JSON_HEADERS });
+  const token = login.headers['Auth-Token'];
+  const headers = Object.assign({ 'auth-token': token }, JSON_HEADERS);
+
+  const species = http.post(`${BASE_URL}/species`,
+    JSON.stringify({ speciesName: `Load ${suffix}`, description: 'Created by the load test' }), { headers });
+  const speciesId = species.json('id');
+
+  const ids = [];
+  for (let from = 0; from < CHARACTERS; from += 500) {
+    const characters = [];
+    for (let i = from; i < Math.min(from + 500, CHARACTERS); i++) {
+      characters.push({
+        name: `Load ${suffix} ${i}`,
+        species: { id: speciesId },
+        stats: { level: 1, experience: 0, health: 100, strength: 10, defense: 10, dexterity: 10, forcePower: 0 },
+      });
+    }
+    const batch = http.post(`${BASE_URL}/characters/batch`, JSON.stringify({ characters }), { headers });
+    batch.json().forEach((c) => ids.push(c.id));
+  }
+  return { token, ids };
+}
+
+export default function (data) {
+  const headers = Object.assign({ 'auth-token': data.token }, JSON_HEADERS);
+  const id = data.ids[Math.floor(Math.random() * data.ids.length)];
+
+  check(http.get(`${BASE_URL}/characters/${id}`, { headers, tags: { name: 'character' } }),
+    { 'character 200': (r) => r.status === 200 });
+  check(http.get(`${BASE_URL}/users/available?username=taken${__VU}x${__ITER}`, { tags: { name: 'available' } }),
+    { 'available 200': (r) => r.status === 200 });
+  check(http.get(`${BASE_URL}/leaderboard?limit=10`, { headers, tags: { name: 'leaderboard' } }),
+    { 'leaderboard 200': (r) => r.status === 200 });
+  check(http.patch(`${BASE_URL}/characters/${id}/stats`, JSON.stringify({ experience: 1 }),
+    { headers, tags: { name: 'stats' } }), { 'stats 200': (r) => r.status === 200 });
+}
+
+export function handleSummary(data) {
+  const reqs = data.metrics.http_reqs.values;
+  const duration = data.metrics.http_req_duration.values;
+  const failed = data.metrics.http_req_failed.values.rate;
+  const line = `${LABEL}: ${VUS} clients, ${reqs.rate.toFixed(1)} req/s, p99 ${duration['p(99)'].toFixed(1)}ms, `
+    + `median ${duration.med.toFixed(1)}ms, ${(failed * 100).toFixed(2)}% failed\n`;
+  const out = { stdout: line };
+  out[`summary-${LABEL}.json`] = JSON.stringify(data, null, 2);
+  return out;
+}